@@ -2,6 +2,7 @@ package ch.epfl.tchu;
 
 import java.util.*;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Multiensemble trié et immuable.
@@ -178,18 +179,87 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
      * la taille du multiensemble
      */
     public Set<SortedBag<E>> subsetsOfSize(int size) {
+        var result = new LinkedHashSet<SortedBag<E>>();
+        subsetsOfSizeStream(size).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Retourne un flot (paresseux) de tous les sous-ensembles du multiensemble ayant une taille donnée,
+     * chacun n'apparaissant qu'une seule fois.
+     * Les sous-ensembles sont produits par ordre lexicographique décroissant de leurs multiplicités,
+     * les éléments étant considérés dans l'ordre croissant : le premier contient autant que possible
+     * des plus petits éléments. Pour un multiensemble de deux éléments distincts, les sous-ensembles
+     * sont donc triés par nombre croissant d'occurrences du plus grand élément.
+     * @param size la taille des sous-ensembles à retourner
+     * @return un flot des sous-ensembles de <code>this</code> de taille <code>size</code>
+     * @throws IllegalArgumentException si <code>size</code> n'est pas comprise entre 0 et
+     * la taille du multiensemble
+     */
+    public Stream<SortedBag<E>> subsetsOfSizeStream(int size) {
         Preconditions.checkArgument(0 <= size && size <= size());
-        if (size == 0)
-            return Set.of(SortedBag.of());
-
-        var result = new HashSet<SortedBag<E>>();
-        for (var e1 : elements.keySet()) {
-            var s1 = SortedBag.of(e1);
-            this.difference(s1)
-                    .subsetsOfSize(size - 1)
-                    .forEach(e -> result.add(s1.union(e)));
+        var iterator = new SubsetsIterator(size);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    // Itérateur sur les sous-ensembles d'une taille donnée, qui parcourt directement les vecteurs
+    // de multiplicités (un par élément distinct, dans l'ordre) au lieu de combiner des multiensembles.
+    private final class SubsetsIterator implements Iterator<SortedBag<E>> {
+        private final List<E> distinctElements = new ArrayList<>(elements.keySet());
+        private final int[] maxCounts = new int[distinctElements.size()];
+        // suffixCapacities[i] : nombre total d'éléments disponibles à partir de l'index i
+        private final int[] suffixCapacities = new int[distinctElements.size() + 1];
+        private final int[] counts = new int[distinctElements.size()];
+        private boolean hasNext = true;
+
+        private SubsetsIterator(int size) {
+            for (var i = 0; i < maxCounts.length; i++)
+                maxCounts[i] = elements.get(distinctElements.get(i));
+            for (var i = maxCounts.length - 1; i >= 0; i--)
+                suffixCapacities[i] = suffixCapacities[i + 1] + maxCounts[i];
+            fillFrom(0, size);
+        }
+
+        // Répartit count éléments à partir de l'index from, en prenant autant que possible des premiers.
+        private void fillFrom(int from, int count) {
+            for (var i = from; i < counts.length; i++) {
+                counts[i] = Math.min(maxCounts[i], count);
+                count -= counts[i];
+            }
+            assert count == 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public SortedBag<E> next() {
+            if (!hasNext)
+                throw new NoSuchElementException();
+
+            var subsetElements = new TreeMap<E, Integer>();
+            for (var i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) subsetElements.put(distinctElements.get(i), counts[i]);
+            }
+
+            // Passe au vecteur de multiplicités suivant : l'index le plus à droite dont une occurrence
+            // peut être reportée plus loin perd une occurrence, et la fin du vecteur est re-remplie.
+            hasNext = false;
+            var suffixCount = 0;
+            for (var i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0 && suffixCapacities[i + 1] > suffixCount) {
+                    counts[i] -= 1;
+                    fillFrom(i + 1, suffixCount + 1);
+                    hasNext = true;
+                    break;
+                }
+                suffixCount += counts[i];
+            }
+            return new SortedBag<>(subsetElements);
         }
-        return result;
     }
 
     /**
@@ -0,0 +1,205 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trip;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computer player of tCHu choosing its turns by a Monte-Carlo tree search, for the games played on ChMap.
+ * Each decision is given a time budget, during which the search runs in parallel on a fork/join pool.
+ *
+ * The hand and the tickets of the other player and the order of the decks, which the player does not know,
+ * are drawn anew at each iteration of the search among the cards and the tickets it has not seen.
+ * The initial tickets and the additional cards of the tunnels are chosen by simple rules instead:
+ * the player keeps the initial tickets worth the most points per car of their shortest trips,
+ * and pays the additional cards with as few locomotives as possible.
+ * The shortest paths are updated as the routes are claimed, the routes of the other player being blocked.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class MctsPlayer implements Player {
+
+    private static final int INITIAL_KEPT_TICKETS_COUNT = 3;
+
+    private final Random rng;
+    private final long timeBudget;
+    private final int maxIterations;
+    private final int threadCount;
+    private final ForkJoinPool pool;
+
+    private PlayerId ownId;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private ShortestPaths shortestPaths = ShortestPaths.chMap();
+    private final Set<Route> knownClaimedRoutes = new HashSet<>();
+    private SortedBag<Ticket> initialTickets;
+    private int plannedSlot;
+    private boolean slotPlanned;
+    private Route routeToClaim;
+    private SortedBag<Card> claimCards;
+
+    /**
+     * construct a player searching on all the threads of the common fork/join pool, during the given time per decision
+     *
+     * @param seed       the seed of the random generator of the player
+     * @param timeBudget the duration of the search of each decision
+     * @throws IllegalArgumentException if the time budget is negative
+     */
+    public MctsPlayer(long seed, Duration timeBudget) {
+        this(seed, timeBudget, Integer.MAX_VALUE, ForkJoinPool.commonPool().getParallelism(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * construct a player searching with the given number of tasks of the given pool, during the given time per
+     * decision, or until the given number of iterations of the search is reached
+     *
+     * @param seed          the seed of the random generator of the player
+     * @param timeBudget    the greatest duration of the search of each decision
+     * @param maxIterations the greatest number of iterations of the search of each decision
+     * @param threadCount   the number of tasks searching in parallel
+     * @param pool          the pool running the tasks
+     * @throws IllegalArgumentException if the time budget is negative or if maxIterations or threadCount is not positive
+     */
+    public MctsPlayer(long seed, Duration timeBudget, int maxIterations, int threadCount, ForkJoinPool pool) {
+        Preconditions.checkArgument(!timeBudget.isNegative() && maxIterations > 0 && threadCount > 0);
+        this.rng = new Random(seed);
+        this.timeBudget = timeBudget.toNanos();
+        this.maxIterations = maxIterations;
+        this.threadCount = threadCount;
+        this.pool = pool;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+        this.shortestPaths = ShortestPaths.chMap();
+        this.knownClaimedRoutes.clear();
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+        for (Route route : newState.claimedRoutes()) {
+            if(knownClaimedRoutes.add(route)) {
+                shortestPaths = ownState.routes().contains(route)
+                        ? shortestPaths.withOwnedRoute(route)
+                        : shortestPaths.withBlockedRoute(route);
+            }
+        }
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        List<Ticket> tickets = new ArrayList<>(initialTickets.toList());
+        tickets.sort(Comparator.comparingDouble(ticket -> -pointsPerCar(ticket)));
+        return SortedBag.of(tickets.subList(0, INITIAL_KEPT_TICKETS_COUNT));
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        int decision = search(Simulation.TURN_START, List.of());
+        switch (Simulation.kind(decision)) {
+            case Simulation.DRAW_CARD:
+                plannedSlot = Simulation.slot(decision);
+                slotPlanned = true;
+                return TurnKind.DRAW_CARDS;
+            case Simulation.CLAIM_ROUTE:
+                routeToClaim = ChMap.routes().get(Simulation.routeIndex(decision));
+                claimCards = routeToClaim.possibleClaimCards().get(Simulation.claimCardsIndex(decision));
+                return TurnKind.CLAIM_ROUTE;
+            default:
+                // Drawing tickets is also the only thing to do when nothing else is possible: no ticket is then drawn
+                return TurnKind.DRAW_TICKETS;
+        }
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        if(options.isEmpty())
+            return options;
+        List<Ticket> drawnTickets = options.toList();
+        int positions = Simulation.ticketPositions(search(Simulation.CHOOSE_TICKETS, drawnTickets));
+        SortedBag.Builder<Ticket> chosenTickets = new SortedBag.Builder<>();
+        for (int i = 0; i < drawnTickets.size(); i++) {
+            if((positions & (1 << i)) != 0)
+                chosenTickets.add(drawnTickets.get(i));
+        }
+        return chosenTickets.build();
+    }
+
+    @Override
+    public int drawSlot() {
+        if(slotPlanned) {
+            slotPlanned = false;
+            return plannedSlot;
+        }
+        int decision = search(Simulation.SECOND_DRAW, List.of());
+        return (Simulation.kind(decision) == Simulation.DRAW_CARD) ? Simulation.slot(decision) : Constants.DECK_SLOT;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return routeToClaim;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return claimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.get(0);
+    }
+
+    // Returns the points of the shortest trip of the given ticket divided by its length, 0 if it cannot be completed.
+    private double pointsPerCar(Ticket ticket) {
+        Trip trip = shortestPaths.cheapestTrip(ticket);
+        if(trip == null || !shortestPaths.isFeasible(ticket, Constants.INITIAL_CAR_COUNT))
+            return 0;
+        return (double) trip.points() / Math.max(1, shortestPaths.ticketDistance(ticket));
+    }
+
+    // Searches the best decision of the player in the given phase of its turn, knowing the given tickets on top of the deck.
+    private int search(int phase, List<Ticket> topTickets) {
+        long deadline = System.nanoTime() + timeBudget;
+        PublicGameState state = gameState;
+        PlayerState playerState = ownState;
+        int drawnTicketsCount = topTickets.size();
+        TreeSearch search = new TreeSearch(searchRng -> new Simulation(
+                MutableGameState.sample(state, ownId, playerState, topTickets, searchRng), phase, drawnTicketsCount));
+        search.run(deadline, maxIterations, threadCount, rng.nextLong(), pool);
+        return search.bestDecision();
+    }
+}
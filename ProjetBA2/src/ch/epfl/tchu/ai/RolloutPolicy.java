@@ -0,0 +1,317 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trip;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Policy choosing the decisions of the players in the playouts of the search, directly from tables precomputed
+ * once per map, without enumerating the possible decisions nor allocating anything.
+ *
+ * Each ticket is associated with the routes of the shortest trip connecting its stations. A player claims the
+ * longest route needed by its tickets it can claim, draws the cards of the colors of these routes otherwise,
+ * and draws new tickets once all its tickets are connected, keeping those it can still connect with its cars.
+ * A route can be claimed if the cards of its color, or of the most frequent color for a gray route,
+ * completed with locomotives for a tunnel, are enough.
+ *
+ * A policy keeps the data of the decision it computes, so it must not be used by several threads at the same time.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class RolloutPolicy {
+
+    // One decision out of RANDOM_CLAIM_ODDS claims the longest claimable route, even if it is not needed
+    private static final int RANDOM_CLAIM_ODDS = 10;
+    private static final int MIN_CARS_FOR_TICKETS = 12;
+    private static final int ENDGAME_CARS = 6;
+    private static final int SATISFIED = -1;
+    private static final int BLOCKED = -2;
+    private static final int NO_COLOR = -1;
+    private static final int LOCOMOTIVE = Card.LOCOMOTIVE.ordinal();
+
+    private static volatile Tables cachedTables;
+
+    private final Tables tables;
+    private final int[] hand = new int[Card.COUNT];
+    private final int[] ticketCosts = new int[Constants.IN_GAME_TICKETS_COUNT];
+    private final boolean[] neededColors = new boolean[Card.COUNT];
+    private final int[] wantedRoutes;
+    private final int[] routeStamps;
+    private int wantedCount;
+    private int stamp;
+
+    /**
+     * construct a policy for the games played on the routes and with the tickets of the given state
+     *
+     * @param state a state of the games played with the policy
+     */
+    RolloutPolicy(MutableGameState state) {
+        this.tables = Tables.of(state);
+        this.wantedRoutes = new int[tables.routes.size()];
+        this.routeStamps = new int[tables.routes.size()];
+    }
+
+    /**
+     * returns the decision of the player to move in the given simulation, which must not be over
+     *
+     * @param simulation the simulation
+     * @param rng        random generator
+     * @return the decision of the player to move, among the possible ones
+     */
+    int decision(Simulation simulation, Random rng) {
+        MutableGameState state = simulation.state();
+        PlayerId playerId = state.currentPlayerId();
+        for (int card = 0; card < Card.COUNT; card++)
+            hand[card] = state.cardCount(playerId, Card.ALL.get(card));
+        collectWantedRoutes(state, playerId);
+
+        switch (simulation.phase()) {
+            case Simulation.TURN_START:
+                return turnStartDecision(state, playerId, rng);
+            case Simulation.SECOND_DRAW:
+                return state.canDrawCards() ? Simulation.drawCard(drawSlot(state)) : Simulation.PASS;
+            case Simulation.CHOOSE_TICKETS:
+                return Simulation.keepTickets(keptTickets(state, playerId, simulation.drawnTicketsCount()));
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private int turnStartDecision(MutableGameState state, PlayerId playerId, Random rng) {
+        int bestRoute = -1;
+        int bestClaimCards = -1;
+        for (int i = 0; i < wantedCount; i++) {
+            int route = wantedRoutes[i];
+            int claimCards = claimCardsIndex(state, playerId, route);
+            if(claimCards >= 0 && (bestRoute < 0 || tables.lengths[route] > tables.lengths[bestRoute])) {
+                bestRoute = route;
+                bestClaimCards = claimCards;
+            }
+        }
+        if(bestRoute >= 0)
+            return Simulation.claimRoute(bestRoute, bestClaimCards);
+
+        int carCount = state.carCount(playerId);
+        if(wantedCount == 0 && carCount >= MIN_CARS_FOR_TICKETS && state.canDrawTickets())
+            return Simulation.DRAW_TICKETS;
+
+        boolean endgame = state.lastPlayer() != null || carCount <= ENDGAME_CARS
+                || state.carCount(playerId.next()) <= ENDGAME_CARS;
+        if(wantedCount == 0 || endgame || !state.canDrawCards() || rng.nextInt(RANDOM_CLAIM_ODDS) == 0) {
+            int claim = longestClaim(state, playerId, rng);
+            if(claim >= 0)
+                return claim;
+        }
+        if(state.canDrawCards())
+            return Simulation.drawCard(drawSlot(state));
+        return state.canDrawTickets() ? Simulation.DRAW_TICKETS : Simulation.PASS;
+    }
+
+    // Returns the decision of claiming the longest claimable route, chosen at random among the longest ones, or -1.
+    private int longestClaim(MutableGameState state, PlayerId playerId, Random rng) {
+        int bestDecision = -1;
+        int bestLength = 0;
+        int bestCount = 0;
+        for (int route = 0; route < tables.routes.size(); route++) {
+            if(tables.lengths[route] < bestLength)
+                continue;
+            int claimCards = claimCardsIndex(state, playerId, route);
+            if(claimCards < 0)
+                continue;
+            if(tables.lengths[route] > bestLength) {
+                bestLength = tables.lengths[route];
+                bestCount = 0;
+            }
+            if(rng.nextInt(++bestCount) == 0)
+                bestDecision = Simulation.claimRoute(route, claimCards);
+        }
+        return bestDecision;
+    }
+
+    // Returns the slot of the face-up card of a color needed by the wanted routes, or the deck.
+    private int drawSlot(MutableGameState state) {
+        for (int slot : Constants.FACE_UP_CARD_SLOTS) {
+            if(neededColors[state.faceUpCard(slot).ordinal()])
+                return slot;
+        }
+        return Constants.DECK_SLOT;
+    }
+
+    // Returns the positions of the drawn tickets kept: the cheapest one, and the others while the cars suffice.
+    private int keptTickets(MutableGameState state, PlayerId playerId, int drawnCount) {
+        int remainingCars = state.carCount(playerId);
+        for (int i = 0; i < wantedCount; i++)
+            remainingCars -= tables.lengths[wantedRoutes[i]];
+
+        int[] costs = ticketCosts;
+        int cheapest = 0;
+        for (int position = 0; position < drawnCount; position++) {
+            costs[position] = ticketCost(state, playerId, state.topTicketIndex(position));
+            if(costs[position] < costs[cheapest])
+                cheapest = position;
+        }
+        int kept = 1 << cheapest;
+        remainingCars -= costs[cheapest];
+        for (int position = 0; position < drawnCount; position++) {
+            if(position != cheapest && costs[position] <= remainingCars) {
+                kept |= 1 << position;
+                remainingCars -= costs[position];
+            }
+        }
+        return kept;
+    }
+
+    // Collects the free routes needed by the tickets of the player, and the colors of their cards.
+    private void collectWantedRoutes(MutableGameState state, PlayerId playerId) {
+        stamp++;
+        wantedCount = 0;
+        Arrays.fill(neededColors, false);
+        for (int ticket = 0; ticket < tables.ticketRoutes.length; ticket++) {
+            if(state.ticketCount(playerId, ticket) == 0)
+                continue;
+            for (int route : tables.ticketRoutes[ticket]) {
+                int freeRoute = freeRoute(state, playerId, route);
+                if(freeRoute < 0 || routeStamps[freeRoute] == stamp)
+                    continue;
+                routeStamps[freeRoute] = stamp;
+                wantedRoutes[wantedCount++] = freeRoute;
+                int color = tables.colors[freeRoute];
+                if(color == NO_COLOR)
+                    color = mostFrequentCar();
+                neededColors[color] = true;
+                if(tables.tunnels[freeRoute])
+                    neededColors[LOCOMOTIVE] = true;
+            }
+        }
+    }
+
+    // Returns the number of cars still needed to connect the stations of the given ticket, a large number if it cannot.
+    private int ticketCost(MutableGameState state, PlayerId playerId, int ticket) {
+        int cost = 0;
+        for (int route : tables.ticketRoutes[ticket]) {
+            int freeRoute = freeRoute(state, playerId, route);
+            if(freeRoute == BLOCKED)
+                return Constants.INITIAL_CAR_COUNT + 1;
+            if(freeRoute >= 0)
+                cost += tables.lengths[freeRoute];
+        }
+        return cost;
+    }
+
+    // Returns the route to claim to own the given route or its double, or SATISFIED if the player owns one, or BLOCKED.
+    private int freeRoute(MutableGameState state, PlayerId playerId, int route) {
+        int sibling = tables.siblings[route];
+        PlayerId owner = state.routeOwner(route);
+        PlayerId siblingOwner = (sibling < 0) ? null : state.routeOwner(sibling);
+        if(owner == playerId || (sibling >= 0 && siblingOwner == playerId))
+            return SATISFIED;
+        if(owner == null)
+            return route;
+        return (sibling >= 0 && siblingOwner == null) ? sibling : BLOCKED;
+    }
+
+    // Returns the index of the claim cards of the given route the player can use, or -1 if it cannot claim it.
+    private int claimCardsIndex(MutableGameState state, PlayerId playerId, int route) {
+        int length = tables.lengths[route];
+        if(state.routeOwner(route) != null || state.carCount(playerId) < length)
+            return -1;
+        int color = (tables.colors[route] == NO_COLOR) ? mostFrequentCar() : tables.colors[route];
+        int colorCount = Math.min(hand[color], length);
+        int locomotiveCount = length - colorCount;
+        if(locomotiveCount > hand[LOCOMOTIVE])
+            return -1;
+        return (colorCount == 0)
+                ? tables.claimCardsIndices[route][LOCOMOTIVE][length]
+                : tables.claimCardsIndices[route][color][locomotiveCount];
+    }
+
+    private int mostFrequentCar() {
+        int best = 0;
+        for (int card = 1; card < LOCOMOTIVE; card++) {
+            if(hand[card] > hand[best])
+                best = card;
+        }
+        return best;
+    }
+
+    /**
+     * Tables of the routes and tickets of a map, shared by all the policies
+     */
+    private static final class Tables {
+        private final List<Route> routes;
+        private final List<Ticket> tickets;
+        private final int[] lengths;
+        private final int[] colors;
+        private final boolean[] tunnels;
+        private final int[] siblings;
+        private final int[][][] claimCardsIndices;
+        private final int[][] ticketRoutes;
+
+        private Tables(MutableGameState state) {
+            routes = state.routes();
+            tickets = state.tickets();
+            int routeCount = routes.size();
+            lengths = new int[routeCount];
+            colors = new int[routeCount];
+            tunnels = new boolean[routeCount];
+            siblings = new int[routeCount];
+            claimCardsIndices = new int[routeCount][][];
+            for (int i = 0; i < routeCount; i++) {
+                Route route = routes.get(i);
+                lengths[i] = route.length();
+                colors[i] = (route.color() == null) ? NO_COLOR : Card.of(route.color()).ordinal();
+                tunnels[i] = route.level() == Route.Level.UNDERGROUND;
+                siblings[i] = -1;
+                for (int j = 0; j < routeCount; j++) {
+                    if(j != i && sameStations(route, routes.get(j)))
+                        siblings[i] = j;
+                }
+
+                claimCardsIndices[i] = new int[Card.COUNT][route.length() + 1];
+                for (int[] indices : claimCardsIndices[i])
+                    Arrays.fill(indices, -1);
+                List<CardBag> claimCards = state.claimCards(i);
+                for (int option = 0; option < claimCards.size(); option++) {
+                    CardBag cards = claimCards.get(option);
+                    Card card = Card.LOCOMOTIVE;
+                    for (Card car : Card.CARS) {
+                        if(cards.contains(car))
+                            card = car;
+                    }
+                    claimCardsIndices[i][card.ordinal()][cards.countOf(Card.LOCOMOTIVE)] = option;
+                }
+            }
+
+            ticketRoutes = new int[tickets.size()][];
+            ShortestPaths paths = ShortestPaths.of(routes);
+            for (int t = 0; t < tickets.size(); t++) {
+                Trip trip = paths.cheapestTrip(tickets.get(t));
+                ticketRoutes[t] = (trip == null) ? new int[0] : paths.pathRoutes(trip.from().id(), trip.to().id());
+            }
+        }
+
+        static Tables of(MutableGameState state) {
+            Tables tables = cachedTables;
+            if(tables == null || tables.routes != state.routes() || tables.tickets != state.tickets()) {
+                tables = new Tables(state);
+                cachedTables = tables;
+            }
+            return tables;
+        }
+
+        private static boolean sameStations(Route route1, Route route2) {
+            return route1.station1().id() == route2.station1().id() && route1.station2().id() == route2.station2().id()
+                    || route1.station1().id() == route2.station2().id() && route1.station2().id() == route2.station1().id();
+        }
+    }
+}
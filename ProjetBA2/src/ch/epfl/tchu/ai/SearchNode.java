@@ -0,0 +1,125 @@
+package ch.epfl.tchu.ai;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node of a search tree shared by several threads, reached by a decision of a player.
+ * Its statistics are updated without locks, by atomic operations only.
+ *
+ * A visit is counted as soon as a thread goes through the node, and its value only once the playout is over,
+ * so that, in the meantime, the other threads see the node as a loss and prefer exploring other nodes.
+ * As the states are determinized, a decision is not possible in all the visits of its parent: its availability
+ * counts the visits of its parent in which it was possible.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class SearchNode {
+
+    // The values are summed as fixed-point numbers, to be updated atomically
+    private static final double VALUE_SCALE = 1L << 32;
+
+    private final int decision;
+    private final int player;
+    private final AtomicInteger visits = new AtomicInteger();
+    private final AtomicInteger availability = new AtomicInteger();
+    private final AtomicLong valueSum = new AtomicLong();
+    private final ConcurrentMap<Integer, SearchNode> children = new ConcurrentHashMap<>();
+
+    /**
+     * construct a node reached by the given decision of the given player
+     *
+     * @param decision the code of the decision
+     * @param player   the ordinal of the player who takes the decision, or -1 for the root
+     */
+    SearchNode(int decision, int player) {
+        this.decision = decision;
+        this.player = player;
+    }
+
+    /**
+     * returns the code of the decision leading to the node
+     */
+    int decision() {
+        return decision;
+    }
+
+    /**
+     * returns the ordinal of the player who takes the decision leading to the node
+     */
+    int player() {
+        return player;
+    }
+
+    /**
+     * returns the child reached by the given decision, or null if it has not been created yet
+     */
+    SearchNode child(int decision) {
+        return children.get(decision);
+    }
+
+    /**
+     * returns the child reached by the given decision of the given player, creating it if needed
+     */
+    SearchNode addChild(int decision, int player) {
+        SearchNode child = new SearchNode(decision, player);
+        SearchNode existing = children.putIfAbsent(decision, child);
+        return (existing == null) ? child : existing;
+    }
+
+    /**
+     * returns the children created so far
+     */
+    Iterable<SearchNode> children() {
+        return children.values();
+    }
+
+    /**
+     * counts a visit of the node
+     */
+    void addVisit() {
+        visits.incrementAndGet();
+    }
+
+    /**
+     * counts a visit of the parent in which the decision of the node was possible
+     */
+    void addAvailability() {
+        availability.incrementAndGet();
+    }
+
+    /**
+     * adds the given value, between 0 and 1, of a playout going through the node
+     */
+    void addValue(double value) {
+        valueSum.addAndGet(Math.round(value * VALUE_SCALE));
+    }
+
+    /**
+     * returns the number of visits of the node
+     */
+    int visits() {
+        return visits.get();
+    }
+
+    /**
+     * returns the mean value of the visits of the node, for its player, or 0 if it has not been visited
+     */
+    double meanValue() {
+        int visits = this.visits.get();
+        return (visits == 0) ? 0 : valueSum.get() / VALUE_SCALE / visits;
+    }
+
+    /**
+     * returns the upper confidence bound of the value of the node, with the given exploration constant
+     */
+    double upperConfidenceBound(double exploration) {
+        int visits = this.visits.get();
+        if(visits == 0)
+            return Double.POSITIVE_INFINITY;
+        return meanValue() + exploration * Math.sqrt(Math.log(Math.max(availability.get(), 1)) / visits);
+    }
+}
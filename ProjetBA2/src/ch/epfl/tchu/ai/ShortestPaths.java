@@ -0,0 +1,330 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Station;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of the lengths, in cars, of the shortest paths between all the pairs of stations of a map,
+ * for a player who owns some of the routes, which cost it nothing, and cannot use the routes blocked by the other one.
+ * The table is immutable: claiming a route gives a new table, derived from the previous one
+ * without recomputing the paths it does not change.
+ *
+ * Blocking a route only changes the paths from the stations whose shortest paths go through it, which are searched
+ * again, and owning a route only shortens the paths going through it, which are obtained from the table itself.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class ShortestPaths {
+
+    /**
+     * The length of the paths between stations which are not connected
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int BLOCKED = -1;
+    private static final ShortestPaths CH_MAP = of(ChMap.routes());
+
+    private final Graph graph;
+    private final int[] costs;
+    private final int[] distances;
+
+    private ShortestPaths(Graph graph, int[] costs, int[] distances) {
+        this.graph = graph;
+        this.costs = costs;
+        this.distances = distances;
+    }
+
+    /**
+     * returns the table of the shortest paths on the given routes, none of them being claimed
+     *
+     * @param routes the routes of the map
+     * @return the table of the shortest paths on the given routes
+     */
+    public static ShortestPaths of(List<Route> routes) {
+        Graph graph = new Graph(routes);
+        int[] costs = new int[routes.size()];
+        for (int i = 0; i < costs.length; i++)
+            costs[i] = routes.get(i).length();
+
+        int n = graph.stationCount;
+        int[] distances = new int[n * n];
+        for (int from = 0; from < n; from++)
+            System.arraycopy(graph.distancesFrom(from, costs, null), 0, distances, from * n, n);
+        return new ShortestPaths(graph, costs, distances);
+    }
+
+    /**
+     * returns the table of the shortest paths on the routes of the map of Switzerland, none of them being claimed
+     *
+     * @return the table of the shortest paths on the routes of ChMap
+     */
+    public static ShortestPaths chMap() {
+        return CH_MAP;
+    }
+
+    /**
+     * returns the length of the shortest path between the given stations
+     *
+     * @param from the first station
+     * @param to   the second station
+     * @return the number of cars needed to connect the stations, or UNREACHABLE if they cannot be connected
+     */
+    public int distance(Station from, Station to) {
+        return distance(from.id(), to.id());
+    }
+
+    /**
+     * returns the length of the shortest path between the stations of given identities, or UNREACHABLE if they cannot be connected
+     */
+    int distance(int from, int to) {
+        int n = graph.stationCount;
+        if(from >= n || to >= n)
+            return from == to ? 0 : UNREACHABLE;
+        return distances[from * n + to];
+    }
+
+    /**
+     * returns the number of cars needed to connect the stations of one of the trips of the given ticket
+     *
+     * @param ticket the ticket
+     * @return the length of the shortest path connecting the stations of a trip of the ticket,
+     * or UNREACHABLE if none of its trips can be completed
+     */
+    public int ticketDistance(Ticket ticket) {
+        int best = UNREACHABLE;
+        for (Trip trip : ticket.trips())
+            best = Math.min(best, distance(trip.from(), trip.to()));
+        return best;
+    }
+
+    /**
+     * returns the trip of the given ticket whose stations are connected by the shortest path
+     *
+     * @param ticket the ticket
+     * @return the trip of the ticket whose stations are the cheapest to connect, or null if none can be completed
+     */
+    public Trip cheapestTrip(Ticket ticket) {
+        Trip best = null;
+        int bestDistance = UNREACHABLE;
+        for (Trip trip : ticket.trips()) {
+            int distance = distance(trip.from(), trip.to());
+            if(distance < bestDistance) {
+                bestDistance = distance;
+                best = trip;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * returns true iff the given number of cars is enough to connect the stations of one of the trips of the given ticket
+     *
+     * @param ticket   the ticket
+     * @param carCount the number of cars left
+     * @return true iff the ticket can be completed with the given number of cars
+     */
+    public boolean isFeasible(Ticket ticket, int carCount) {
+        return ticketDistance(ticket) <= carCount;
+    }
+
+    /**
+     * returns the routes of a shortest path between the given stations, which the player has not claimed yet,
+     * in the order of the path from the first station
+     *
+     * @param from the first station
+     * @param to   the second station
+     * @return the routes of a shortest path between the stations, owned ones excepted,
+     * empty if they are the same or cannot be connected
+     */
+    public List<Route> path(Station from, Station to) {
+        List<Route> path = new ArrayList<>();
+        for (int route : pathRoutes(from.id(), to.id()))
+            path.add(graph.routes.get(route));
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * returns the indices of the routes not owned of a shortest path between the stations of given identities,
+     * in the order of the path from the first station
+     */
+    int[] pathRoutes(int from, int to) {
+        if(distance(from, to) == UNREACHABLE || from == to)
+            return new int[0];
+        // The search starts from the arrival, so that the last routes lead back to the departure in order
+        int[] lastRoutes = new int[graph.stationCount];
+        graph.distancesFrom(to, costs, lastRoutes);
+        int count = 0;
+        for (int station = from; station != to; station = graph.otherStation(lastRoutes[station], station)) {
+            if(costs[lastRoutes[station]] > 0)
+                count++;
+        }
+        int[] path = new int[count];
+        int i = 0;
+        for (int station = from; station != to; station = graph.otherStation(lastRoutes[station], station)) {
+            if(costs[lastRoutes[station]] > 0)
+                path[i++] = lastRoutes[station];
+        }
+        return path;
+    }
+
+    /**
+     * returns the table obtained when the given route is claimed by the other player, and cannot be used anymore
+     *
+     * @param route the route claimed by the other player
+     * @return the table of the shortest paths without the given route
+     * @throws IllegalArgumentException if the route is unknown or already claimed
+     */
+    public ShortestPaths withBlockedRoute(Route route) {
+        int index = graph.routeIndex(route);
+        Preconditions.checkArgument(costs[index] == route.length());
+        int n = graph.stationCount;
+        int s1 = route.station1().id();
+        int s2 = route.station2().id();
+        int cost = costs[index];
+
+        int[] newCosts = costs.clone();
+        newCosts[index] = BLOCKED;
+        int[] newDistances = distances.clone();
+        for (int from = 0; from < n; from++) {
+            int d1 = distances[from * n + s1];
+            int d2 = distances[from * n + s2];
+            // The paths from a station change only if the route is on one of them
+            boolean onShortestPath = d1 != UNREACHABLE && (d1 + cost == d2 || d2 + cost == d1);
+            if(!onShortestPath)
+                continue;
+            int[] row = graph.distancesFrom(from, newCosts, null);
+            for (int to = 0; to < n; to++) {
+                newDistances[from * n + to] = row[to];
+                newDistances[to * n + from] = row[to];
+            }
+        }
+        return new ShortestPaths(graph, newCosts, newDistances);
+    }
+
+    /**
+     * returns the table obtained when the given route is claimed by the player, and costs it no car anymore
+     *
+     * @param route the route claimed by the player
+     * @return the table of the shortest paths in which the given route has length 0
+     * @throws IllegalArgumentException if the route is unknown or already claimed
+     */
+    public ShortestPaths withOwnedRoute(Route route) {
+        int index = graph.routeIndex(route);
+        Preconditions.checkArgument(costs[index] == route.length());
+        int n = graph.stationCount;
+        int s1 = route.station1().id();
+        int s2 = route.station2().id();
+
+        int[] newCosts = costs.clone();
+        newCosts[index] = 0;
+        int[] newDistances = distances.clone();
+        // A shortest path goes through the route at most once, in one direction or the other
+        for (int from = 0; from < n; from++) {
+            int d1 = distances[from * n + s1];
+            int d2 = distances[from * n + s2];
+            if(d1 == UNREACHABLE)
+                continue;
+            for (int to = 0; to < n; to++) {
+                int through = Math.min(sum(d1, distances[s2 * n + to]), sum(d2, distances[s1 * n + to]));
+                if(through < newDistances[from * n + to])
+                    newDistances[from * n + to] = through;
+            }
+        }
+        return new ShortestPaths(graph, newCosts, newDistances);
+    }
+
+    private static int sum(int distance1, int distance2) {
+        return (distance1 == UNREACHABLE || distance2 == UNREACHABLE) ? UNREACHABLE : distance1 + distance2;
+    }
+
+    /**
+     * Routes of a map and the routes incident to each station, shared by all the tables of the map
+     */
+    private static final class Graph {
+        private final List<Route> routes;
+        private final Map<Route, Integer> routeIndices = new HashMap<>();
+        private final int stationCount;
+        private final int[][] incidentRoutes;
+
+        private Graph(List<Route> routes) {
+            this.routes = List.copyOf(routes);
+            int stationCount = 0;
+            for (int i = 0; i < this.routes.size(); i++) {
+                Route route = this.routes.get(i);
+                routeIndices.put(route, i);
+                stationCount = Math.max(stationCount, Math.max(route.station1().id(), route.station2().id()) + 1);
+            }
+            this.stationCount = stationCount;
+
+            int[] degrees = new int[stationCount];
+            for (Route route : this.routes) {
+                degrees[route.station1().id()]++;
+                degrees[route.station2().id()]++;
+            }
+            incidentRoutes = new int[stationCount][];
+            for (int s = 0; s < stationCount; s++)
+                incidentRoutes[s] = new int[degrees[s]];
+            Arrays.fill(degrees, 0);
+            for (int i = 0; i < this.routes.size(); i++) {
+                int s1 = this.routes.get(i).station1().id();
+                int s2 = this.routes.get(i).station2().id();
+                incidentRoutes[s1][degrees[s1]++] = i;
+                incidentRoutes[s2][degrees[s2]++] = i;
+            }
+        }
+
+        private int routeIndex(Route route) {
+            Integer index = routeIndices.get(route);
+            Preconditions.checkArgument(index != null);
+            return index;
+        }
+
+        private int otherStation(int route, int station) {
+            Route r = routes.get(route);
+            return (r.station1().id() == station) ? r.station2().id() : r.station1().id();
+        }
+
+        // Dijkstra's algorithm, the graph being small enough for the closest station to be searched linearly.
+        // Fills lastRoutes, if it is not null, with the last route of the path to each station, or -1.
+        private int[] distancesFrom(int from, int[] costs, int[] lastRoutes) {
+            int[] distances = new int[stationCount];
+            boolean[] done = new boolean[stationCount];
+            Arrays.fill(distances, UNREACHABLE);
+            if(lastRoutes != null)
+                Arrays.fill(lastRoutes, -1);
+            distances[from] = 0;
+            while (true) {
+                int station = -1;
+                for (int s = 0; s < stationCount; s++) {
+                    if(!done[s] && distances[s] != UNREACHABLE && (station < 0 || distances[s] < distances[station]))
+                        station = s;
+                }
+                if(station < 0)
+                    return distances;
+                done[station] = true;
+                for (int route : incidentRoutes[station]) {
+                    if(costs[route] == BLOCKED)
+                        continue;
+                    int other = otherStation(route, station);
+                    if(distances[station] + costs[route] < distances[other]) {
+                        distances[other] = distances[station] + costs[route];
+                        if(lastRoutes != null)
+                            lastRoutes[other] = route;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Route;
+
+import java.util.Random;
+
+/**
+ * Game played by the search, on a complete (determinized) state, following the rules applied by Game.
+ * The turns are split into the decisions of the players, each designated by an integer code:
+ * drawing a card is made of two decisions, one for each card, and drawing tickets of two decisions,
+ * the draw itself and the choice of the tickets kept.
+ *
+ * The additional cards of a tunnel are not a decision of the search: the player pays them with as few
+ * locomotives as possible if it can, and abandons the tunnel otherwise.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class Simulation {
+
+    /**
+     * The phases of a turn, and the end of the game
+     */
+    static final int TURN_START = 0;
+    static final int SECOND_DRAW = 1;
+    static final int CHOOSE_TICKETS = 2;
+    static final int OVER = 3;
+
+    /**
+     * The kinds of decisions; the parameters of a decision are stored in the bits above its kind
+     */
+    static final int PASS = 0;
+    static final int DRAW_TICKETS = 1;
+    static final int DRAW_CARD = 2;
+    static final int KEEP_TICKETS = 3;
+    static final int CLAIM_ROUTE = 4;
+
+    // Games in which no player can do anything are stopped after this number of turns
+    private static final int MAX_TURN_COUNT = 500;
+    private static final int KIND_BITS = 3;
+    private static final int CLAIM_OPTION_BITS = 6;
+    private static final int VALUE_SCALE = 20;
+
+    private final MutableGameState state;
+    private int phase;
+    private int drawnTicketsCount;
+    private int turnCount;
+
+    /**
+     * construct a game starting from the given state, in the given phase of the turn of the current player
+     *
+     * @param state             the state of the game, which is modified by the simulation
+     * @param phase             the phase of the turn, TURN_START, SECOND_DRAW or CHOOSE_TICKETS
+     * @param drawnTicketsCount the number of tickets drawn, if the phase is CHOOSE_TICKETS
+     */
+    Simulation(MutableGameState state, int phase, int drawnTicketsCount) {
+        this.state = state;
+        this.phase = phase;
+        this.drawnTicketsCount = drawnTicketsCount;
+    }
+
+    /**
+     * returns the code of drawing the card of the given slot, DECK_SLOT designating the deck
+     */
+    static int drawCard(int slot) {
+        return DRAW_CARD | (slot + 1) << KIND_BITS;
+    }
+
+    /**
+     * returns the code of keeping the drawn tickets whose position is in the given set of bits
+     */
+    static int keepTickets(int positions) {
+        return KEEP_TICKETS | positions << KIND_BITS;
+    }
+
+    /**
+     * returns the code of claiming the route of given index with the claim cards of given index
+     */
+    static int claimRoute(int routeIndex, int claimCardsIndex) {
+        return CLAIM_ROUTE | (routeIndex << CLAIM_OPTION_BITS | claimCardsIndex) << KIND_BITS;
+    }
+
+    /**
+     * returns the kind of the given decision
+     */
+    static int kind(int decision) {
+        return decision & ((1 << KIND_BITS) - 1);
+    }
+
+    /**
+     * returns the slot of the given decision of drawing a card
+     */
+    static int slot(int decision) {
+        return (decision >>> KIND_BITS) - 1;
+    }
+
+    /**
+     * returns the positions of the tickets kept by the given decision of keeping tickets
+     */
+    static int ticketPositions(int decision) {
+        return decision >>> KIND_BITS;
+    }
+
+    /**
+     * returns the index of the route of the given decision of claiming a route
+     */
+    static int routeIndex(int decision) {
+        return decision >>> (KIND_BITS + CLAIM_OPTION_BITS);
+    }
+
+    /**
+     * returns the index of the claim cards of the given decision of claiming a route
+     */
+    static int claimCardsIndex(int decision) {
+        return (decision >>> KIND_BITS) & ((1 << CLAIM_OPTION_BITS) - 1);
+    }
+
+    /**
+     * returns the greatest number of decisions possible in a state of a game played on the routes of the given state
+     */
+    static int maxDecisionCount(MutableGameState state) {
+        int count = 1 + Constants.FACE_UP_CARDS_COUNT + 1;
+        for (int i = 0; i < state.routes().size(); i++)
+            count += state.claimCards(i).size();
+        return Math.max(count, (1 << Constants.IN_GAME_TICKETS_COUNT) - 1);
+    }
+
+    /**
+     * returns the state of the game
+     */
+    MutableGameState state() {
+        return state;
+    }
+
+    /**
+     * returns the phase of the turn of the current player, or OVER if the game is over
+     */
+    int phase() {
+        return phase;
+    }
+
+    /**
+     * returns the number of tickets drawn, if the current player is choosing the tickets it keeps
+     */
+    int drawnTicketsCount() {
+        return drawnTicketsCount;
+    }
+
+    /**
+     * returns true iff the game is over
+     */
+    boolean isOver() {
+        return phase == OVER;
+    }
+
+    /**
+     * returns the player who takes the next decision
+     */
+    PlayerId playerToMove() {
+        return state.currentPlayerId();
+    }
+
+    /**
+     * writes the decisions possible in the current state in the given array, and returns their number,
+     * which is at least one if the game is not over
+     */
+    int decisions(int[] decisions) {
+        int count = 0;
+        switch (phase) {
+            case TURN_START:
+                if(state.canDrawTickets())
+                    decisions[count++] = DRAW_TICKETS;
+                count = addDrawCards(decisions, count);
+                for (int routeIndex = 0; routeIndex < state.routes().size(); routeIndex++) {
+                    if(state.routeOwner(routeIndex) != null
+                            || state.carCount(state.currentPlayerId()) < state.routes().get(routeIndex).length())
+                        continue;
+                    for (int i = 0; i < state.claimCards(routeIndex).size(); i++) {
+                        if(state.canClaimRoute(routeIndex, state.claimCards(routeIndex).get(i)))
+                            decisions[count++] = claimRoute(routeIndex, i);
+                    }
+                }
+                break;
+            case SECOND_DRAW:
+                count = addDrawCards(decisions, count);
+                break;
+            case CHOOSE_TICKETS:
+                for (int positions = 1; positions < 1 << drawnTicketsCount; positions++)
+                    decisions[count++] = keepTickets(positions);
+                break;
+            default:
+                return 0;
+        }
+        if(count == 0)
+            decisions[count++] = PASS;
+        return count;
+    }
+
+    /**
+     * applies the given decision, which must be possible, using the given random generator for the shuffles of the deck
+     */
+    void apply(int decision, Random rng) {
+        switch (kind(decision)) {
+            case PASS:
+                endTurn();
+                break;
+            case DRAW_TICKETS:
+                drawnTicketsCount = Math.min(Constants.IN_GAME_TICKETS_COUNT, state.ticketsCount());
+                phase = CHOOSE_TICKETS;
+                break;
+            case KEEP_TICKETS:
+                state.drawTickets(drawnTicketsCount, ticketPositions(decision));
+                endTurn();
+                break;
+            case DRAW_CARD:
+                state.recreateDeckIfNeeded(rng);
+                if(slot(decision) == Constants.DECK_SLOT)
+                    state.drawBlindCard();
+                else
+                    state.drawFaceUpCard(slot(decision));
+                if(phase == TURN_START)
+                    phase = SECOND_DRAW;
+                else
+                    endTurn();
+                break;
+            case CLAIM_ROUTE:
+                claim(routeIndex(decision), state.claimCards(routeIndex(decision)).get(claimCardsIndex(decision)), rng);
+                endTurn();
+                break;
+            default:
+                throw new Error();
+        }
+    }
+
+    /**
+     * returns the number of points of the given player, longest trail bonus included
+     */
+    int points(PlayerId playerId) {
+        int ownLength = state.longestTrailLength(playerId);
+        int otherLength = state.longestTrailLength(playerId.next());
+        return state.finalPoints(playerId) + (ownLength >= otherLength ? Constants.LONGEST_TRAIL_BONUS_POINTS : 0);
+    }
+
+    /**
+     * returns the value of the current state for the given player, between 0 and 1, increasing with the difference
+     * between its points and the points of the other player, and equal to 1/2 if they have the same points
+     */
+    double value(PlayerId playerId) {
+        int difference = points(playerId) - points(playerId.next());
+        return 0.5 + 0.5 * difference / (Math.abs(difference) + VALUE_SCALE);
+    }
+
+    private int addDrawCards(int[] decisions, int count) {
+        if(state.canDrawCards()) {
+            decisions[count++] = drawCard(Constants.DECK_SLOT);
+            for (int slot : Constants.FACE_UP_CARD_SLOTS)
+                decisions[count++] = drawCard(slot);
+        }
+        return count;
+    }
+
+    private void claim(int routeIndex, CardBag claimCards, Random rng) {
+        if(state.routes().get(routeIndex).level() == Route.Level.OVERGROUND) {
+            state.claimRoute(routeIndex, claimCards);
+            return;
+        }
+
+        int additionalCount = 0;
+        CardBag drawnCards = CardBag.of();
+        for (int i = 0; i < Constants.ADDITIONAL_TUNNEL_CARDS; i++) {
+            state.recreateDeckIfNeeded(rng);
+            if(state.deckSize() == 0)
+                break;
+            Card card = state.removeTopCard();
+            if(card == Card.LOCOMOTIVE || claimCards.contains(card))
+                additionalCount++;
+            drawnCards = drawnCards.with(card);
+        }
+        state.discard(drawnCards);
+        if(additionalCount == 0) {
+            state.claimRoute(routeIndex, claimCards);
+            return;
+        }
+
+        // The additional cards are paid with the color of the claim cards first, as the first option of Game
+        PlayerId playerId = state.currentPlayerId();
+        int availableLocomotives = state.cardCount(playerId, Card.LOCOMOTIVE) - claimCards.countOf(Card.LOCOMOTIVE);
+        CardBag additionalCards = CardBag.of();
+        for (Card card : Card.CARS) {
+            if(claimCards.contains(card)) {
+                int colorCount = Math.min(additionalCount, state.cardCount(playerId, card) - claimCards.countOf(card));
+                additionalCards = additionalCards.withCount(card, colorCount);
+                additionalCount -= colorCount;
+            }
+        }
+        if(additionalCount > availableLocomotives)
+            return;
+        if(additionalCount > 0)
+            additionalCards = additionalCards.withCount(Card.LOCOMOTIVE, additionalCount);
+        state.claimRoute(routeIndex, claimCards.union(additionalCards));
+    }
+
+    private void endTurn() {
+        boolean lastTurnEnded = state.currentPlayerId() == state.lastPlayer();
+        state.nextTurn();
+        turnCount++;
+        phase = (lastTurnEnded || turnCount >= MAX_TURN_COUNT) ? OVER : TURN_START;
+    }
+}
@@ -0,0 +1,173 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.PlayerId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Information set Monte-Carlo tree search: each iteration draws a complete state consistent with what the searching
+ * player knows, descends the shared tree among the decisions possible in this state, adds one node,
+ * plays the game until its end with the rollout policy and updates the values of the nodes it went through.
+ * Several threads run iterations on the same tree at the same time.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class TreeSearch {
+
+    private static final double EXPLORATION = 0.7;
+
+    private final Function<Random, Simulation> determinizer;
+    private final SearchNode root = new SearchNode(-1, -1);
+    private final AtomicInteger iterationCount = new AtomicInteger();
+
+    /**
+     * construct a search whose iterations start from the simulations returned by the given function,
+     * which draws the hidden information with the random generator it receives
+     *
+     * @param determinizer the function returning the simulation played by an iteration
+     */
+    TreeSearch(Function<Random, Simulation> determinizer) {
+        this.determinizer = determinizer;
+    }
+
+    /**
+     * runs iterations on the given number of tasks of the given pool, until the given deadline or
+     * until the given number of iterations is reached, at least one iteration being run
+     *
+     * @param deadline      the time, as given by System.nanoTime, after which no iteration is started
+     * @param maxIterations the greatest number of iterations
+     * @param threadCount   the number of tasks running iterations
+     * @param seed          the seed from which the random generators of the tasks are initialized
+     * @param pool          the pool running the tasks
+     */
+    void run(long deadline, int maxIterations, int threadCount, long seed, ForkJoinPool pool) {
+        Preconditions.checkArgument(maxIterations > 0 && threadCount > 0);
+        Random seeds = new Random(seed);
+        AtomicInteger startedCount = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            Random rng = new Random(seeds.nextLong());
+            tasks.add(() -> {
+                int[] decisions = null;
+                RolloutPolicy policy = null;
+                int iteration;
+                while ((iteration = startedCount.getAndIncrement()) < maxIterations
+                        && (iteration == 0 || System.nanoTime() < deadline)) {
+                    Simulation simulation = determinizer.apply(rng);
+                    if(decisions == null) {
+                        decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+                        policy = new RolloutPolicy(simulation.state());
+                    }
+                    iterate(simulation, rng, decisions, policy);
+                }
+                return null;
+            });
+        }
+
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new Error(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * runs one iteration of the search on the given simulation
+     *
+     * @param simulation the game played by the iteration, from the root
+     * @param rng        random generator
+     * @param decisions  array large enough to contain all the decisions possible in a state
+     * @param policy     the policy playing the game once a node has been added
+     */
+    void iterate(Simulation simulation, Random rng, int[] decisions, RolloutPolicy policy) {
+        List<SearchNode> path = new ArrayList<>();
+        SearchNode node = root;
+        node.addVisit();
+
+        boolean expanded = false;
+        while (!expanded && !simulation.isOver()) {
+            int count = simulation.decisions(decisions);
+            int player = simulation.playerToMove().ordinal();
+
+            // Chooses a decision not tried yet if there is one, otherwise the one of greatest upper bound
+            SearchNode selected = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            int untriedDecision = 0;
+            int untriedCount = 0;
+            for (int i = 0; i < count; i++) {
+                SearchNode child = node.child(decisions[i]);
+                if(child == null) {
+                    if(rng.nextInt(++untriedCount) == 0)
+                        untriedDecision = decisions[i];
+                    continue;
+                }
+                child.addAvailability();
+                double bound = child.upperConfidenceBound(EXPLORATION);
+                if(bound > bestBound) {
+                    bestBound = bound;
+                    selected = child;
+                }
+            }
+            if(untriedCount > 0) {
+                selected = node.addChild(untriedDecision, player);
+                selected.addAvailability();
+                expanded = true;
+            }
+
+            selected.addVisit();
+            simulation.apply(selected.decision(), rng);
+            path.add(selected);
+            node = selected;
+        }
+
+        while (!simulation.isOver())
+            simulation.apply(policy.decision(simulation, rng), rng);
+
+        // The values of the two players sum to 1
+        double value = simulation.value(PlayerId.PLAYER_1);
+        for (SearchNode visited : path)
+            visited.addValue(visited.player() == PlayerId.PLAYER_1.ordinal() ? value : 1 - value);
+        iterationCount.incrementAndGet();
+    }
+
+    /**
+     * returns the number of iterations run
+     */
+    int iterationCount() {
+        return iterationCount.get();
+    }
+
+    /**
+     * returns the most visited decision of the root, the one of greatest mean value among the most visited ones
+     *
+     * @throws IllegalStateException if no iteration has been run
+     */
+    int bestDecision() {
+        SearchNode best = null;
+        for (SearchNode child : root.children()) {
+            if(best == null || child.visits() > best.visits()
+                    || (child.visits() == best.visits() && child.meanValue() > best.meanValue()))
+                best = child;
+        }
+        if(best == null)
+            throw new IllegalStateException();
+        return best.decision();
+    }
+}
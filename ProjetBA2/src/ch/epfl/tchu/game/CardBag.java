@@ -0,0 +1,288 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Immutable multiset of cards.
+ * The multiplicity of each of the 9 types of card is stored in its own 7-bit lane of a single long,
+ * so that every operation works in constant time and without allocating more than the resulting bag.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class CardBag {
+
+    /**
+     * Maximum multiplicity of a type of card in a bag
+     */
+    public static final int MAX_COUNT = (1 << 7) - 1;
+
+    private static final int LANE_BITS = 7;
+    private static final long LANE_MASK = MAX_COUNT;
+
+    private static final CardBag EMPTY = new CardBag(0L);
+
+    private final long packed;
+
+    private CardBag(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * returns the empty bag
+     *
+     * @return the empty bag
+     */
+    public static CardBag of() {
+        return EMPTY;
+    }
+
+    /**
+     * returns a bag containing count cards of the given type
+     *
+     * @param count the multiplicity of the card
+     * @param card  the type of the card
+     * @return a bag containing count cards of the given type
+     * @throws IllegalArgumentException if count is not between 0 and MAX_COUNT (included)
+     */
+    public static CardBag of(int count, Card card) {
+        return EMPTY.withCount(card, count);
+    }
+
+    /**
+     * returns a bag containing count1 cards of type card1 and count2 cards of type card2
+     *
+     * @param count1 the multiplicity of the first card
+     * @param card1  the type of the first card
+     * @param count2 the multiplicity of the second card
+     * @param card2  the type of the second card
+     * @return a bag containing count1 cards of type card1 and count2 cards of type card2
+     * @throws IllegalArgumentException if one of the multiplicities is not between 0 and MAX_COUNT (included)
+     */
+    public static CardBag of(int count1, Card card1, int count2, Card card2) {
+        return of(count1, card1).union(of(count2, card2));
+    }
+
+    /**
+     * returns a bag containing the same cards as the given multiset
+     *
+     * @param cards the multiset of cards
+     * @return a bag containing the same cards as the given multiset
+     * @throws IllegalArgumentException if the multiset contains more than MAX_COUNT cards of a type
+     */
+    public static CardBag of(SortedBag<Card> cards) {
+        long packed = 0L;
+        for (Map.Entry<Card, Integer> cardCount : cards.toMap().entrySet()) {
+            Preconditions.checkArgument(cardCount.getValue() <= MAX_COUNT);
+            packed |= (long) cardCount.getValue() << shift(cardCount.getKey());
+        }
+        return ofPacked(packed);
+    }
+
+    /**
+     * returns the bag whose multiplicities are packed in the given long, as returned by packed()
+     *
+     * @param packed the packed multiplicities
+     * @return the bag whose multiplicities are packed in the given long
+     * @throws IllegalArgumentException if the bits above the lanes of the 9 types of card are not all 0
+     */
+    public static CardBag ofPacked(long packed) {
+        Preconditions.checkArgument(packed >>> (Card.COUNT * LANE_BITS) == 0);
+        return packed == 0L ? EMPTY : new CardBag(packed);
+    }
+
+    /**
+     * returns the multiplicities of the bag, packed in a single long
+     *
+     * @return the multiplicities of the bag, packed in a single long
+     */
+    public long packed() {
+        return packed;
+    }
+
+    /**
+     * returns true iff the bag is empty
+     *
+     * @return true iff the bag is empty
+     */
+    public boolean isEmpty() {
+        return packed == 0L;
+    }
+
+    /**
+     * returns the number of cards in the bag
+     *
+     * @return the number of cards in the bag
+     */
+    public int size() {
+        int size = 0;
+        for (long lanes = packed; lanes != 0L; lanes >>>= LANE_BITS)
+            size += (int) (lanes & LANE_MASK);
+        return size;
+    }
+
+    /**
+     * returns the multiplicity of the given card
+     *
+     * @param card the type of the card
+     * @return the multiplicity of the given card, 0 if it is not in the bag
+     */
+    public int countOf(Card card) {
+        return (int) ((packed >>> shift(card)) & LANE_MASK);
+    }
+
+    /**
+     * returns true iff the bag contains at least one card of the given type
+     *
+     * @param card the type of the card
+     * @return true iff the bag contains at least one card of the given type
+     */
+    public boolean contains(Card card) {
+        return countOf(card) > 0;
+    }
+
+    /**
+     * returns true iff the given bag is included in this one
+     *
+     * @param that the bag whose inclusion is tested
+     * @return true iff every card of that appears at least as many times in this
+     */
+    public boolean contains(CardBag that) {
+        for (int shift = 0; shift < Card.COUNT * LANE_BITS; shift += LANE_BITS) {
+            if(((that.packed >>> shift) & LANE_MASK) > ((packed >>> shift) & LANE_MASK))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * returns a bag identical to the receiver but with one more card of the given type
+     *
+     * @param card the type of the card to add
+     * @return a bag identical to the receiver but with one more card of the given type
+     * @throws IllegalArgumentException if the bag already contains MAX_COUNT cards of that type
+     */
+    public CardBag with(Card card) {
+        return withCount(card, countOf(card) + 1);
+    }
+
+    /**
+     * returns a bag identical to the receiver but with one card less of the given type
+     *
+     * @param card the type of the card to remove
+     * @return a bag identical to the receiver but with one card less of the given type
+     * @throws IllegalArgumentException if the bag does not contain any card of that type
+     */
+    public CardBag without(Card card) {
+        return withCount(card, countOf(card) - 1);
+    }
+
+    /**
+     * returns a bag identical to the receiver except that the given card has the given multiplicity
+     *
+     * @param card  the type of the card
+     * @param count the new multiplicity of the card
+     * @return a bag identical to the receiver except that the given card has the given multiplicity
+     * @throws IllegalArgumentException if count is not between 0 and MAX_COUNT (included)
+     */
+    public CardBag withCount(Card card, int count) {
+        Preconditions.checkArgument(0 <= count && count <= MAX_COUNT);
+        int shift = shift(card);
+        return ofPacked((packed & ~(LANE_MASK << shift)) | ((long) count << shift));
+    }
+
+    /**
+     * returns the union of the receiver and the given bag
+     *
+     * @param that the bag to combine with the receiver
+     * @return the union of this and that
+     * @throws IllegalArgumentException if the union contains more than MAX_COUNT cards of a type
+     */
+    public CardBag union(CardBag that) {
+        long packed = 0L;
+        for (int shift = 0; shift < Card.COUNT * LANE_BITS; shift += LANE_BITS) {
+            long count = ((this.packed >>> shift) & LANE_MASK) + ((that.packed >>> shift) & LANE_MASK);
+            Preconditions.checkArgument(count <= MAX_COUNT);
+            packed |= count << shift;
+        }
+        return ofPacked(packed);
+    }
+
+    /**
+     * returns the difference between the receiver and the given bag
+     *
+     * @param that the bag whose cards are removed from the receiver
+     * @return the difference between this and that, the multiplicities never going below 0
+     */
+    public CardBag difference(CardBag that) {
+        long packed = 0L;
+        for (int shift = 0; shift < Card.COUNT * LANE_BITS; shift += LANE_BITS) {
+            long count = ((this.packed >>> shift) & LANE_MASK) - ((that.packed >>> shift) & LANE_MASK);
+            if(count > 0)
+                packed |= count << shift;
+        }
+        return ofPacked(packed);
+    }
+
+    /**
+     * returns the set of the types of card that appear in the bag
+     *
+     * @return the set of the types of card that appear in the bag
+     */
+    public Set<Card> toSet() {
+        Set<Card> cards = EnumSet.noneOf(Card.class);
+        for (Card card : Card.ALL) {
+            if(contains(card))
+                cards.add(card);
+        }
+        return cards;
+    }
+
+    /**
+     * returns a multiset containing the same cards as the bag
+     *
+     * @return a multiset containing the same cards as the bag
+     */
+    public SortedBag<Card> toSortedBag() {
+        SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+        for (Card card : Card.ALL)
+            builder.add(countOf(card), card);
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof CardBag && ((CardBag) that).packed == packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
+    }
+
+    /**
+     * returns the textual representation of the bag, identical to the one of the corresponding SortedBag
+     *
+     * @return the textual representation of the bag
+     */
+    @Override
+    public String toString() {
+        StringJoiner j = new StringJoiner(", ", "{", "}");
+        for (Card card : Card.ALL) {
+            int count = countOf(card);
+            if(count > 0)
+                j.add((count > 1 ? count + "×" : "") + card);
+        }
+        return j.toString();
+    }
+
+    private static int shift(Card card) {
+        return card.ordinal() * LANE_BITS;
+    }
+}
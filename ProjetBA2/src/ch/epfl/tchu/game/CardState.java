@@ -19,12 +19,18 @@ import static java.util.Objects.checkIndex;
 public final class CardState extends PublicCardState {
 
     private final Deck<Card> deck;
-    private final SortedBag<Card> discardCards;
+    private final CardBag discardCards;
+    private final long zobristKey;
 
-    private CardState(List<Card> faceUpCards, int deckSize, int discardsSize, Deck<Card> deck, SortedBag<Card> discardCards) {
+    private CardState(List<Card> faceUpCards, int deckSize, int discardsSize, Deck<Card> deck, CardBag discardCards) {
         super(faceUpCards, deckSize, discardsSize);
         this.deck = deck;
         this.discardCards = discardCards;
+
+        long zobristKey = Zobrist.deckSize(deckSize) ^ Zobrist.discards(discardCards);
+        for (int slot : FACE_UP_CARD_SLOTS)
+            zobristKey ^= Zobrist.faceUpCard(slot, faceUpCard(slot));
+        this.zobristKey = zobristKey;
     }
 
     /**
@@ -39,7 +45,48 @@ public final class CardState extends PublicCardState {
     public static CardState of(Deck<Card> deck) {
         Preconditions.checkArgument(!(deck.size() < 5));
         return new CardState(deck.topCards(FACE_UP_CARDS_COUNT).toList(), deck.size() - FACE_UP_CARD_SLOTS.size(),
-                0, deck.withoutTopCards(FACE_UP_CARDS_COUNT), SortedBag.of());
+                0, deck.withoutTopCards(FACE_UP_CARDS_COUNT), CardBag.of());
+    }
+
+    /**
+     * returns a state with the given face-up cards, draw pile and discard pile
+     *
+     * @param faceUpCards the face-up cards
+     * @param deck        the draw pile
+     * @param discards    the discard pile
+     * @return a state with the given face-up cards, draw pile and discard pile
+     * @throws IllegalArgumentException if there are not exactly 5 face-up cards
+     */
+    static CardState of(List<Card> faceUpCards, Deck<Card> deck, CardBag discards) {
+        return new CardState(faceUpCards, deck.size(), discards.size(), deck, discards);
+    }
+
+    /**
+     * returns the draw pile
+     *
+     * @return the draw pile
+     */
+    Deck<Card> deck() {
+        return deck;
+    }
+
+    /**
+     * returns the discard pile
+     *
+     * @return the discard pile
+     */
+    CardBag discards() {
+        return discardCards;
+    }
+
+    /**
+     * returns the Zobrist key of the state, which depends on the face-up cards, the size of the draw pile
+     * and the content of the discard pile, but not on the order of the draw pile
+     *
+     * @return the Zobrist key of the state
+     */
+    long zobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -97,8 +144,8 @@ public final class CardState extends PublicCardState {
      */
     public CardState withDeckRecreatedFromDiscards(Random rng) {
         Preconditions.checkArgument(isDeckEmpty());
-        Deck<Card> shuffledPile = Deck.of(discardCards, rng);
-        return new CardState(faceUpCards(), discardsSize(), 0, shuffledPile, SortedBag.of());
+        Deck<Card> shuffledPile = Deck.of(discardCards.toSortedBag(), rng);
+        return new CardState(faceUpCards(), discardsSize(), 0, shuffledPile, CardBag.of());
     }
 
     /**
@@ -111,7 +158,7 @@ public final class CardState extends PublicCardState {
      */
     public CardState withMoreDiscardedCards(SortedBag<Card> additionalDiscards) {
         return new CardState(faceUpCards(), deckSize(),
-                discardsSize() + additionalDiscards.size(), deck, discardCards.union(additionalDiscards));
+                discardsSize() + additionalDiscards.size(), deck, discardCards.union(CardBag.of(additionalDiscards)));
     }
 
 }
@@ -3,23 +3,27 @@ package ch.epfl.tchu.game;
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 
 /**
- * A deck of cards
+ * A deck of cards.
+ * The cards are kept in an array that is never modified and shared by all the decks obtained by removing
+ * cards from the top of a deck, each deck only knowing the index of its own top card.
  *
  * @author Tamara Antoun(324875)
  * @author Ronan Tanios(325510)
  */
 
 public final class Deck<C extends Comparable<C>> {
-    private final List<C> cards;
+    private final Object[] cards;
+    private final int top;
 
-    private Deck(List<C> cards) {
-        this.cards = List.copyOf(cards);
+    private Deck(Object[] cards, int top) {
+        this.cards = cards;
+        this.top = top;
     }
 
     /**
@@ -33,7 +37,18 @@ public final class Deck<C extends Comparable<C>> {
     public static <C extends Comparable<C>> Deck<C> of(SortedBag<C> cards, Random rng) {
         List<C> shuffledCards = cards.toList();
         Collections.shuffle(shuffledCards, rng);
-        return new Deck<C>(shuffledCards);
+        return new Deck<C>(shuffledCards.toArray(), 0);
+    }
+
+    /**
+     * Returns a deck made of the given cards, in the given order, the first one being at the top of the deck.
+     *
+     * @param cards the cards of the deck, from the top to the bottom
+     * @param <C>   the type of the cards
+     * @return a deck made of the given cards, in the given order
+     */
+    static <C extends Comparable<C>> Deck<C> ofOrdered(List<C> cards) {
+        return new Deck<C>(cards.toArray(), 0);
     }
 
     /**
@@ -42,7 +57,7 @@ public final class Deck<C extends Comparable<C>> {
      * @return the size of the deck
      */
     public int size() {
-        return cards.size();
+        return cards.length - top;
     }
 
     /**
@@ -51,7 +66,7 @@ public final class Deck<C extends Comparable<C>> {
      * @return true if and only if the deck is empty
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return top == cards.length;
     }
 
     /**
@@ -60,9 +75,22 @@ public final class Deck<C extends Comparable<C>> {
      * @return the card at the top of the deck
      * @throws if the deck is empty
      */
+    @SuppressWarnings("unchecked")
     public C topCard() {
         Preconditions.checkArgument(!this.isEmpty());
-        return cards.get(0);
+        return (C) cards[top];
+    }
+
+    /**
+     * Returns the card at the given position, counted from the top of the deck.
+     *
+     * @param index the position of the card, 0 being the top of the deck
+     * @return the card at the given position
+     * @throws IndexOutOfBoundsException if index is not between 0 (included) and the size of the deck (excluded)
+     */
+    @SuppressWarnings("unchecked")
+    C card(int index) {
+        return (C) cards[top + Objects.checkIndex(index, size())];
     }
 
     /**
@@ -73,9 +101,7 @@ public final class Deck<C extends Comparable<C>> {
      */
     public Deck<C> withoutTopCard() {
         Preconditions.checkArgument(!this.isEmpty());
-        List<C> withoutTopCard = new ArrayList<>(cards);
-        withoutTopCard.remove(0);
-        return new Deck<C>(withoutTopCard);
+        return new Deck<C>(cards, top + 1);
     }
 
     /**
@@ -85,9 +111,13 @@ public final class Deck<C extends Comparable<C>> {
      * @return a multiset with the "count" cards at the top of the deck
      * @throws IllegalArgumentException if count is not between 0 (included) and the heap size (included)
      */
+    @SuppressWarnings("unchecked")
     public SortedBag<C> topCards(int count) {
         Preconditions.checkArgument((count >= 0 && count <= this.size()));
-        return SortedBag.of(cards.subList(0, count));
+        SortedBag.Builder<C> topCards = new SortedBag.Builder<>();
+        for (int i = top; i < top + count; i++)
+            topCards.add((C) cards[i]);
+        return topCards.build();
     }
 
     /**
@@ -99,7 +129,6 @@ public final class Deck<C extends Comparable<C>> {
      */
     public Deck<C> withoutTopCards(int count) {
         Preconditions.checkArgument((count >= 0 && count <= this.size()));
-        List<C> newCards = cards.subList(count, this.size());
-        return new Deck<C>(newCards);
+        return new Deck<C>(cards, top + count);
     }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.gui.Info;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static ch.epfl.tchu.game.Constants.*;
+
+/**
+ * A game of tCHu between two players, without any graphical interface
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class Game {
+    private Game() {
+    }
+
+    /**
+     * plays a whole game of tCHu between the given players, whose names are given,
+     * with the given tickets and the given random generator
+     *
+     * @param players     the players
+     * @param playerNames the names of the players
+     * @param tickets     the tickets available for the game
+     * @param rng         random generator
+     * @return the result of the game
+     * @throws IllegalArgumentException if one of the two maps does not contain exactly two key / value pairs
+     */
+    public static Result play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, SortedBag<Ticket> tickets, Random rng) {
+        Preconditions.checkArgument(players.size() == PlayerId.COUNT && playerNames.size() == PlayerId.COUNT);
+
+        Map<PlayerId, Info> infos = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            players.get(playerId).initPlayers(playerId, playerNames);
+            infos.put(playerId, new Info(playerNames.get(playerId)));
+        }
+
+        GameState gameState = GameState.initial(tickets, rng);
+        sendInfo(players, infos.get(gameState.currentPlayerId()).willPlayFirst());
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            players.get(playerId).setInitialTicketChoice(gameState.topTickets(INITIAL_TICKETS_COUNT));
+            gameState = gameState.withoutTopTickets(INITIAL_TICKETS_COUNT);
+        }
+        updateStates(players, gameState);
+        for (PlayerId playerId : PlayerId.ALL) {
+            SortedBag<Ticket> chosenTickets = players.get(playerId).chooseInitialTickets();
+            gameState = gameState.withInitiallyChosenTickets(playerId, chosenTickets);
+        }
+        for (PlayerId playerId : PlayerId.ALL)
+            sendInfo(players, infos.get(playerId).keptTickets(gameState.playerState(playerId).ticketCount()));
+
+        int turnCount = 0;
+        boolean gameEnded = false;
+        while (!gameEnded) {
+            PlayerId currentPlayerId = gameState.currentPlayerId();
+            Player currentPlayer = players.get(currentPlayerId);
+            Info currentInfo = infos.get(currentPlayerId);
+
+            sendInfo(players, currentInfo.canPlay());
+            updateStates(players, gameState);
+            switch (currentPlayer.nextTurn()) {
+                case DRAW_TICKETS:
+                    gameState = drawTickets(players, currentPlayer, currentInfo, gameState);
+                    break;
+                case DRAW_CARDS:
+                    gameState = drawCards(players, currentPlayer, currentInfo, gameState, rng);
+                    break;
+                case CLAIM_ROUTE:
+                    gameState = claimRoute(players, currentPlayer, currentInfo, gameState, rng);
+                    break;
+                default:
+                    throw new Error();
+            }
+            turnCount++;
+
+            gameEnded = currentPlayerId == gameState.lastPlayer();
+            if(gameState.lastTurnBegins())
+                sendInfo(players, currentInfo.lastTurnBegins(gameState.currentPlayerState().carCount()));
+            gameState = gameState.forNextTurn();
+        }
+
+        updateStates(players, gameState);
+        return endGame(players, playerNames, infos, gameState, turnCount);
+    }
+
+    private static GameState drawTickets(Map<PlayerId, Player> players, Player player, Info info, GameState gameState) {
+        int drawnCount = Math.min(IN_GAME_TICKETS_COUNT, gameState.ticketsCount());
+        SortedBag<Ticket> drawnTickets = gameState.topTickets(drawnCount);
+        sendInfo(players, info.drewTickets(drawnCount));
+        SortedBag<Ticket> chosenTickets = player.chooseTickets(drawnTickets);
+        sendInfo(players, info.keptTickets(chosenTickets.size()));
+        return gameState.withChosenAdditionalTickets(drawnTickets, chosenTickets);
+    }
+
+    private static GameState drawCards(Map<PlayerId, Player> players, Player player, Info info, GameState gameState, Random rng) {
+        for (int i = 0; i < 2; i++) {
+            gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
+            if(i == 1)
+                updateStates(players, gameState);
+
+            int slot = player.drawSlot();
+            if(slot == DECK_SLOT) {
+                gameState = gameState.withBlindlyDrawnCard();
+                sendInfo(players, info.drewBlindCard());
+            } else {
+                Card card = gameState.cardState().faceUpCard(slot);
+                gameState = gameState.withDrawnFaceUpCard(slot);
+                sendInfo(players, info.drewVisibleCard(card));
+            }
+        }
+        return gameState;
+    }
+
+    private static GameState claimRoute(Map<PlayerId, Player> players, Player player, Info info, GameState gameState, Random rng) {
+        Route route = player.claimedRoute();
+        SortedBag<Card> initialClaimCards = player.initialClaimCards();
+
+        if(route.level() == Route.Level.OVERGROUND) {
+            sendInfo(players, info.claimedRoute(route, initialClaimCards));
+            return gameState.withClaimedRoute(route, initialClaimCards);
+        }
+
+        sendInfo(players, info.attemptsTunnelClaim(route, initialClaimCards));
+        SortedBag.Builder<Card> drawnCardsBuilder = new SortedBag.Builder<>();
+        for (int i = 0; i < ADDITIONAL_TUNNEL_CARDS; i++) {
+            gameState = gameState.withCardsDeckRecreatedIfNeeded(rng);
+            drawnCardsBuilder.add(gameState.topCard());
+            gameState = gameState.withoutTopCard();
+        }
+        SortedBag<Card> drawnCards = drawnCardsBuilder.build();
+        int additionalCardsCount = route.additionalClaimCardsCount(initialClaimCards, drawnCards);
+        sendInfo(players, info.drewAdditionalCards(drawnCards, additionalCardsCount));
+        gameState = gameState.withMoreDiscardedCards(drawnCards);
+
+        if(additionalCardsCount == 0) {
+            sendInfo(players, info.claimedRoute(route, initialClaimCards));
+            return gameState.withClaimedRoute(route, initialClaimCards);
+        }
+
+        List<SortedBag<Card>> options = gameState.currentPlayerState()
+                .possibleAdditionalCards(additionalCardsCount, initialClaimCards, drawnCards);
+        SortedBag<Card> additionalCards = options.isEmpty() ? SortedBag.of() : player.chooseAdditionalCards(options);
+        if(additionalCards.isEmpty()) {
+            sendInfo(players, info.didNotClaimRoute(route));
+            return gameState;
+        }
+
+        SortedBag<Card> claimCards = initialClaimCards.union(additionalCards);
+        sendInfo(players, info.claimedRoute(route, claimCards));
+        return gameState.withClaimedRoute(route, claimCards);
+    }
+
+    private static Result endGame(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, Map<PlayerId, Info> infos,
+                                  GameState gameState, int turnCount) {
+        Result result = result(gameState, turnCount);
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState playerState = gameState.playerState(playerId);
+            // The players having the longest trail are the ones whose points include its bonus
+            if(result.points(playerId) != playerState.finalPoints())
+                sendInfo(players, infos.get(playerId).getsLongestTrailBonus(playerState.longestTrail()));
+        }
+
+        PlayerId winner = result.winner();
+        if(winner == null) {
+            List<String> names = new ArrayList<>();
+            for (PlayerId playerId : PlayerId.ALL)
+                names.add(playerNames.get(playerId));
+            sendInfo(players, Info.draw(names, result.points(PlayerId.PLAYER_1)));
+        } else {
+            sendInfo(players, infos.get(winner).won(result.points(winner), result.points(winner.next())));
+        }
+        return result;
+    }
+
+    /**
+     * returns the result of the game ending in the given state after the given number of turns,
+     * the longest trail bonus going to all the players having the longest trail
+     *
+     * @param finalState the state of the game at its end
+     * @param turnCount  the number of turns played
+     * @return the result of the game
+     */
+    public static Result result(GameState finalState, int turnCount) {
+        Map<PlayerId, Integer> longestTrailLengths = new EnumMap<>(PlayerId.class);
+        int longestLength = 0;
+        for (PlayerId playerId : PlayerId.ALL) {
+            int length = finalState.playerState(playerId).longestTrail().length();
+            longestTrailLengths.put(playerId, length);
+            longestLength = Math.max(longestLength, length);
+        }
+
+        Map<PlayerId, Integer> points = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int playerPoints = finalState.playerState(playerId).finalPoints();
+            if(longestTrailLengths.get(playerId) == longestLength)
+                playerPoints += LONGEST_TRAIL_BONUS_POINTS;
+            points.put(playerId, playerPoints);
+        }
+
+        int points1 = points.get(PlayerId.PLAYER_1);
+        int points2 = points.get(PlayerId.PLAYER_2);
+        PlayerId winner = points1 == points2 ? null : (points1 > points2) ? PlayerId.PLAYER_1 : PlayerId.PLAYER_2;
+        return new Result(points, longestTrailLengths, turnCount, winner);
+    }
+
+    private static void sendInfo(Map<PlayerId, Player> players, String info) {
+        for (PlayerId playerId : PlayerId.ALL)
+            players.get(playerId).receiveInfo(info);
+    }
+
+    private static void updateStates(Map<PlayerId, Player> players, GameState gameState) {
+        for (PlayerId playerId : PlayerId.ALL)
+            players.get(playerId).updateState(gameState, gameState.playerState(playerId));
+    }
+
+    /**
+     * The result of a game
+     */
+    public static final class Result {
+        private final Map<PlayerId, Integer> points;
+        private final Map<PlayerId, Integer> longestTrailLengths;
+        private final int turnCount;
+        private final PlayerId winner;
+
+        private Result(Map<PlayerId, Integer> points, Map<PlayerId, Integer> longestTrailLengths, int turnCount, PlayerId winner) {
+            this.points = Map.copyOf(points);
+            this.longestTrailLengths = Map.copyOf(longestTrailLengths);
+            this.turnCount = turnCount;
+            this.winner = winner;
+        }
+
+        /**
+         * returns the final number of points of the given player, longest trail bonus included
+         *
+         * @param playerId identity of the player
+         * @return the final number of points of the given player
+         */
+        public int points(PlayerId playerId) {
+            return points.get(playerId);
+        }
+
+        /**
+         * returns the length of the longest trail of the given player
+         *
+         * @param playerId identity of the player
+         * @return the length of the longest trail of the given player
+         */
+        public int longestTrailLength(PlayerId playerId) {
+            return longestTrailLengths.get(playerId);
+        }
+
+        /**
+         * returns the number of turns played
+         *
+         * @return the number of turns played
+         */
+        public int turnCount() {
+            return turnCount;
+        }
+
+        /**
+         * returns the identity of the winner, or null if the game ended in a draw
+         *
+         * @return the identity of the winner, or null if the game ended in a draw
+         */
+        public PlayerId winner() {
+            return winner;
+        }
+    }
+}
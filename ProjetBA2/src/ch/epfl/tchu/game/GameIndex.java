@@ -0,0 +1,144 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Numbering of the routes and of the distinct tickets of a game, from 0,
+ * used by the compact representations of the game states.
+ * Two tickets are the same iff they have the same text, so the copies of a ticket share the same index.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class GameIndex {
+
+    private static final GameIndex CH_MAP = new GameIndex(ChMap.routes(), ChMap.tickets());
+
+    private final List<Route> routes;
+    private final Map<Route, Integer> routeIndices;
+    private final int stationCount;
+    private final List<Ticket> tickets;
+    private final Map<Ticket, Integer> ticketIndices;
+    private final int[] ticketCopies;
+
+    /**
+     * construct the numbering of the given routes and tickets, in the order of the lists
+     *
+     * @param routes  all the routes of the map
+     * @param tickets all the tickets of the game, possibly with copies
+     */
+    GameIndex(List<Route> routes, List<Ticket> tickets) {
+        this.routes = List.copyOf(routes);
+        this.routeIndices = new HashMap<>();
+        for (int i = 0; i < this.routes.size(); i++)
+            routeIndices.put(this.routes.get(i), i);
+        int stationCount = 0;
+        for (Route route : this.routes)
+            stationCount = Math.max(stationCount, Math.max(route.station1().id(), route.station2().id()) + 1);
+        this.stationCount = stationCount;
+
+        Map<Ticket, Integer> ticketIndices = new TreeMap<>();
+        List<Ticket> distinctTickets = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if(!ticketIndices.containsKey(ticket)) {
+                ticketIndices.put(ticket, distinctTickets.size());
+                distinctTickets.add(ticket);
+            }
+        }
+        this.tickets = List.copyOf(distinctTickets);
+        this.ticketIndices = ticketIndices;
+        this.ticketCopies = new int[distinctTickets.size()];
+        for (Ticket ticket : tickets)
+            ticketCopies[ticketIndices.get(ticket)]++;
+    }
+
+    /**
+     * returns the numbering of the routes and tickets of the map of Switzerland
+     *
+     * @return the numbering of the routes and tickets of the map of Switzerland
+     */
+    static GameIndex chMap() {
+        return CH_MAP;
+    }
+
+    /**
+     * returns the routes, in the order of their indices
+     *
+     * @return the routes, in the order of their indices
+     */
+    List<Route> routes() {
+        return routes;
+    }
+
+    /**
+     * returns the index of the given route
+     *
+     * @param route the route
+     * @return the index of the given route
+     * @throws IllegalArgumentException if the route is unknown
+     */
+    int routeIndex(Route route) {
+        Integer index = routeIndices.get(route);
+        Preconditions.checkArgument(index != null);
+        return index;
+    }
+
+    /**
+     * returns the number of stations, ie one more than the greatest identity of the stations of the routes
+     *
+     * @return the number of stations
+     */
+    int stationCount() {
+        return stationCount;
+    }
+
+    /**
+     * returns the distinct tickets, in the order of their indices
+     *
+     * @return the distinct tickets, in the order of their indices
+     */
+    List<Ticket> tickets() {
+        return tickets;
+    }
+
+    /**
+     * returns the index of the given ticket
+     *
+     * @param ticket the ticket
+     * @return the index of the given ticket
+     * @throws IllegalArgumentException if the ticket is unknown
+     */
+    int ticketIndex(Ticket ticket) {
+        Integer index = ticketIndices.get(ticket);
+        Preconditions.checkArgument(index != null);
+        return index;
+    }
+
+    /**
+     * returns the ticket of given index
+     *
+     * @param index the index of the ticket
+     * @return the ticket of given index
+     * @throws IllegalArgumentException if there is no ticket of given index
+     */
+    Ticket ticket(int index) {
+        Preconditions.checkArgument(0 <= index && index < tickets.size());
+        return tickets.get(index);
+    }
+
+    /**
+     * returns the number of copies of the ticket of given index among all the tickets of the game
+     *
+     * @param index the index of the ticket
+     * @return the number of copies of the ticket of given index
+     */
+    int ticketCopies(int index) {
+        return ticketCopies[index];
+    }
+}
@@ -19,12 +19,20 @@ public final class GameState extends PublicGameState {
     private final Deck<Ticket> tickets;
     private final Map<PlayerId, PlayerState> playerState;
     private final CardState cardState;
+    private final long zobristKey;
 
     private GameState(int ticketsCount, CardState cardState, PlayerId currentPlayerId, Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer, Deck<Ticket> tickets) {
         super(ticketsCount, cardState, currentPlayerId, Map.copyOf(playerState), lastPlayer);
         this.tickets = tickets;
         this.playerState = Map.copyOf(playerState);
         this.cardState = cardState;
+
+        // The card and player states maintain their own key, so combining them takes constant time.
+        long zobristKey = cardState.zobristKey() ^ Zobrist.ticketsCount(ticketsCount)
+                ^ Zobrist.currentPlayer(currentPlayerId) ^ Zobrist.lastPlayer(lastPlayer);
+        for (PlayerId playerId : PlayerId.ALL)
+            zobristKey ^= Zobrist.player(playerId, this.playerState.get(playerId).zobristKey());
+        this.zobristKey = zobristKey;
     }
 
     /**
@@ -45,6 +53,52 @@ public final class GameState extends PublicGameState {
         return new GameState(tickets.size(), cardState, PlayerId.ALL.get(rng.nextInt(2)), playerState, null, Deck.of(tickets, rng));
     }
 
+    /**
+     * returns the state made of the given parts
+     *
+     * @param tickets         the deck of tickets
+     * @param cardState       the state of the cards
+     * @param currentPlayerId identity of the current player
+     * @param playerState     the state of each player
+     * @param lastPlayer      identity of the last player, or null if it is not yet known
+     * @return the state made of the given parts
+     */
+    static GameState of(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId,
+                        Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer) {
+        return new GameState(tickets.size(), cardState, currentPlayerId, playerState, lastPlayer, tickets);
+    }
+
+    /**
+     * returns the deck of tickets
+     *
+     * @return the deck of tickets
+     */
+    Deck<Ticket> ticketDeck() {
+        return tickets;
+    }
+
+    /**
+     * returns the Zobrist key of the state, computed in constant time by each transition;
+     * two equal states have the same key, and two different states have the same key with a negligible probability.
+     * The key depends on the routes, cards and tickets of the players, the face-up cards, the sizes of the decks,
+     * the content of the discard pile and the current and last players, but not on the hidden order of the decks
+     *
+     * @return the Zobrist key of the state
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * returns the complete state of the wagon / locomotive cards, and not just its public part
+     *
+     * @return the complete state of the wagon / locomotive cards, and not just its public part
+     */
+    @Override
+    public CardState cardState() {
+        return cardState;
+    }
+
     /**
      * returns the player's complete state of given identity, and not just its public part
      *
@@ -0,0 +1,262 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the complete state of a game, as a fixed number of longs.
+ * The routes and the tickets are designated by their index in the lists given to the codec, so the encoding
+ * of a state only takes a few hundred bytes and two states are equal iff their encodings are equal;
+ * wrapping an encoding in a LongBuffer therefore gives a key usable in a hash map.
+ *
+ * The encoding is made of, in this order:
+ * a header (current and last player, sizes of the decks, face-up cards), the discard pile and the hands of the players
+ * as packed card bags, a bit set of the routes of each player, the number of copies of each ticket held by each player,
+ * the order of the tickets deck and the order of the cards deck.
+ *
+ * The routes of a decoded player are in the order of the list of routes of the codec, and not in the order
+ * in which they were claimed.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class GameStateCodec {
+
+    private static final int CARD_BITS = 4;
+    private static final int TICKET_COPY_BITS = 2;
+    private static final int MAX_TICKET_COPIES = (1 << TICKET_COPY_BITS) - 1;
+
+    private static final int CURRENT_PLAYER_SHIFT = 0;
+    private static final int LAST_PLAYER_SHIFT = 1;
+    private static final int TICKETS_COUNT_SHIFT = 3;
+    private static final int DECK_SIZE_SHIFT = 11;
+    private static final int FACE_UP_CARDS_SHIFT = 20;
+    private static final int SIZE_MASK = 0xFF;
+
+    private static final int DISCARDS_OFFSET = 1;
+    private static final int HANDS_OFFSET = 2;
+    private static final int ROUTES_OFFSET = HANDS_OFFSET + PlayerId.COUNT;
+
+    private static final GameStateCodec CH_MAP = new GameStateCodec(GameIndex.chMap(), ChMap.tickets());
+
+    private final GameIndex index;
+    private final int ticketBits;
+
+    private final int routeWords;
+    private final int ticketCopiesWords;
+    private final int ticketsPerWord;
+    private final int ticketDeckOffset;
+    private final int cardDeckOffset;
+    private final int length;
+
+    /**
+     * construct a codec for the states of the games played with the given routes and tickets
+     *
+     * @param routes  all the routes of the map
+     * @param tickets all the tickets of the game, possibly with copies
+     * @throws IllegalArgumentException if there are more than 255 tickets or if a ticket has more than 3 copies
+     */
+    public GameStateCodec(List<Route> routes, List<Ticket> tickets) {
+        this(new GameIndex(routes, tickets), tickets);
+    }
+
+    private GameStateCodec(GameIndex index, List<Ticket> tickets) {
+        Preconditions.checkArgument(tickets.size() <= SIZE_MASK);
+        SortedBag<Ticket> allTickets = SortedBag.of(tickets);
+        for (Ticket ticket : index.tickets())
+            Preconditions.checkArgument(allTickets.countOf(ticket) <= MAX_TICKET_COPIES);
+        this.index = index;
+        this.ticketBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(index.tickets().size() - 1));
+
+        routeWords = wordsFor(index.routes().size(), 1);
+        ticketCopiesWords = wordsFor(index.tickets().size(), TICKET_COPY_BITS);
+        ticketsPerWord = Long.SIZE / ticketBits;
+        ticketDeckOffset = ROUTES_OFFSET + PlayerId.COUNT * (routeWords + ticketCopiesWords);
+        cardDeckOffset = ticketDeckOffset + (tickets.size() + ticketsPerWord - 1) / ticketsPerWord;
+        length = cardDeckOffset + wordsFor(Constants.ALL_CARDS.size(), CARD_BITS);
+    }
+
+    /**
+     * returns the codec for the states of the games played on the map of Switzerland
+     *
+     * @return the codec for the states of the games played on the map of Switzerland
+     */
+    public static GameStateCodec chMap() {
+        return CH_MAP;
+    }
+
+    /**
+     * returns the number of longs of the encoding of a state, which is the same for all the states
+     *
+     * @return the number of longs of the encoding of a state
+     */
+    public int encodedLength() {
+        return length;
+    }
+
+    /**
+     * returns the encoding of the given state
+     *
+     * @param state the state to encode
+     * @return the encoding of the given state, made of encodedLength() longs
+     * @throws IllegalArgumentException if the state contains a route or a ticket unknown to the codec
+     */
+    public long[] encode(GameState state) {
+        long[] words = new long[length];
+        CardState cardState = state.cardState();
+
+        long header = (long) state.currentPlayerId().ordinal() << CURRENT_PLAYER_SHIFT
+                | (long) (state.lastPlayer() == null ? 0 : state.lastPlayer().ordinal() + 1) << LAST_PLAYER_SHIFT
+                | (long) state.ticketsCount() << TICKETS_COUNT_SHIFT
+                | (long) cardState.deckSize() << DECK_SIZE_SHIFT;
+        for (int slot : Constants.FACE_UP_CARD_SLOTS)
+            header |= (long) cardState.faceUpCard(slot).ordinal() << (FACE_UP_CARDS_SHIFT + slot * CARD_BITS);
+        words[0] = header;
+        words[DISCARDS_OFFSET] = cardState.discards().packed();
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState playerState = state.playerState(playerId);
+            words[HANDS_OFFSET + playerId.ordinal()] = playerState.cardBag().packed();
+
+            int routesOffset = routesOffset(playerId);
+            for (Route route : playerState.routes()) {
+                int routeIndex = index.routeIndex(route);
+                words[routesOffset + routeIndex / Long.SIZE] |= 1L << (routeIndex % Long.SIZE);
+            }
+
+            int copiesOffset = ticketCopiesOffset(playerId);
+            SortedBag<Ticket> playerTickets = playerState.tickets();
+            for (Ticket ticket : playerTickets.toSet()) {
+                int copies = playerTickets.countOf(ticket);
+                Preconditions.checkArgument(copies <= MAX_TICKET_COPIES);
+                int bit = index.ticketIndex(ticket) * TICKET_COPY_BITS;
+                words[copiesOffset + bit / Long.SIZE] |= (long) copies << (bit % Long.SIZE);
+            }
+        }
+
+        Deck<Ticket> ticketDeck = state.ticketDeck();
+        for (int i = 0; i < ticketDeck.size(); i++) {
+            int bit = (i % ticketsPerWord) * ticketBits;
+            words[ticketDeckOffset + i / ticketsPerWord] |= (long) index.ticketIndex(ticketDeck.card(i)) << bit;
+        }
+
+        Deck<Card> cardDeck = cardState.deck();
+        for (int i = 0; i < cardDeck.size(); i++) {
+            int bit = i * CARD_BITS;
+            words[cardDeckOffset + bit / Long.SIZE] |= (long) cardDeck.card(i).ordinal() << (bit % Long.SIZE);
+        }
+        return words;
+    }
+
+    /**
+     * writes the encoding of the given state in the given buffer, at its current position, which is then advanced
+     *
+     * @param state  the state to encode
+     * @param buffer the buffer in which the encoding is written
+     * @throws IllegalArgumentException       if the state contains a route or a ticket unknown to the codec
+     * @throws java.nio.BufferOverflowException if there are less than 8 * encodedLength() bytes remaining in the buffer
+     */
+    public void encode(GameState state, ByteBuffer buffer) {
+        buffer.asLongBuffer().put(encode(state));
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    /**
+     * returns the state whose encoding is given
+     *
+     * @param words the encoding of the state, as returned by encode
+     * @return the state whose encoding is given
+     * @throws IllegalArgumentException if the encoding does not have the right length or is not valid
+     */
+    public GameState decode(long[] words) {
+        Preconditions.checkArgument(words.length == length);
+        long header = words[0];
+
+        List<Card> faceUpCards = new ArrayList<>(Constants.FACE_UP_CARDS_COUNT);
+        for (int slot : Constants.FACE_UP_CARD_SLOTS)
+            faceUpCards.add(card(header >>> (FACE_UP_CARDS_SHIFT + slot * CARD_BITS)));
+
+        int deckSize = (int) (header >>> DECK_SIZE_SHIFT) & SIZE_MASK;
+        List<Card> deckCards = new ArrayList<>(deckSize);
+        for (int i = 0; i < deckSize; i++) {
+            int bit = i * CARD_BITS;
+            deckCards.add(card(words[cardDeckOffset + bit / Long.SIZE] >>> (bit % Long.SIZE)));
+        }
+        CardState cardState = CardState.of(faceUpCards, Deck.ofOrdered(deckCards), CardBag.ofPacked(words[DISCARDS_OFFSET]));
+
+        int ticketsCount = (int) (header >>> TICKETS_COUNT_SHIFT) & SIZE_MASK;
+        long ticketMask = (1L << ticketBits) - 1;
+        List<Ticket> deckTickets = new ArrayList<>(ticketsCount);
+        for (int i = 0; i < ticketsCount; i++) {
+            int bit = (i % ticketsPerWord) * ticketBits;
+            deckTickets.add(index.ticket((int) ((words[ticketDeckOffset + i / ticketsPerWord] >>> bit) & ticketMask)));
+        }
+
+        Map<PlayerId, PlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int routesOffset = routesOffset(playerId);
+            List<Route> playerRoutes = new ArrayList<>();
+            for (int i = 0; i < index.routes().size(); i++) {
+                if((words[routesOffset + i / Long.SIZE] & (1L << (i % Long.SIZE))) != 0)
+                    playerRoutes.add(index.routes().get(i));
+            }
+
+            int copiesOffset = ticketCopiesOffset(playerId);
+            SortedBag.Builder<Ticket> playerTickets = new SortedBag.Builder<>();
+            for (int i = 0; i < index.tickets().size(); i++) {
+                int bit = i * TICKET_COPY_BITS;
+                int copies = (int) (words[copiesOffset + bit / Long.SIZE] >>> (bit % Long.SIZE)) & MAX_TICKET_COPIES;
+                playerTickets.add(copies, index.ticket(i));
+            }
+
+            playerStates.put(playerId, PlayerState.of(playerTickets.build(),
+                    CardBag.ofPacked(words[HANDS_OFFSET + playerId.ordinal()]), playerRoutes));
+        }
+
+        PlayerId currentPlayerId = PlayerId.ALL.get((int) (header >>> CURRENT_PLAYER_SHIFT) & 1);
+        int lastPlayer = (int) (header >>> LAST_PLAYER_SHIFT) & 3;
+        Preconditions.checkArgument(lastPlayer <= PlayerId.COUNT);
+        return GameState.of(Deck.ofOrdered(deckTickets), cardState, currentPlayerId, playerStates,
+                lastPlayer == 0 ? null : PlayerId.ALL.get(lastPlayer - 1));
+    }
+
+    /**
+     * reads the encoding of a state in the given buffer, at its current position, which is then advanced,
+     * and returns the state
+     *
+     * @param buffer the buffer from which the encoding is read
+     * @return the state whose encoding is read
+     * @throws IllegalArgumentException       if the encoding is not valid
+     * @throws java.nio.BufferUnderflowException if there are less than 8 * encodedLength() bytes remaining in the buffer
+     */
+    public GameState decode(ByteBuffer buffer) {
+        long[] words = new long[length];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + length * Long.BYTES);
+        return decode(words);
+    }
+
+    private int routesOffset(PlayerId playerId) {
+        return ROUTES_OFFSET + playerId.ordinal() * routeWords;
+    }
+
+    private int ticketCopiesOffset(PlayerId playerId) {
+        return ROUTES_OFFSET + PlayerId.COUNT * routeWords + playerId.ordinal() * ticketCopiesWords;
+    }
+
+    private static Card card(long bits) {
+        int ordinal = (int) (bits & ((1 << CARD_BITS) - 1));
+        Preconditions.checkArgument(ordinal < Card.COUNT);
+        return Card.ALL.get(ordinal);
+    }
+
+    private static int wordsFor(int count, int bitsPerElement) {
+        return (count * bitsPerElement + Long.SIZE - 1) / Long.SIZE;
+    }
+}
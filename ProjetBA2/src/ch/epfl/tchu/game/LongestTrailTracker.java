@@ -0,0 +1,160 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Longest trail of a network that grows one route at a time.
+ * The network is kept split into its connected components, each one with its own longest trail,
+ * so that adding a route only requires searching again the component that this route touches.
+ * The longest trails are only searched when they are asked for, so building a tracker is cheap.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class LongestTrailTracker {
+
+    private static final LongestTrailTracker EMPTY = new LongestTrailTracker(List.of());
+
+    private final List<Component> components;
+    // The longest trail is only searched when it is asked for, and then kept
+    private Trail longest;
+
+    private LongestTrailTracker(List<Component> components) {
+        this.components = components;
+    }
+
+    /**
+     * returns a tracker of the network consisting of the given routes
+     *
+     * @param routes the routes of the network
+     * @return a tracker of the network consisting of the given routes
+     */
+    public static LongestTrailTracker of(List<Route> routes) {
+        if(routes.isEmpty())
+            return EMPTY;
+
+        // The routes are grouped by connected component with a union-find over the identities of their stations.
+        int stationCount = 0;
+        for (Route route : routes)
+            stationCount = Math.max(stationCount, Math.max(route.station1().id(), route.station2().id()) + 1);
+        int[] parents = new int[stationCount];
+        for (int i = 0; i < stationCount; i++)
+            parents[i] = i;
+        for (Route route : routes)
+            parents[root(parents, route.station1().id())] = root(parents, route.station2().id());
+
+        Map<Integer, List<Route>> componentRoutes = new LinkedHashMap<>();
+        for (Route route : routes)
+            componentRoutes.computeIfAbsent(root(parents, route.station1().id()), root -> new ArrayList<>()).add(route);
+
+        List<Component> components = new ArrayList<>(componentRoutes.size());
+        for (List<Route> component : componentRoutes.values()) {
+            Set<Station> stations = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Route route : component) {
+                stations.add(route.station1());
+                stations.add(route.station2());
+            }
+            components.add(new Component(component, stations));
+        }
+        return new LongestTrailTracker(List.copyOf(components));
+    }
+
+    /**
+     * returns a tracker identical to the receiver but with the given route added to the network;
+     * only the longest trail of the connected component containing the new route is searched again
+     *
+     * @param route the route to add
+     * @return a tracker identical to the receiver but with the given route added to the network
+     */
+    public LongestTrailTracker withRoute(Route route) {
+        List<Component> newComponents = new ArrayList<>(components.size() + 1);
+        List<Route> mergedRoutes = new ArrayList<>();
+        Set<Station> mergedStations = newStationSet(route);
+        for (Component component : components) {
+            if(touches(component.stations, route)) {
+                mergedRoutes.addAll(component.routes);
+                mergedStations.addAll(component.stations);
+            } else {
+                newComponents.add(component);
+            }
+        }
+        mergedRoutes.add(route);
+        newComponents.add(new Component(mergedRoutes, mergedStations));
+        return new LongestTrailTracker(Collections.unmodifiableList(newComponents));
+    }
+
+    /**
+     * returns the longest trail of the network
+     *
+     * @return the longest trail of the network
+     */
+    public Trail longest() {
+        Trail longest = this.longest;
+        if(longest == null) {
+            longest = Trail.longest(List.of());
+            for (Component component : components) {
+                if(component.longest().length() > longest.length())
+                    longest = component.longest();
+            }
+            this.longest = longest;
+        }
+        return longest;
+    }
+
+    /**
+     * returns the length of the longest trail of the network
+     *
+     * @return the length of the longest trail of the network
+     */
+    public int longestLength() {
+        return longest().length();
+    }
+
+    private static int root(int[] parents, int id) {
+        while (parents[id] != id) {
+            parents[id] = parents[parents[id]];
+            id = parents[id];
+        }
+        return id;
+    }
+
+    private static Set<Station> newStationSet(Route route) {
+        Set<Station> stations = Collections.newSetFromMap(new IdentityHashMap<>());
+        stations.add(route.station1());
+        stations.add(route.station2());
+        return stations;
+    }
+
+    private static boolean touches(Set<Station> stations, Route route) {
+        return stations.contains(route.station1()) || stations.contains(route.station2());
+    }
+
+    /**
+     * A connected component of the network, with its longest trail, searched the first time it is asked for
+     */
+    private static final class Component {
+        private final List<Route> routes;
+        private final Set<Station> stations;
+        private Trail longest;
+
+        private Component(List<Route> routes, Set<Station> stations) {
+            this.routes = List.copyOf(routes);
+            this.stations = Collections.unmodifiableSet(stations);
+        }
+
+        private Trail longest() {
+            Trail longest = this.longest;
+            if(longest == null) {
+                longest = Trail.longest(routes);
+                this.longest = longest;
+            }
+            return longest;
+        }
+    }
+}
@@ -0,0 +1,893 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static ch.epfl.tchu.game.Constants.*;
+
+/**
+ * Mutable mirror of the complete state of a game, made for the inner loops of search algorithms.
+ * The state is only made of arrays of integers, which are modified in place by each action,
+ * and every action can be undone, the last one first, so that exploring a move does not allocate anything.
+ *
+ * The routes and the tickets are designated by their index in the lists of the map, the cards by their ordinal.
+ * Applying the same actions, with random generators in the same state, to a mutable state and to the
+ * corresponding GameState gives the same states.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class MutableGameState {
+
+    private static final int NO_PLAYER = -1;
+
+    private static final int DRAW_FACE_UP_CARD = 0;
+    private static final int DRAW_BLIND_CARD = 1;
+    private static final int RECREATE_DECK = 2;
+    private static final int CLAIM_ROUTE = 3;
+    private static final int DRAW_TICKETS = 4;
+    private static final int REMOVE_TOP_CARD = 5;
+    private static final int DISCARD_CARDS = 6;
+    private static final int NEXT_TURN = 7;
+
+    private final GameIndex index;
+
+    private int currentPlayer;
+    private int lastPlayer;
+
+    // The cards of the decks are stored from the bottom to the top, the top card being at index size - 1
+    private final int[] cardDeck;
+    private int cardDeckSize;
+    private final int[] faceUpCards = new int[FACE_UP_CARDS_COUNT];
+    private final int[] discards = new int[Card.COUNT];
+    private int discardsSize;
+
+    private final int[] ticketDeck;
+    private int ticketDeckSize;
+
+    private final int[][] hands = new int[PlayerId.COUNT][Card.COUNT];
+    private final int[] handSizes = new int[PlayerId.COUNT];
+    private final int[][] tickets;
+    private final int[] ticketCounts = new int[PlayerId.COUNT];
+    private final int[] routeOwners;
+    private final int[] routeLengths = new int[PlayerId.COUNT];
+    private final int[] claimPoints = new int[PlayerId.COUNT];
+
+    // The data needed to undo the actions, each action pushing its own data and then its code
+    private int[] log = new int[64];
+    private int logSize;
+    private int actionCount;
+
+    private MutableGameState(GameIndex index, int cardCount, int ticketCount) {
+        this.index = index;
+        this.cardDeck = new int[cardCount];
+        this.ticketDeck = new int[ticketCount];
+        this.tickets = new int[PlayerId.COUNT][index.tickets().size()];
+        this.routeOwners = new int[index.routes().size()];
+    }
+
+    /**
+     * returns a mutable state equal to the given state of a game played on the map of Switzerland
+     *
+     * @param state the state to copy
+     * @return a mutable state equal to the given state
+     * @throws IllegalArgumentException if the state contains a route or a ticket which is not one of ChMap
+     */
+    public static MutableGameState of(GameState state) {
+        return of(state, GameIndex.chMap());
+    }
+
+    /**
+     * returns a mutable state equal to the given state of a game played with the given routes and tickets
+     *
+     * @param state   the state to copy
+     * @param routes  all the routes of the map
+     * @param tickets all the tickets of the game
+     * @return a mutable state equal to the given state
+     * @throws IllegalArgumentException if the state contains a route or a ticket which is not in the given lists
+     */
+    public static MutableGameState of(GameState state, List<Route> routes, List<Ticket> tickets) {
+        return of(state, new GameIndex(routes, tickets));
+    }
+
+    /**
+     * returns a state of a game played on the map of Switzerland drawn at random among the states consistent with
+     * what the given player knows: the public state, its own state and, if it is drawing tickets, the tickets on top
+     * of the deck. The hand and the tickets of the other player and the content and order of the decks and of the
+     * discard pile are drawn uniformly among the cards and tickets the player has not seen.
+     *
+     * @param state      the public state of the game
+     * @param ownId      identity of the player
+     * @param ownState   the complete state of the player
+     * @param topTickets the tickets known to be on top of the deck, from the top, possibly none
+     * @param rng        random generator
+     * @return a state of the game consistent with what the player knows
+     * @throws IllegalArgumentException if the cards and the tickets of the states are not those of a game of ChMap
+     */
+    public static MutableGameState sample(PublicGameState state, PlayerId ownId, PlayerState ownState,
+                                          List<Ticket> topTickets, Random rng) {
+        GameIndex index = GameIndex.chMap();
+        PublicCardState cardState = state.cardState();
+        Preconditions.checkArgument(topTickets.size() <= state.ticketsCount());
+        MutableGameState mutableState = new MutableGameState(index, ALL_CARDS.size(), state.ticketsCount());
+        int own = ownId.ordinal();
+        int other = ownId.next().ordinal();
+
+        mutableState.currentPlayer = state.currentPlayerId().ordinal();
+        mutableState.lastPlayer = (state.lastPlayer() == null) ? NO_PLAYER : state.lastPlayer().ordinal();
+
+        Arrays.fill(mutableState.routeOwners, NO_PLAYER);
+        for (PlayerId playerId : PlayerId.ALL) {
+            for (Route route : state.playerState(playerId).routes()) {
+                mutableState.routeOwners[index.routeIndex(route)] = playerId.ordinal();
+                mutableState.routeLengths[playerId.ordinal()] += route.length();
+                mutableState.claimPoints[playerId.ordinal()] += route.claimPoints();
+            }
+        }
+
+        // The cards not seen by the player are dealt to the other player, the discard pile and the deck
+        int[] unseenCounts = new int[Card.COUNT];
+        CardBag hand = ownState.cardBag();
+        for (Card card : Card.ALL) {
+            unseenCounts[card.ordinal()] = ALL_CARDS.countOf(card) - hand.countOf(card);
+            mutableState.hands[own][card.ordinal()] = hand.countOf(card);
+        }
+        mutableState.handSizes[own] = hand.size();
+        for (int slot : FACE_UP_CARD_SLOTS) {
+            mutableState.faceUpCards[slot] = cardState.faceUpCard(slot).ordinal();
+            unseenCounts[mutableState.faceUpCards[slot]]--;
+        }
+        int[] unseenCards = shuffled(unseenCounts, rng);
+        int otherCardCount = state.playerState(ownId.next()).cardCount();
+        Preconditions.checkArgument(unseenCards.length == otherCardCount + cardState.discardsSize() + cardState.deckSize());
+        for (int i = 0; i < otherCardCount; i++)
+            mutableState.addToHand(other, unseenCards[i], 1);
+        for (int i = otherCardCount; i < otherCardCount + cardState.discardsSize(); i++)
+            mutableState.discards[unseenCards[i]]++;
+        mutableState.discardsSize = cardState.discardsSize();
+        System.arraycopy(unseenCards, otherCardCount + cardState.discardsSize(), mutableState.cardDeck, 0, cardState.deckSize());
+        mutableState.cardDeckSize = cardState.deckSize();
+
+        // The tickets not seen by the player are dealt to the other player and the deck, the others being out of the game
+        int[] unseenTicketCounts = new int[index.tickets().size()];
+        for (int i = 0; i < unseenTicketCounts.length; i++)
+            unseenTicketCounts[i] = index.ticketCopies(i);
+        SortedBag<Ticket> ownTickets = ownState.tickets();
+        for (Ticket ticket : ownTickets.toSet()) {
+            int ticketIndex = index.ticketIndex(ticket);
+            mutableState.tickets[own][ticketIndex] = ownTickets.countOf(ticket);
+            unseenTicketCounts[ticketIndex] -= ownTickets.countOf(ticket);
+        }
+        mutableState.ticketCounts[own] = ownTickets.size();
+        for (Ticket ticket : topTickets)
+            unseenTicketCounts[index.ticketIndex(ticket)]--;
+        int[] unseenTickets = shuffled(unseenTicketCounts, rng);
+        int otherTicketCount = state.playerState(ownId.next()).ticketCount();
+        int hiddenDeckSize = state.ticketsCount() - topTickets.size();
+        Preconditions.checkArgument(unseenTickets.length >= otherTicketCount + hiddenDeckSize);
+        for (int i = 0; i < otherTicketCount; i++)
+            mutableState.tickets[other][unseenTickets[i]]++;
+        mutableState.ticketCounts[other] = otherTicketCount;
+        System.arraycopy(unseenTickets, otherTicketCount, mutableState.ticketDeck, 0, hiddenDeckSize);
+        for (int i = 0; i < topTickets.size(); i++)
+            mutableState.ticketDeck[state.ticketsCount() - 1 - i] = index.ticketIndex(topTickets.get(i));
+        mutableState.ticketDeckSize = state.ticketsCount();
+        return mutableState;
+    }
+
+    private static MutableGameState of(GameState state, GameIndex index) {
+        CardState cardState = state.cardState();
+        int cardCount = cardState.totalSize();
+        for (PlayerId playerId : PlayerId.ALL)
+            cardCount += state.playerState(playerId).cardCount();
+        MutableGameState mutableState = new MutableGameState(index, cardCount, state.ticketsCount());
+
+        mutableState.currentPlayer = state.currentPlayerId().ordinal();
+        mutableState.lastPlayer = (state.lastPlayer() == null) ? NO_PLAYER : state.lastPlayer().ordinal();
+
+        Deck<Card> cardDeck = cardState.deck();
+        mutableState.cardDeckSize = cardDeck.size();
+        for (int i = 0; i < cardDeck.size(); i++)
+            mutableState.cardDeck[cardDeck.size() - 1 - i] = cardDeck.card(i).ordinal();
+        for (int slot : FACE_UP_CARD_SLOTS)
+            mutableState.faceUpCards[slot] = cardState.faceUpCard(slot).ordinal();
+        for (Card card : Card.ALL)
+            mutableState.discards[card.ordinal()] = cardState.discards().countOf(card);
+        mutableState.discardsSize = cardState.discardsSize();
+
+        Deck<Ticket> ticketDeck = state.ticketDeck();
+        mutableState.ticketDeckSize = ticketDeck.size();
+        for (int i = 0; i < ticketDeck.size(); i++)
+            mutableState.ticketDeck[ticketDeck.size() - 1 - i] = index.ticketIndex(ticketDeck.card(i));
+
+        Arrays.fill(mutableState.routeOwners, NO_PLAYER);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int player = playerId.ordinal();
+            PlayerState playerState = state.playerState(playerId);
+            CardBag hand = playerState.cardBag();
+            for (Card card : Card.ALL)
+                mutableState.hands[player][card.ordinal()] = hand.countOf(card);
+            mutableState.handSizes[player] = hand.size();
+
+            SortedBag<Ticket> playerTickets = playerState.tickets();
+            for (Ticket ticket : playerTickets.toSet())
+                mutableState.tickets[player][index.ticketIndex(ticket)] = playerTickets.countOf(ticket);
+            mutableState.ticketCounts[player] = playerTickets.size();
+
+            for (Route route : playerState.routes()) {
+                mutableState.routeOwners[index.routeIndex(route)] = player;
+                mutableState.routeLengths[player] += route.length();
+                mutableState.claimPoints[player] += route.claimPoints();
+            }
+        }
+        return mutableState;
+    }
+
+    /**
+     * returns the immutable state equal to the receiver; the routes of the players are in the order of the routes of the map
+     *
+     * @return the immutable state equal to the receiver
+     */
+    public GameState toGameState() {
+        List<Card> deckCards = new ArrayList<>(cardDeckSize);
+        for (int i = cardDeckSize - 1; i >= 0; i--)
+            deckCards.add(Card.ALL.get(cardDeck[i]));
+        List<Card> faceUp = new ArrayList<>(FACE_UP_CARDS_COUNT);
+        for (int card : faceUpCards)
+            faceUp.add(Card.ALL.get(card));
+        CardState cardState = CardState.of(faceUp, Deck.ofOrdered(deckCards), cardBag(discards));
+
+        List<Ticket> deckTickets = new ArrayList<>(ticketDeckSize);
+        for (int i = ticketDeckSize - 1; i >= 0; i--)
+            deckTickets.add(index.ticket(ticketDeck[i]));
+
+        Map<PlayerId, PlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int player = playerId.ordinal();
+            SortedBag.Builder<Ticket> playerTickets = new SortedBag.Builder<>();
+            for (int i = 0; i < tickets[player].length; i++)
+                playerTickets.add(tickets[player][i], index.ticket(i));
+            List<Route> playerRoutes = new ArrayList<>();
+            for (int i = 0; i < routeOwners.length; i++) {
+                if(routeOwners[i] == player)
+                    playerRoutes.add(index.routes().get(i));
+            }
+            playerStates.put(playerId, PlayerState.of(playerTickets.build(), cardBag(hands[player]), playerRoutes));
+        }
+        return GameState.of(Deck.ofOrdered(deckTickets), cardState, currentPlayerId(), playerStates, lastPlayer());
+    }
+
+    /**
+     * returns the routes of the map, in the order of their indices
+     *
+     * @return the routes of the map, in the order of their indices
+     */
+    public List<Route> routes() {
+        return index.routes();
+    }
+
+    /**
+     * returns the index of the given route
+     *
+     * @param route the route
+     * @return the index of the given route
+     * @throws IllegalArgumentException if the route is not one of the map
+     */
+    public int routeIndex(Route route) {
+        return index.routeIndex(route);
+    }
+
+    /**
+     * returns the distinct tickets of the game, in the order of their indices, the copies of a ticket sharing its index
+     *
+     * @return the distinct tickets of the game, in the order of their indices
+     */
+    public List<Ticket> tickets() {
+        return index.tickets();
+    }
+
+    /**
+     * returns the cards with which the route of given index can be claimed, in the order of Route.possibleClaimCards
+     *
+     * @param routeIndex the index of the route
+     * @return the cards with which the route of given index can be claimed
+     */
+    public List<CardBag> claimCards(int routeIndex) {
+        return index.routes().get(routeIndex).possibleClaimCardBags();
+    }
+
+    /**
+     * returns true iff the current player can claim the route of given index with the given cards, ie if the route
+     * is not claimed yet, and the player has enough cars and has the cards
+     *
+     * @param routeIndex the index of the route
+     * @param cards      the cards used to claim the route
+     * @return true iff the current player can claim the route of given index with the given cards
+     */
+    public boolean canClaimRoute(int routeIndex, CardBag cards) {
+        if(routeOwners[routeIndex] != NO_PLAYER
+                || carCount(currentPlayerId()) < index.routes().get(routeIndex).length())
+            return false;
+        int[] hand = hands[currentPlayer];
+        for (int card = 0; card < Card.COUNT; card++) {
+            if(cards.countOf(Card.ALL.get(card)) > hand[card])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * returns the identity of the current player
+     *
+     * @return the identity of the current player
+     */
+    public PlayerId currentPlayerId() {
+        return PlayerId.ALL.get(currentPlayer);
+    }
+
+    /**
+     * returns the identity of the last player, or null if it is not known yet
+     *
+     * @return the identity of the last player, or null if it is not known yet
+     */
+    public PlayerId lastPlayer() {
+        return (lastPlayer == NO_PLAYER) ? null : PlayerId.ALL.get(lastPlayer);
+    }
+
+    /**
+     * returns the card face up in the given slot
+     *
+     * @param slot the slot
+     * @return the card face up in the given slot
+     */
+    public Card faceUpCard(int slot) {
+        return Card.ALL.get(faceUpCards[Objects.checkIndex(slot, FACE_UP_CARDS_COUNT)]);
+    }
+
+    /**
+     * returns the number of cards of the deck
+     *
+     * @return the number of cards of the deck
+     */
+    public int deckSize() {
+        return cardDeckSize;
+    }
+
+    /**
+     * returns the card at the top of the deck
+     *
+     * @return the card at the top of the deck
+     * @throws IllegalArgumentException if the deck is empty
+     */
+    public Card topDeckCard() {
+        Preconditions.checkArgument(cardDeckSize > 0);
+        return Card.ALL.get(cardDeck[cardDeckSize - 1]);
+    }
+
+    /**
+     * returns the number of cards of the discard pile
+     *
+     * @return the number of cards of the discard pile
+     */
+    public int discardsSize() {
+        return discardsSize;
+    }
+
+    /**
+     * returns true iff it is possible to draw cards, ie if the deck and the discard pile contain at least 5 cards
+     *
+     * @return true iff it is possible to draw cards
+     */
+    public boolean canDrawCards() {
+        return cardDeckSize + discardsSize >= FACE_UP_CARDS_COUNT;
+    }
+
+    /**
+     * returns the number of tickets of the deck
+     *
+     * @return the number of tickets of the deck
+     */
+    public int ticketsCount() {
+        return ticketDeckSize;
+    }
+
+    /**
+     * returns true iff it is possible to draw tickets, ie if the deck of tickets is not empty
+     *
+     * @return true iff it is possible to draw tickets
+     */
+    public boolean canDrawTickets() {
+        return ticketDeckSize > 0;
+    }
+
+    /**
+     * returns the ticket at the given position of the deck of tickets, 0 being the top of the deck
+     *
+     * @param position the position of the ticket
+     * @return the ticket at the given position of the deck of tickets
+     */
+    public Ticket topTicket(int position) {
+        return index.ticket(topTicketIndex(position));
+    }
+
+    /**
+     * returns the index of the ticket at the given position of the deck of tickets, 0 being the top of the deck
+     *
+     * @param position the position of the ticket
+     * @return the index of the ticket at the given position of the deck of tickets
+     */
+    public int topTicketIndex(int position) {
+        return ticketDeck[ticketDeckSize - 1 - Objects.checkIndex(position, ticketDeckSize)];
+    }
+
+    /**
+     * returns the number of cards of the given type in the hand of the given player
+     *
+     * @param playerId identity of the player
+     * @param card     the type of the card
+     * @return the number of cards of the given type in the hand of the given player
+     */
+    public int cardCount(PlayerId playerId, Card card) {
+        return hands[playerId.ordinal()][card.ordinal()];
+    }
+
+    /**
+     * returns the number of cards in the hand of the given player
+     *
+     * @param playerId identity of the player
+     * @return the number of cards in the hand of the given player
+     */
+    public int cardCount(PlayerId playerId) {
+        return handSizes[playerId.ordinal()];
+    }
+
+    /**
+     * returns the cards in the hand of the given player
+     *
+     * @param playerId identity of the player
+     * @return the cards in the hand of the given player
+     */
+    public CardBag cards(PlayerId playerId) {
+        return cardBag(hands[playerId.ordinal()]);
+    }
+
+    /**
+     * returns the number of tickets of the given player
+     *
+     * @param playerId identity of the player
+     * @return the number of tickets of the given player
+     */
+    public int ticketCount(PlayerId playerId) {
+        return ticketCounts[playerId.ordinal()];
+    }
+
+    /**
+     * returns the number of copies of the ticket of given index held by the given player
+     *
+     * @param playerId    identity of the player
+     * @param ticketIndex the index of the ticket
+     * @return the number of copies of the ticket of given index held by the given player
+     */
+    public int ticketCount(PlayerId playerId, int ticketIndex) {
+        return tickets[playerId.ordinal()][ticketIndex];
+    }
+
+    /**
+     * returns the owner of the route of given index
+     *
+     * @param routeIndex the index of the route
+     * @return the owner of the route of given index, or null if it has not been claimed
+     */
+    public PlayerId routeOwner(int routeIndex) {
+        int owner = routeOwners[routeIndex];
+        return (owner == NO_PLAYER) ? null : PlayerId.ALL.get(owner);
+    }
+
+    /**
+     * returns the number of cars of the given player
+     *
+     * @param playerId identity of the player
+     * @return the number of cars of the given player
+     */
+    public int carCount(PlayerId playerId) {
+        return INITIAL_CAR_COUNT - routeLengths[playerId.ordinal()];
+    }
+
+    /**
+     * returns the number of construction points of the given player
+     *
+     * @param playerId identity of the player
+     * @return the number of construction points of the given player
+     */
+    public int claimPoints(PlayerId playerId) {
+        return claimPoints[playerId.ordinal()];
+    }
+
+    /**
+     * returns the number of points obtained (or lost) by the given player thanks to its tickets
+     *
+     * @param playerId identity of the player
+     * @return the number of points obtained (or lost) by the given player thanks to its tickets
+     */
+    public int ticketPoints(PlayerId playerId) {
+        int player = playerId.ordinal();
+        StationPartition.Builder builder = new StationPartition.Builder(index.stationCount());
+        for (int i = 0; i < routeOwners.length; i++) {
+            if(routeOwners[i] == player)
+                builder.connect(index.routes().get(i).station1(), index.routes().get(i).station2());
+        }
+        StationPartition partition = builder.build();
+
+        int ticketPoints = 0;
+        for (int i = 0; i < tickets[player].length; i++) {
+            if(tickets[player][i] > 0)
+                ticketPoints += tickets[player][i] * index.ticket(i).points(partition);
+        }
+        return ticketPoints;
+    }
+
+    /**
+     * returns the number of points of the given player at the end of the game, without the longest trail bonus
+     *
+     * @param playerId identity of the player
+     * @return the number of points of the given player at the end of the game, without the longest trail bonus
+     */
+    public int finalPoints(PlayerId playerId) {
+        return claimPoints(playerId) + ticketPoints(playerId);
+    }
+
+    /**
+     * returns the length of the longest trail of the given player
+     *
+     * @param playerId identity of the player
+     * @return the length of the longest trail of the given player
+     */
+    public int longestTrailLength(PlayerId playerId) {
+        List<Route> playerRoutes = new ArrayList<>();
+        for (int i = 0; i < routeOwners.length; i++) {
+            if(routeOwners[i] == playerId.ordinal())
+                playerRoutes.add(index.routes().get(i));
+        }
+        return Trail.longest(playerRoutes).length();
+    }
+
+    /**
+     * returns true iff the last turn begins, ie if the last player is not known yet and the current player has
+     * two cars or less; as GameState.lastTurnBegins, this method should only be called at the end of a turn
+     *
+     * @return true iff the last turn begins
+     */
+    public boolean lastTurnBegins() {
+        return lastPlayer == NO_PLAYER && carCount(currentPlayerId()) <= 2;
+    }
+
+    /**
+     * returns the number of actions applied and not undone, which can be given to undoUntil to come back to this state
+     *
+     * @return the number of actions applied and not undone
+     */
+    public int actionCount() {
+        return actionCount;
+    }
+
+    /**
+     * the current player takes the face-up card of the given slot, which is replaced by the top card of the deck
+     *
+     * @param slot the slot of the card
+     * @throws IllegalArgumentException  if it is not possible to draw cards, or if the deck is empty
+     * @throws IndexOutOfBoundsException if the slot is not between 0 (included) and 5 (excluded)
+     */
+    public void drawFaceUpCard(int slot) {
+        Objects.checkIndex(slot, FACE_UP_CARDS_COUNT);
+        Preconditions.checkArgument(canDrawCards() && cardDeckSize > 0);
+        int card = faceUpCards[slot];
+        addToHand(currentPlayer, card, 1);
+        faceUpCards[slot] = cardDeck[--cardDeckSize];
+        push(slot, card, DRAW_FACE_UP_CARD);
+    }
+
+    /**
+     * the current player takes the top card of the deck
+     *
+     * @throws IllegalArgumentException if it is not possible to draw cards, or if the deck is empty
+     */
+    public void drawBlindCard() {
+        Preconditions.checkArgument(canDrawCards() && cardDeckSize > 0);
+        addToHand(currentPlayer, cardDeck[--cardDeckSize], 1);
+        push(DRAW_BLIND_CARD);
+    }
+
+    /**
+     * removes the top card of the deck, which is neither given to a player nor discarded, as the cards drawn
+     * when claiming a tunnel, and returns it
+     *
+     * @return the card removed from the top of the deck
+     * @throws IllegalArgumentException if the deck is empty
+     */
+    public Card removeTopCard() {
+        Preconditions.checkArgument(cardDeckSize > 0);
+        int card = cardDeck[--cardDeckSize];
+        push(REMOVE_TOP_CARD);
+        return Card.ALL.get(card);
+    }
+
+    /**
+     * adds the given cards to the discard pile
+     *
+     * @param cards the cards to discard
+     */
+    public void discard(CardBag cards) {
+        long packed = cards.packed();
+        for (Card card : Card.ALL) {
+            int count = cards.countOf(card);
+            discards[card.ordinal()] += count;
+            discardsSize += count;
+        }
+        push((int) packed, (int) (packed >>> Integer.SIZE), DISCARD_CARDS);
+    }
+
+    /**
+     * if the deck is empty, recreates it from the discard pile, shuffled with the given random generator
+     * exactly as GameState.withCardsDeckRecreatedIfNeeded; otherwise does nothing.
+     * In both cases, the action can be undone.
+     *
+     * @param rng random generator
+     */
+    public void recreateDeckIfNeeded(Random rng) {
+        if(cardDeckSize > 0) {
+            push(0, RECREATE_DECK);
+            return;
+        }
+
+        // The cards of the discard pile, in the order of a SortedBag, are shuffled as by Collections.shuffle
+        int[] shuffled = shuffled(discards, rng);
+        int size = shuffled.length;
+
+        // The overwritten cards of the deck are kept, the deck being refilled by the undoing of the previous draws
+        ensureLogCapacity(size + Card.COUNT + 2);
+        for (int i = 0; i < size; i++) {
+            log[logSize++] = cardDeck[i];
+            cardDeck[i] = shuffled[size - 1 - i];
+        }
+        for (int card = 0; card < Card.COUNT; card++) {
+            log[logSize++] = discards[card];
+            discards[card] = 0;
+        }
+        cardDeckSize = size;
+        discardsSize = 0;
+        push(size, RECREATE_DECK);
+    }
+
+    /**
+     * the current player claims the route of given index with the given cards, which are discarded
+     *
+     * @param routeIndex the index of the route
+     * @param cards      the cards used to claim the route
+     * @throws IllegalArgumentException if the route is already claimed or if the player does not have the cards
+     */
+    public void claimRoute(int routeIndex, CardBag cards) {
+        Preconditions.checkArgument(routeOwners[routeIndex] == NO_PLAYER);
+        for (Card card : Card.ALL)
+            Preconditions.checkArgument(cards.countOf(card) <= hands[currentPlayer][card.ordinal()]);
+
+        Route route = index.routes().get(routeIndex);
+        routeOwners[routeIndex] = currentPlayer;
+        routeLengths[currentPlayer] += route.length();
+        claimPoints[currentPlayer] += route.claimPoints();
+        for (Card card : Card.ALL) {
+            int count = cards.countOf(card);
+            addToHand(currentPlayer, card.ordinal(), -count);
+            discards[card.ordinal()] += count;
+            discardsSize += count;
+        }
+        long packed = cards.packed();
+        push(routeIndex, (int) packed, (int) (packed >>> Integer.SIZE), CLAIM_ROUTE);
+    }
+
+    /**
+     * the current player draws the given number of tickets from the top of the deck and keeps those whose position,
+     * from the top of the deck, is in the given set
+     *
+     * @param drawnCount   the number of tickets drawn
+     * @param chosenMask the positions of the tickets kept, as a set of bits, bit i standing for the ticket at position i
+     * @throws IllegalArgumentException if there are less than drawnCount tickets in the deck,
+     *                                  or if the mask contains a position greater than or equal to drawnCount
+     */
+    public void drawTickets(int drawnCount, int chosenMask) {
+        Preconditions.checkArgument(0 <= drawnCount && drawnCount <= ticketDeckSize && drawnCount < Integer.SIZE);
+        Preconditions.checkArgument((chosenMask >>> drawnCount) == 0);
+        for (int position = 0; position < drawnCount; position++) {
+            if((chosenMask & (1 << position)) != 0) {
+                tickets[currentPlayer][ticketDeck[ticketDeckSize - 1 - position]]++;
+                ticketCounts[currentPlayer]++;
+            }
+        }
+        ticketDeckSize -= drawnCount;
+        push(drawnCount, chosenMask, DRAW_TICKETS);
+    }
+
+    /**
+     * ends the turn of the current player: the other player becomes the current player, and if the last turn begins,
+     * the current player becomes the last player
+     */
+    public void nextTurn() {
+        int previousLastPlayer = lastPlayer;
+        if(lastTurnBegins())
+            lastPlayer = currentPlayer;
+        currentPlayer = 1 - currentPlayer;
+        push(previousLastPlayer, NEXT_TURN);
+    }
+
+    /**
+     * undoes the last action applied and not yet undone
+     *
+     * @throws IllegalStateException if there is no action to undo
+     */
+    public void undo() {
+        if(actionCount == 0)
+            throw new IllegalStateException();
+        actionCount--;
+
+        switch (log[--logSize]) {
+            case DRAW_FACE_UP_CARD: {
+                int card = log[--logSize];
+                int slot = log[--logSize];
+                cardDeckSize++;
+                faceUpCards[slot] = card;
+                addToHand(currentPlayer, card, -1);
+                break;
+            }
+            case DRAW_BLIND_CARD:
+                addToHand(currentPlayer, cardDeck[cardDeckSize++], -1);
+                break;
+            case REMOVE_TOP_CARD:
+                cardDeckSize++;
+                break;
+            case DISCARD_CARDS: {
+                CardBag cards = popCardBag();
+                for (Card card : Card.ALL) {
+                    int count = cards.countOf(card);
+                    discards[card.ordinal()] -= count;
+                    discardsSize -= count;
+                }
+                break;
+            }
+            case RECREATE_DECK: {
+                int size = log[--logSize];
+                if(size > 0) {
+                    for (int card = Card.COUNT - 1; card >= 0; card--)
+                        discards[card] = log[--logSize];
+                    for (int i = size - 1; i >= 0; i--)
+                        cardDeck[i] = log[--logSize];
+                    cardDeckSize = 0;
+                    discardsSize = size;
+                }
+                break;
+            }
+            case CLAIM_ROUTE: {
+                CardBag cards = popCardBag();
+                int routeIndex = log[--logSize];
+                Route route = index.routes().get(routeIndex);
+                routeOwners[routeIndex] = NO_PLAYER;
+                routeLengths[currentPlayer] -= route.length();
+                claimPoints[currentPlayer] -= route.claimPoints();
+                for (Card card : Card.ALL) {
+                    int count = cards.countOf(card);
+                    addToHand(currentPlayer, card.ordinal(), count);
+                    discards[card.ordinal()] -= count;
+                    discardsSize -= count;
+                }
+                break;
+            }
+            case DRAW_TICKETS: {
+                int chosenMask = log[--logSize];
+                int drawnCount = log[--logSize];
+                ticketDeckSize += drawnCount;
+                for (int position = 0; position < drawnCount; position++) {
+                    if((chosenMask & (1 << position)) != 0) {
+                        tickets[currentPlayer][ticketDeck[ticketDeckSize - 1 - position]]--;
+                        ticketCounts[currentPlayer]--;
+                    }
+                }
+                break;
+            }
+            case NEXT_TURN:
+                currentPlayer = 1 - currentPlayer;
+                lastPlayer = log[--logSize];
+                break;
+            default:
+                throw new Error();
+        }
+    }
+
+    /**
+     * undoes the actions applied since the given number of actions was reached
+     *
+     * @param actionCount the number of actions to come back to, as returned by actionCount
+     * @throws IllegalArgumentException if actionCount is negative or greater than the current number of actions
+     */
+    public void undoUntil(int actionCount) {
+        Preconditions.checkArgument(0 <= actionCount && actionCount <= this.actionCount);
+        while (this.actionCount > actionCount)
+            undo();
+    }
+
+    private void addToHand(int player, int card, int count) {
+        hands[player][card] += count;
+        handSizes[player] += count;
+    }
+
+    private CardBag popCardBag() {
+        long high = log[--logSize];
+        long low = log[--logSize];
+        return CardBag.ofPacked((high << Integer.SIZE) | (low & 0xFFFF_FFFFL));
+    }
+
+    private void push(int code) {
+        ensureLogCapacity(1);
+        log[logSize++] = code;
+        actionCount++;
+    }
+
+    private void push(int value, int code) {
+        ensureLogCapacity(2);
+        log[logSize++] = value;
+        push(code);
+    }
+
+    private void push(int value1, int value2, int code) {
+        ensureLogCapacity(3);
+        log[logSize++] = value1;
+        push(value2, code);
+    }
+
+    private void push(int value1, int value2, int value3, int code) {
+        ensureLogCapacity(4);
+        log[logSize++] = value1;
+        push(value2, value3, code);
+    }
+
+    private void ensureLogCapacity(int count) {
+        if(logSize + count > log.length)
+            log = Arrays.copyOf(log, Math.max(2 * log.length, logSize + count));
+    }
+
+    // Returns the elements whose counts are given, sorted then shuffled exactly as by Collections.shuffle.
+    private static int[] shuffled(int[] counts, Random rng) {
+        int size = 0;
+        for (int count : counts) {
+            Preconditions.checkArgument(count >= 0);
+            size += count;
+        }
+        int[] elements = new int[size];
+        int i = 0;
+        for (int element = 0; element < counts.length; element++) {
+            for (int copy = 0; copy < counts[element]; copy++)
+                elements[i++] = element;
+        }
+        for (int j = size; j > 1; j--) {
+            int k = rng.nextInt(j);
+            int element = elements[j - 1];
+            elements[j - 1] = elements[k];
+            elements[k] = element;
+        }
+        return elements;
+    }
+
+    private static CardBag cardBag(int[] counts) {
+        CardBag cards = CardBag.of();
+        for (Card card : Card.ALL) {
+            if(counts[card.ordinal()] > 0)
+                cards = cards.withCount(card, counts[card.ordinal()]);
+        }
+        return cards;
+    }
+}
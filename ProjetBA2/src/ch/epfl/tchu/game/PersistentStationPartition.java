@@ -0,0 +1,120 @@
+package ch.epfl.tchu.game;
+
+import java.util.Arrays;
+
+/**
+ * Immutable partition of stations that can be extended by joining two sub-sets.
+ * It is a union-find whose parent links are stored in small chunks: joining two sub-sets only copies
+ * the chunk holding the modified link, all the other chunks being shared with the previous partition.
+ * The sub-sets are joined by rank, so finding a representative takes a logarithmic number of steps.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class PersistentStationPartition implements StationComponents {
+
+    private static final int CHUNK_BITS = 4;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final PersistentStationPartition EMPTY =
+            new PersistentStationPartition(new int[0][], new byte[0][]);
+
+    // A missing (null) chunk stands for stations that are all their own representative, with rank 0.
+    private final int[][] parents;
+    private final byte[][] ranks;
+
+    private PersistentStationPartition(int[][] parents, byte[][] ranks) {
+        this.parents = parents;
+        this.ranks = ranks;
+    }
+
+    /**
+     * returns the partition in which every station is only connected to itself
+     *
+     * @return the partition in which every station is only connected to itself
+     */
+    public static PersistentStationPartition empty() {
+        return EMPTY;
+    }
+
+    /**
+     * returns a partition identical to the receiver but in which the sub-sets containing the two given stations are joined
+     *
+     * @param s1 first Station
+     * @param s2 second Station
+     * @return a partition identical to the receiver but in which the sub-sets containing the two given stations are joined
+     */
+    public PersistentStationPartition withConnected(Station s1, Station s2) {
+        int representative1 = representative(s1.id());
+        int representative2 = representative(s2.id());
+        if(representative1 == representative2)
+            return this;
+
+        int rank1 = rank(representative1);
+        int rank2 = rank(representative2);
+        if(rank1 < rank2) {
+            int lower = representative1;
+            representative1 = representative2;
+            representative2 = lower;
+        }
+
+        int chunkCount = Math.max(Math.max(representative1, representative2) / CHUNK_SIZE + 1, parents.length);
+        int[][] newParents = Arrays.copyOf(parents, chunkCount);
+        int[] chunk = copyOfChunk(newParents, representative2);
+        chunk[representative2 & CHUNK_MASK] = representative1;
+
+        byte[][] newRanks = ranks;
+        if(rank1 == rank2) {
+            newRanks = Arrays.copyOf(ranks, chunkCount);
+            int index = representative1 >>> CHUNK_BITS;
+            byte[] rankChunk = (newRanks[index] == null) ? new byte[CHUNK_SIZE] : newRanks[index].clone();
+            rankChunk[representative1 & CHUNK_MASK]++;
+            newRanks[index] = rankChunk;
+        }
+        return new PersistentStationPartition(newParents, newRanks);
+    }
+
+    @Override
+    public boolean connected(Station s1, Station s2) {
+        return representative(s1.id()) == representative(s2.id());
+    }
+
+    @Override
+    public int component(int stationId) {
+        return representative(stationId);
+    }
+
+    private static int[] copyOfChunk(int[][] chunks, int id) {
+        int index = id >>> CHUNK_BITS;
+        int[] chunk;
+        if(chunks[index] == null) {
+            chunk = new int[CHUNK_SIZE];
+            for (int i = 0; i < CHUNK_SIZE; i++)
+                chunk[i] = (index << CHUNK_BITS) + i;
+        } else {
+            chunk = chunks[index].clone();
+        }
+        chunks[index] = chunk;
+        return chunk;
+    }
+
+    private int parent(int id) {
+        int index = id >>> CHUNK_BITS;
+        return (index < parents.length && parents[index] != null) ? parents[index][id & CHUNK_MASK] : id;
+    }
+
+    private int rank(int id) {
+        int index = id >>> CHUNK_BITS;
+        return (index < ranks.length && ranks[index] != null) ? ranks[index][id & CHUNK_MASK] : 0;
+    }
+
+    private int representative(int id) {
+        int parent = parent(id);
+        while (parent != id) {
+            id = parent;
+            parent = parent(id);
+        }
+        return id;
+    }
+}
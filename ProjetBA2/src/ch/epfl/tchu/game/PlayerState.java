@@ -13,7 +13,14 @@ import java.util.*;
 
 public final class PlayerState extends PublicPlayerState {
     private final SortedBag<Ticket> tickets;
-    private final SortedBag<Card> cards;
+    private final CardBag hand;
+    private final LongestTrailTracker longestTrail;
+    private final PersistentStationPartition connectivity;
+    // The Zobrist key of the routes and tickets, updated by each transition, and the one of the whole state
+    private final long routesAndTicketsKey;
+    private final long zobristKey;
+    // The cards of the hand as a SortedBag, only built when they are asked for
+    private SortedBag<Card> cards;
 
     /**
      * Returns the complete state of a player.
@@ -23,11 +30,44 @@ public final class PlayerState extends PublicPlayerState {
      * @param routes  the roads the player has
      */
     public PlayerState(SortedBag<Ticket> tickets, SortedBag<Card> cards, List<Route> routes) {
-        super(tickets.size(), cards.size(), routes);
-        this.tickets = tickets;
+        this(tickets, CardBag.of(cards), routes, LongestTrailTracker.of(routes), connectivityOf(routes), keyOf(tickets, routes));
         this.cards = cards;
     }
 
+    private PlayerState(SortedBag<Ticket> tickets, CardBag hand, List<Route> routes,
+                        LongestTrailTracker longestTrail, PersistentStationPartition connectivity, long routesAndTicketsKey) {
+        super(tickets.size(), hand.size(), routes);
+        this.tickets = tickets;
+        this.hand = hand;
+        this.longestTrail = longestTrail;
+        this.connectivity = connectivity;
+        this.routesAndTicketsKey = routesAndTicketsKey;
+        this.zobristKey = routesAndTicketsKey ^ Zobrist.hand(hand);
+    }
+
+    /**
+     * Returns the state of a player having the given tickets, cards and roads.
+     *
+     * @param tickets the tickets the player has
+     * @param hand    the cards the player has
+     * @param routes  the roads the player has
+     * @return the state of a player having the given tickets, cards and roads
+     */
+    public static PlayerState of(SortedBag<Ticket> tickets, CardBag hand, List<Route> routes) {
+        return new PlayerState(tickets, hand, routes, LongestTrailTracker.of(routes), connectivityOf(routes), keyOf(tickets, routes));
+    }
+
+    private static long keyOf(SortedBag<Ticket> tickets, List<Route> routes) {
+        return Zobrist.addedTickets(SortedBag.of(), tickets) ^ Zobrist.routes(routes);
+    }
+
+    private static PersistentStationPartition connectivityOf(List<Route> routes) {
+        PersistentStationPartition connectivity = PersistentStationPartition.empty();
+        for (Route route : routes)
+            connectivity = connectivity.withConnected(route.station1(), route.station2());
+        return connectivity;
+    }
+
     /**
      * Returns the initial state of the player.
      *
@@ -56,7 +96,8 @@ public final class PlayerState extends PublicPlayerState {
      * @return the same state of the player but with the added tickets
      */
     public PlayerState withAddedTickets(SortedBag<Ticket> newTickets) {
-        return new PlayerState(tickets.union(newTickets), cards, routes());
+        return new PlayerState(tickets.union(newTickets), hand, routes(), longestTrail, connectivity,
+                routesAndTicketsKey ^ Zobrist.addedTickets(tickets, newTickets));
     }
 
     /**
@@ -65,9 +106,20 @@ public final class PlayerState extends PublicPlayerState {
      * @return the cards the player has
      */
     public SortedBag<Card> cards() {
+        if(cards == null)
+            cards = hand.toSortedBag();
         return cards;
     }
 
+    /**
+     * Returns the cards the player has, as a bag of card counts.
+     *
+     * @return the cards the player has, as a bag of card counts
+     */
+    public CardBag cardBag() {
+        return hand;
+    }
+
     /**
      * returns an identical PlayerState to the receiver with the given card added
      *
@@ -75,11 +127,18 @@ public final class PlayerState extends PublicPlayerState {
      * @return an identical PlayerState to the receiver with the given card added
      */
     public PlayerState withAddedCard(Card card) {
-        return new PlayerState(tickets, cards.union(SortedBag.of(card)), routes());
+        return new PlayerState(tickets, hand.with(card), routes(), longestTrail, connectivity, routesAndTicketsKey);
     }
 
+    /**
+     * returns an identical PlayerState to the receiver with the given cards added
+     *
+     * @param additionalCards the cards we want to add
+     * @return an identical PlayerState to the receiver with the given cards added
+     */
     public PlayerState withAddedCards(SortedBag<Card> additionalCards) {
-        return new PlayerState(tickets, cards.union(additionalCards), routes());
+        return new PlayerState(tickets, hand.union(CardBag.of(additionalCards)), routes(), longestTrail, connectivity,
+                routesAndTicketsKey);
     }
 
     /**
@@ -89,7 +148,13 @@ public final class PlayerState extends PublicPlayerState {
      * @return true if and only if the player can claim the road
      */
     public boolean canClaimRoute(Route route) {
-        return (carCount() >= route.length() && !possibleClaimCards(route).isEmpty());
+        if(carCount() < route.length())
+            return false;
+        for (CardBag claimCards : route.possibleClaimCardBags()) {
+            if(hand.contains(claimCards))
+                return true;
+        }
+        return false;
     }
 
     /**
@@ -100,11 +165,55 @@ public final class PlayerState extends PublicPlayerState {
      */
     public List<SortedBag<Card>> possibleClaimCards(Route route) {
         Preconditions.checkArgument(carCount() >= route.length());
-        List<SortedBag<Card>> possibleCards = route.possibleClaimCards();
-        List<SortedBag<Card>> possibleClaimCards = new LinkedList<>(possibleCards);
-        for (SortedBag<Card> card : possibleCards) {
-            if(!cards.contains(card))
-                possibleClaimCards.remove(card);
+        return claimCardsInHand(route);
+    }
+
+    /**
+     * Returns, among the given routes, all the routes the player can claim, each one with the possible cards collections
+     * the player could use to possess it, in the same order as possibleClaimCards.
+     * The number of cards of each color in the hand is only counted once, and is enough to discard most of the routes
+     * without examining their cards collections.
+     *
+     * @param routes        the roads the player would like to claim
+     * @param claimedRoutes the roads already claimed by one of the players, which are ignored
+     * @return the claimable roads, in the order in which they appear in routes, associated with their non-empty list
+     * of possible cards collections
+     */
+    public Map<Route, List<SortedBag<Card>>> claimableRoutes(List<Route> routes, Collection<Route> claimedRoutes) {
+        Set<Route> claimed = new HashSet<>(claimedRoutes);
+        int locomotiveCount = hand.countOf(Card.LOCOMOTIVE);
+        int[] colorCounts = new int[Color.COUNT];
+        int maxColorCount = 0;
+        for (Color color : Color.ALL) {
+            colorCounts[color.ordinal()] = hand.countOf(Card.of(color));
+            maxColorCount = Math.max(maxColorCount, colorCounts[color.ordinal()]);
+        }
+
+        Map<Route, List<SortedBag<Card>>> claimableRoutes = new LinkedHashMap<>();
+        for (Route route : routes) {
+            if(route.length() > carCount() || claimed.contains(route))
+                continue;
+
+            int usableCount = (route.color() == null) ? maxColorCount : colorCounts[route.color().ordinal()];
+            if(route.level() == Route.Level.UNDERGROUND)
+                usableCount += locomotiveCount;
+            if(usableCount < route.length())
+                continue;
+
+            List<SortedBag<Card>> claimCards = claimCardsInHand(route);
+            if(!claimCards.isEmpty())
+                claimableRoutes.put(route, claimCards);
+        }
+        return Collections.unmodifiableMap(claimableRoutes);
+    }
+
+    private List<SortedBag<Card>> claimCardsInHand(Route route) {
+        List<SortedBag<Card>> allClaimCards = route.possibleClaimCards();
+        List<CardBag> allClaimCardBags = route.possibleClaimCardBags();
+        List<SortedBag<Card>> possibleClaimCards = new ArrayList<>();
+        for (int i = 0; i < allClaimCards.size(); i++) {
+            if(hand.contains(allClaimCardBags.get(i)))
+                possibleClaimCards.add(allClaimCards.get(i));
         }
         return possibleClaimCards;
     }
@@ -121,29 +230,60 @@ public final class PlayerState extends PublicPlayerState {
      *                                  or if the set of cards drawn does not contain exactly 3 cards
      */
     public List<SortedBag<Card>> possibleAdditionalCards(int additionalCardsCount, SortedBag<Card> initialCards, SortedBag<Card> drawnCards) {
-        Preconditions.checkArgument(additionalCardsCount >= 1 & additionalCardsCount <= 3 & !initialCards.isEmpty() & initialCards.toSet().size() <= 2 & drawnCards.size() == 3);
+        checkAdditionalCardsArguments(additionalCardsCount, initialCards, drawnCards);
 
-        List<Card> neededCards = new LinkedList<>(cards.toList());
-        Color colorOfPlayedCards = null;
-        for (Card unusedCard : initialCards) {
-            neededCards.remove(unusedCard);
-            if(unusedCard.color() != null) {
-                colorOfPlayedCards = unusedCard.color();
-            }
-        }
+        // The additional cards are made of cards of the color of the initial cards, if any, and of locomotives:
+        // the options are thus given by their number of locomotives, in increasing order.
+        Card colorCard = colorCardOf(initialCards);
+        int colorCount = (colorCard == null) ? 0 : remainingCount(colorCard, initialCards);
+        int locomotiveCount = remainingCount(Card.LOCOMOTIVE, initialCards);
 
-        List<Card> finalCards = new LinkedList<>();
-        for (Card addedCard : neededCards) {
-            if(addedCard.equals(Card.LOCOMOTIVE) || addedCard.color().equals(colorOfPlayedCards))
-                finalCards.add(addedCard);
+        List<SortedBag<Card>> options = new ArrayList<>();
+        int maxLocomotiveCount = Math.min(additionalCardsCount, locomotiveCount);
+        for (int locomotives = Math.max(0, additionalCardsCount - colorCount); locomotives <= maxLocomotiveCount; locomotives++) {
+            options.add((colorCard == null)
+                    ? SortedBag.of(locomotives, Card.LOCOMOTIVE)
+                    : SortedBag.of(additionalCardsCount - locomotives, colorCard, locomotives, Card.LOCOMOTIVE));
         }
+        return options;
+    }
 
-        if(finalCards.isEmpty() || finalCards.size() < additionalCardsCount)
-            return List.of();
+    /**
+     * Returns the number of sets of cards the player could use to take a tunnel, that is the size of the list
+     * returned by possibleAdditionalCards, without building it; the tunnel can be paid iff it is strictly positive.
+     *
+     * @param additionalCardsCount the number of additional cards
+     * @param initialCards         the initial cards of the player
+     * @param drawnCards           the drawn cards.
+     * @return the number of sets of cards the player could use to take a tunnel
+     * @throws IllegalArgumentException if the number of additional cards is not between 1 and 3 (included),
+     *                                  if the set of initial cards is empty or contains more than 2 different types of cards,
+     *                                  or if the set of cards drawn does not contain exactly 3 cards
+     */
+    public int possibleAdditionalCardsCount(int additionalCardsCount, SortedBag<Card> initialCards, SortedBag<Card> drawnCards) {
+        checkAdditionalCardsArguments(additionalCardsCount, initialCards, drawnCards);
 
-        List<SortedBag<Card>> myList = new ArrayList<>(SortedBag.of(finalCards).subsetsOfSize(additionalCardsCount));
-        myList.sort(Comparator.comparingInt(cs -> cs.countOf(Card.LOCOMOTIVE)));
-        return myList;
+        Card colorCard = colorCardOf(initialCards);
+        int colorCount = (colorCard == null) ? 0 : remainingCount(colorCard, initialCards);
+        int locomotiveCount = remainingCount(Card.LOCOMOTIVE, initialCards);
+        return Math.max(0, Math.min(additionalCardsCount, locomotiveCount) - Math.max(0, additionalCardsCount - colorCount) + 1);
+    }
+
+    private static void checkAdditionalCardsArguments(int additionalCardsCount, SortedBag<Card> initialCards, SortedBag<Card> drawnCards) {
+        Preconditions.checkArgument(additionalCardsCount >= 1 & additionalCardsCount <= 3 & !initialCards.isEmpty() & initialCards.toSet().size() <= 2 & drawnCards.size() == 3);
+    }
+
+    private int remainingCount(Card card, SortedBag<Card> usedCards) {
+        return Math.max(0, hand.countOf(card) - usedCards.countOf(card));
+    }
+
+    // Returns the card of the color of the given cards, or null if they are all locomotives.
+    private static Card colorCardOf(SortedBag<Card> cards) {
+        for (Card card : cards) {
+            if(card.color() != null)
+                return card;
+        }
+        return null;
     }
 
     /**
@@ -156,7 +296,17 @@ public final class PlayerState extends PublicPlayerState {
     public PlayerState withClaimedRoute(Route route, SortedBag<Card> claimCards) {
         List<Route> routes = new LinkedList<>(routes());
         routes.add(route);
-        return new PlayerState(tickets, cards.difference(claimCards), routes);
+        return new PlayerState(tickets, hand.difference(CardBag.of(claimCards)), routes, longestTrail.withRoute(route),
+                connectivity.withConnected(route.station1(), route.station2()), routesAndTicketsKey ^ Zobrist.route(route));
+    }
+
+    /**
+     * Returns the longest trail of the player's network, updated each time the player claims a road.
+     *
+     * @return the longest trail of the player's network
+     */
+    public Trail longestTrail() {
+        return longestTrail.longest();
     }
 
     /**
@@ -165,26 +315,32 @@ public final class PlayerState extends PublicPlayerState {
      * @return the number of points obtained with the tickets
      */
     public int ticketPoints() {
-        int maxId = 0;
         int ticketPoints = 0;
-        for (Route route : routes()) {
-            int maxStationsId = Math.max(route.station1().id(), route.station2().id());
-            if(maxStationsId > maxId)
-                maxId = maxStationsId;
-        }
-
-        StationPartition.Builder partition = new StationPartition.Builder(maxId + 1);
-
-        for (Route route : routes()) {
-            partition.connect(route.station1(), route.station2());
-        }
-        StationPartition newPartition = partition.build();
         for (Ticket ticket : tickets) {
-            ticketPoints += ticket.points(newPartition);
+            ticketPoints += ticket.points(connectivity);
         }
         return ticketPoints;
     }
 
+    /**
+     * Returns the connectivity of the player's network, updated each time the player claims a road.
+     *
+     * @return the connectivity of the player's network
+     */
+    public StationConnectivity connectivity() {
+        return connectivity;
+    }
+
+    /**
+     * Returns the Zobrist key of the state, which only depends on the tickets, cards and roads of the player,
+     * and not on the order in which they were obtained.
+     *
+     * @return the Zobrist key of the state
+     */
+    long zobristKey() {
+        return zobristKey;
+    }
+
     /**
      * Returns the total number of points.
      *
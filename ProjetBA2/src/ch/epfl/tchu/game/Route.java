@@ -17,6 +17,11 @@ public final class Route {
         UNDERGROUND,
     }
 
+    // The sets of claim cards only depend on the length, level and color of the route:
+    // they are computed once for every combination, at the index given by claimCardsIndex.
+    private static final List<List<SortedBag<Card>>> CLAIM_CARDS = computeAllClaimCards();
+    private static final List<List<CardBag>> CLAIM_CARD_BAGS = computeAllClaimCardBags();
+
     private Station station1;
     private Station station2;
     private String id;
@@ -138,28 +143,67 @@ public final class Route {
 
     /**
      * returns the list of all the sets of cards that could be played to take over the road,
-     * sorted in ascending order of number of locomotive cards, then by color
+     * sorted in ascending order of number of locomotive cards, then by color;
+     * the list is immutable and shared by all the routes having the same length, level and color
      *
      * @return the list of all the sets of cards that could be played to take over the road
      */
     public List<SortedBag<Card>> possibleClaimCards() {
-        if(level == Level.OVERGROUND)
-            return (color == null) ? computeCombinationOverground(Card.CARS) : computeCombinationOverground(List.of(Card.of(color)));
-        else
-            return (color == null) ? computeCombinationUnderground(Card.CARS) : computeCombinationUnderground(List.of(Card.of(color)));
+        return CLAIM_CARDS.get(claimCardsIndex(length, level, color));
+    }
+
+    /**
+     * returns the same sets of cards as possibleClaimCards, in the same order, as card bags
+     *
+     * @return the list of all the sets of cards that could be played to take over the road, as card bags
+     */
+    List<CardBag> possibleClaimCardBags() {
+        return CLAIM_CARD_BAGS.get(claimCardsIndex(length, level, color));
+    }
+
+    private static int claimCardsIndex(int length, Level level, Color color) {
+        int colorIndex = (color == null) ? Color.COUNT : color.ordinal();
+        return ((length - MIN_ROUTE_LENGTH) * Level.values().length + level.ordinal()) * (Color.COUNT + 1) + colorIndex;
+    }
+
+    private static List<List<SortedBag<Card>>> computeAllClaimCards() {
+        List<List<SortedBag<Card>>> allClaimCards = new ArrayList<>();
+        for (int length = MIN_ROUTE_LENGTH; length <= MAX_ROUTE_LENGTH; length++) {
+            for (Level level : Level.values()) {
+                for (int colorIndex = 0; colorIndex <= Color.COUNT; colorIndex++) {
+                    List<Card> cards = (colorIndex == Color.COUNT) ? Card.CARS : List.of(Card.of(Color.ALL.get(colorIndex)));
+                    allClaimCards.add(List.copyOf((level == Level.OVERGROUND)
+                            ? computeCombinationOverground(length, cards)
+                            : computeCombinationUnderground(length, cards)));
+                }
+            }
+        }
+        return List.copyOf(allClaimCards);
+    }
+
+    private static List<List<CardBag>> computeAllClaimCardBags() {
+        List<List<CardBag>> allClaimCardBags = new ArrayList<>();
+        for (List<SortedBag<Card>> claimCards : CLAIM_CARDS) {
+            List<CardBag> claimCardBags = new ArrayList<>();
+            for (SortedBag<Card> cards : claimCards)
+                claimCardBags.add(CardBag.of(cards));
+            allClaimCardBags.add(List.copyOf(claimCardBags));
+        }
+        return List.copyOf(allClaimCardBags);
     }
 
     /**
-     * returns the list of all sets of cards that could be played to (attempt to) grab the UNDERGROUND
+     * returns the list of all sets of cards that could be played to (attempt to) grab an UNDERGROUND of given length
      *
+     * @param length     the length of the UNDERGROUND
      * @param listOfCard list of cards depending on the color of the UNDERGROUND
      * @return the list of all sets of cards that could be played to (attempt to) grab the UNDERGROUND
      */
-    private ArrayList<SortedBag<Card>> computeCombinationUnderground(List<Card> listOfCard) {
+    private static ArrayList<SortedBag<Card>> computeCombinationUnderground(int length, List<Card> listOfCard) {
         ArrayList<SortedBag<Card>> listOfAllTheCards = new ArrayList<SortedBag<Card>>();
         for (int locomotiveCount = 0; locomotiveCount < length; locomotiveCount++) {
             for (Card card : listOfCard) {
-                listOfAllTheCards.add(SortedBag.of(length - locomotiveCount, card).union(SortedBag.of(locomotiveCount, Card.LOCOMOTIVE)));
+                listOfAllTheCards.add(SortedBag.of(length - locomotiveCount, card, locomotiveCount, Card.LOCOMOTIVE));
             }
         }
         listOfAllTheCards.add(SortedBag.of(length, Card.LOCOMOTIVE));
@@ -167,12 +211,13 @@ public final class Route {
     }
 
     /**
-     * returns the list of all sets of cards that could be played to (attempt to) grab the OVERGROUND
+     * returns the list of all sets of cards that could be played to (attempt to) grab an OVERGROUND of given length
      *
+     * @param length     the length of the OVERGROUND
      * @param listOfCard list of cards depending on the color of the OVERGROUND
      * @return the list of all sets of cards that could be played to (attempt to) grab the OVERGROUND
      */
-    private ArrayList<SortedBag<Card>> computeCombinationOverground(List<Card> listOfCard) {
+    private static ArrayList<SortedBag<Card>> computeCombinationOverground(int length, List<Card> listOfCard) {
         ArrayList<SortedBag<Card>> listOfAllTheCards = new ArrayList<SortedBag<Card>>();
         for (Card card : listOfCard) {
             listOfAllTheCards.add(SortedBag.of(length, card));
@@ -0,0 +1,21 @@
+package ch.epfl.tchu.game;
+
+/**
+ * Immutable connectivity given by a partition of the stations, in which each sub-set is designated by an integer,
+ * so that the stations connected to a given one can be found without comparing them with it one by one.
+ * As the partition never changes, what is computed from it can be cached as long as the same instance is used.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+interface StationComponents extends StationConnectivity {
+
+    /**
+     * returns the integer designating the sub-set containing the station of given identity,
+     * the same for two stations iff they are connected
+     *
+     * @param stationId the identity of the station
+     * @return the integer designating the sub-set containing the station
+     */
+    int component(int stationId);
+}
@@ -8,7 +8,7 @@ import ch.epfl.tchu.Preconditions;
  * @author Tamra Antoun(324875)
  * @author Ronan Tanios(325510)
  */
-public final class StationPartition implements StationConnectivity {
+public final class StationPartition implements StationComponents {
 
     private final int[] partition;
 
@@ -23,11 +23,18 @@ public final class StationPartition implements StationConnectivity {
         return s1.id() == s2.id();
     }
 
+    @Override
+    public int component(int stationId) {
+        // The stations out of the partition are alone in their sub-set, designated by a number no representative has
+        return (stationId < partition.length) ? partition[stationId] : partition.length + stationId;
+    }
+
 
     public final static class Builder {
 
         private int stationCount;
         private int[] partitionB;
+        private int[] subsetSizes;
 
         /**
          * construct a partition builder of a set of stations whose identity is between 0 (included) and stationCount (excluded)
@@ -39,14 +46,16 @@ public final class StationPartition implements StationConnectivity {
             Preconditions.checkArgument(stationCount >= 0);
             this.stationCount = stationCount;
             partitionB = new int[stationCount];
+            subsetSizes = new int[stationCount];
             for (int i = 0; i < stationCount; i++) {
                 partitionB[i] = i;
+                subsetSizes[i] = 1;
             }
         }
 
         /**
          * return this Builder with the sub-sets containing the two stations passed in argument joined,
-         * and "electing" one of the two representatives as representative of the joined sub-assembly
+         * and "electing" the representative of the larger sub-set as representative of the joined sub-assembly
          *
          * @param s1 first Station
          * @param s2 second Station
@@ -54,13 +63,16 @@ public final class StationPartition implements StationConnectivity {
          * and "electing" one of the two representatives as representative of the joined sub-assembly
          */
         public Builder connect(Station s1, Station s2) {
-            if(representative(s1.id()) != representative(s2.id())) {
-                if(s2.id() == partitionB[s2.id()])
-                    partitionB[s2.id()] = s1.id();
-                else if(s1.id() == partitionB[s1.id()])
-                    partitionB[s1.id()] = s2.id();
-                else
-                    partitionB[representative(s2.id())] = s1.id();
+            int representative1 = representative(s1.id());
+            int representative2 = representative(s2.id());
+            if(representative1 != representative2) {
+                if(subsetSizes[representative1] < subsetSizes[representative2]) {
+                    int smaller = representative1;
+                    representative1 = representative2;
+                    representative2 = smaller;
+                }
+                partitionB[representative2] = representative1;
+                subsetSizes[representative1] += subsetSizes[representative2];
             }
             return this;
         }
@@ -77,13 +89,18 @@ public final class StationPartition implements StationConnectivity {
         }
 
         /**
-         * returns the representative's id of the sub-set containing the station given
+         * returns the representative's id of the sub-set containing the station given,
+         * halving the path from the station to its representative on the way
          *
          * @param id station id
          * @return the representative's id of the sub-set containing the station given
          */
         private int representative(int id) {
-            return (partitionB[id] == id) ? id : representative(partitionB[id]);
+            while (partitionB[id] != id) {
+                partitionB[id] = partitionB[partitionB[id]];
+                id = partitionB[id];
+            }
+            return id;
         }
 
     }
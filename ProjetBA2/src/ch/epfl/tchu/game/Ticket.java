@@ -1,19 +1,31 @@
 package ch.epfl.tchu.game;
 
 import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 /**
  * A Ticket
  *
+ * To compute its points quickly for a partition of the stations, its trips are grouped by departure station and
+ * sorted by decreasing points, so that the sub-set of each departure is looked up once and that the search stops
+ * at the first connected trip. The points are cached for the last partition they were computed for.
+ *
  * @author Ronan Tanios(325510)
  * @author Tamra Antoun(324875)
  */
 public final class Ticket implements Comparable<Ticket> {
     private final List<Trip> trips;
     private final String representation;
-
+    private final int[] departures;
+    private final int[][] arrivals;
+    private final int[][] arrivalPoints;
+    private final int minPoints;
+    private volatile CachedPoints cachedPoints;
 
     /**
      * construct a ticket made up of the list of station given
@@ -32,8 +44,32 @@ public final class Ticket implements Comparable<Ticket> {
                 throw new IllegalArgumentException();
         }
 
-        this.trips = trips;
+        this.trips = List.copyOf(trips);
         representation = computeText(departureStation, trips);
+
+        Map<Integer, List<Trip>> tripsByDeparture = new LinkedHashMap<>();
+        int minPoints = Integer.MAX_VALUE;
+        for (Trip trip : this.trips) {
+            tripsByDeparture.computeIfAbsent(trip.from().id(), id -> new ArrayList<>()).add(trip);
+            minPoints = Math.min(minPoints, trip.points());
+        }
+        this.minPoints = minPoints;
+        departures = new int[tripsByDeparture.size()];
+        arrivals = new int[departures.length][];
+        arrivalPoints = new int[departures.length][];
+        int group = 0;
+        for (Map.Entry<Integer, List<Trip>> entry : tripsByDeparture.entrySet()) {
+            List<Trip> groupTrips = new ArrayList<>(entry.getValue());
+            groupTrips.sort(Comparator.comparingInt(trip -> -trip.points()));
+            departures[group] = entry.getKey();
+            arrivals[group] = new int[groupTrips.size()];
+            arrivalPoints[group] = new int[groupTrips.size()];
+            for (int i = 0; i < groupTrips.size(); i++) {
+                arrivals[group][i] = groupTrips.get(i).to().id();
+                arrivalPoints[group][i] = groupTrips.get(i).points();
+            }
+            group++;
+        }
     }
 
     /**
@@ -77,6 +113,15 @@ public final class Ticket implements Comparable<Ticket> {
         }
     }
 
+    /**
+     * returns the trips of the ticket
+     *
+     * @return the trips of the ticket
+     */
+    public List<Trip> trips() {
+        return trips;
+    }
+
     /**
      * returns the number of points the ticket is worth
      *
@@ -84,12 +129,38 @@ public final class Ticket implements Comparable<Ticket> {
      * @return the number of points the ticket is worth
      */
     public int points(StationConnectivity connectivity) {
-        int points = trips.get(0).points(connectivity);
-        for (Trip trip : this.trips) {
-            if(points < trip.points(connectivity)) {
-                points = trip.points(connectivity);
+        if(connectivity instanceof StationComponents)
+            return points((StationComponents) connectivity);
+
+        int points = Integer.MIN_VALUE;
+        for (Trip trip : trips)
+            points = Math.max(points, trip.points(connectivity));
+        return points;
+    }
+
+    /**
+     * returns the number of points the ticket is worth for the given partition, computed once per partition
+     *
+     * @param components partition of the stations connected by the network of the player
+     * @return the number of points the ticket is worth
+     */
+    private int points(StationComponents components) {
+        CachedPoints cached = cachedPoints;
+        if(cached != null && cached.components == components)
+            return cached.points;
+
+        // With no trip connected, the ticket costs the points of its cheapest trip
+        int points = -minPoints;
+        for (int group = 0; group < departures.length; group++) {
+            int departure = components.component(departures[group]);
+            for (int i = 0; i < arrivals[group].length && arrivalPoints[group][i] > points; i++) {
+                if(components.component(arrivals[group][i]) == departure) {
+                    points = arrivalPoints[group][i];
+                    break;
+                }
             }
         }
+        cachedPoints = new CachedPoints(components, points);
         return points;
     }
 
@@ -117,5 +188,18 @@ public final class Ticket implements Comparable<Ticket> {
         return this.text().compareTo(that.text());
     }
 
+    /**
+     * Points of the ticket for a given partition, replaced as a whole so that it can be shared by several threads
+     */
+    private static final class CachedPoints {
+        private final StationComponents components;
+        private final int points;
+
+        private CachedPoints(StationComponents components, int points) {
+            this.components = components;
+            this.points = points;
+        }
+    }
+
 
 }
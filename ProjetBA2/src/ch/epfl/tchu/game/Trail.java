@@ -1,7 +1,10 @@
 package ch.epfl.tchu.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Tamara Antoun(324875)
@@ -11,12 +14,19 @@ public final class Trail {
     private final Station station1;
     private final Station station2;
     private final List<Route> routes;
+    private final int length;
 
     private Trail(Station station1, Station station2, List<Route> routes) {
         this.station1 = station1;
         this.station2 = station2;
         this.routes = routes;
-
+        int length = 0;
+        if(routes != null){
+            for (Route route : routes) {
+                length += route.length();
+            }
+        }
+        this.length = length;
     }
 
     /**
@@ -26,36 +36,7 @@ public final class Trail {
      * @return the longest path of the network consisting of the given routes
      */
     public static Trail longest(List<Route> routes) {
-        Trail longestTrail = new Trail(null, null, null);
-        int longestLength = 0;
-
-        ArrayList<Trail> trailList = new ArrayList<Trail>();
-        for (Route route : routes) {
-            trailList.add(new Trail(route.station1(), route.station2(), List.of(route)));
-            trailList.add(new Trail(route.station2(), route.station1(), List.of(route)));
-        }
-
-        while (!trailList.isEmpty()) {
-            ArrayList<Trail> tempTrailList = new ArrayList<Trail>();
-            for (Trail trail : trailList) {
-                for (Route route : routes) {
-                    if (!trail.routes.contains(route) && (trail.station2().equals(route.station2()) || trail.station2().equals(route.station1()))) {
-                        List<Route> newRoute = new ArrayList<Route>(trail.routes);
-                        newRoute.add(route);
-                        tempTrailList.add(new Trail(trail.station1, route.stationOpposite(trail.station2), newRoute));
-                    }
-                }
-            }
-
-            for (Trail trail : trailList) {
-                if (trail.length() > longestLength) {
-                    longestLength = trail.length();
-                    longestTrail = trail;
-                }
-            }
-            trailList = tempTrailList;
-        }
-        return longestTrail;
+        return new LongestTrailSearch(routes).run();
     }
 
     /**
@@ -64,12 +45,6 @@ public final class Trail {
      * @return the trail's length
      */
     public int length() {
-        int length = 0;
-        if(routes != null){
-            for (Route route : routes) {
-                length += route.length();
-            }
-        }
         return length;
     }
 
@@ -115,4 +90,167 @@ public final class Trail {
         return text.toString();
     }
 
+    /**
+     * Depth-first search of the longest trail of a network.
+     * The routes are indexed by station, the routes already used by the current trail are kept in a bit mask
+     * and only the best trail found is materialized. A branch is abandoned as soon as the length of the
+     * routes not yet used in its connected component cannot make it longer than the best trail found so far.
+     */
+    private static final class LongestTrailSearch {
+        private final List<Route> routes;
+        private final List<Station> stations = new ArrayList<>();
+        private final int[] routeLengths;
+        private final int[][] routeEnds;
+        private final int[][] adjacentRoutes;
+        private final long[] usedRoutes;
+        private final int[] path;
+
+        private int remainingLength;
+        private int bestLength;
+        private int bestStart;
+        private int bestEnd;
+        private int[] bestPath = new int[0];
+
+        private LongestTrailSearch(List<Route> routes) {
+            this.routes = routes;
+            int routeCount = routes.size();
+            routeLengths = new int[routeCount];
+            routeEnds = new int[routeCount][];
+            usedRoutes = new long[(routeCount + Long.SIZE - 1) / Long.SIZE];
+            path = new int[routeCount];
+
+            Map<Station, Integer> stationIndex = new HashMap<>();
+            int[] degrees = new int[2 * routeCount];
+            for (int r = 0; r < routeCount; r++) {
+                Route route = routes.get(r);
+                int s1 = indexOf(route.station1(), stationIndex);
+                int s2 = indexOf(route.station2(), stationIndex);
+                routeLengths[r] = route.length();
+                routeEnds[r] = new int[]{s1, s2};
+                degrees[s1]++;
+                degrees[s2]++;
+            }
+
+            adjacentRoutes = new int[stations.size()][];
+            for (int s = 0; s < stations.size(); s++)
+                adjacentRoutes[s] = new int[degrees[s]];
+            int[] filled = new int[stations.size()];
+            for (int r = 0; r < routeCount; r++) {
+                for (int s : routeEnds[r])
+                    adjacentRoutes[s][filled[s]++] = r;
+            }
+        }
+
+        private int indexOf(Station station, Map<Station, Integer> stationIndex) {
+            Integer index = stationIndex.get(station);
+            if(index == null) {
+                index = stations.size();
+                stationIndex.put(station, index);
+                stations.add(station);
+            }
+            return index;
+        }
+
+        /**
+         * returns the longest trail of the network, or the empty trail if there is no route
+         *
+         * @return the longest trail of the network
+         */
+        private Trail run() {
+            boolean[] visited = new boolean[stations.size()];
+            for (int s = 0; s < stations.size(); s++) {
+                if(!visited[s])
+                    searchComponent(componentOf(s, visited));
+            }
+
+            if(bestLength == 0)
+                return new Trail(null, null, null);
+
+            List<Route> trailRoutes = new ArrayList<>(bestPath.length);
+            for (int r : bestPath)
+                trailRoutes.add(routes.get(r));
+            return new Trail(stations.get(bestStart), stations.get(bestEnd), List.copyOf(trailRoutes));
+        }
+
+        /**
+         * returns the stations of the connected component containing the given station,
+         * those with an odd number of routes first, since a longest trail tends to start from them
+         *
+         * @param start   a station of the component
+         * @param visited stations already assigned to a component, updated by this method
+         * @return the stations of the connected component containing the given station
+         */
+        private List<Integer> componentOf(int start, boolean[] visited) {
+            List<Integer> component = new ArrayList<>();
+            visited[start] = true;
+            component.add(start);
+            for (int i = 0; i < component.size(); i++) {
+                for (int r : adjacentRoutes[component.get(i)]) {
+                    int other = opposite(r, component.get(i));
+                    if(!visited[other]) {
+                        visited[other] = true;
+                        component.add(other);
+                    }
+                }
+            }
+            component.sort((s1, s2) -> Integer.compare(adjacentRoutes[s2].length % 2, adjacentRoutes[s1].length % 2));
+            return component;
+        }
+
+        private void searchComponent(List<Integer> component) {
+            int componentLength = 0;
+            for (int s : component) {
+                for (int r : adjacentRoutes[s])
+                    componentLength += routeLengths[r];
+            }
+            // every route has been counted once from each of its stations
+            componentLength /= 2;
+            if(componentLength <= bestLength)
+                return;
+
+            for (int start : component) {
+                remainingLength = componentLength;
+                extend(start, start, 0, 0);
+                if(bestLength == componentLength)
+                    return;
+            }
+        }
+
+        private void extend(int start, int station, int depth, int length) {
+            if(length > bestLength) {
+                bestLength = length;
+                bestStart = start;
+                bestEnd = station;
+                bestPath = Arrays.copyOf(path, depth);
+            }
+            if(length + remainingLength <= bestLength)
+                return;
+
+            for (int r : adjacentRoutes[station]) {
+                if(isUsed(r))
+                    continue;
+                setUsed(r, true);
+                remainingLength -= routeLengths[r];
+                path[depth] = r;
+                extend(start, opposite(r, station), depth + 1, length + routeLengths[r]);
+                remainingLength += routeLengths[r];
+                setUsed(r, false);
+            }
+        }
+
+        private int opposite(int route, int station) {
+            return (routeEnds[route][0] == station) ? routeEnds[route][1] : routeEnds[route][0];
+        }
+
+        private boolean isUsed(int route) {
+            return (usedRoutes[route / Long.SIZE] & (1L << route)) != 0;
+        }
+
+        private void setUsed(int route, boolean used) {
+            if(used)
+                usedRoutes[route / Long.SIZE] |= 1L << route;
+            else
+                usedRoutes[route / Long.SIZE] &= ~(1L << route);
+        }
+    }
 }
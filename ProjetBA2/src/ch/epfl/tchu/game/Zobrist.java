@@ -0,0 +1,161 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+
+import java.util.List;
+
+/**
+ * Random keys of the elements of a game state, whose exclusive or gives the Zobrist key of the state.
+ * Adding or removing an element to a state only requires xoring its key with the key of the state,
+ * so the states maintain their key in constant time on each transition.
+ *
+ * The keys of the routes and tickets are derived from their identity and text, so that they do not depend
+ * on the map, and the keys of the sizes of the decks from the sizes themselves;
+ * the other keys are drawn once from a fixed seed.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class Zobrist {
+
+    private static final long SEED = 0x7C4A_D2E1_5B39_8F06L;
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private static final long ROUTE_SALT = 0x1L;
+    private static final long TICKET_SALT = 0x2L;
+    private static final long DECK_SIZE_SALT = 0x3L;
+    private static final long TICKETS_COUNT_SALT = 0x4L;
+
+    private static final long[][] HAND_CARDS = randomKeys(1, Card.COUNT, CardBag.MAX_COUNT + 1);
+    private static final long[][] DISCARD_CARDS = randomKeys(2, Card.COUNT, CardBag.MAX_COUNT + 1);
+    private static final long[][] FACE_UP_CARDS = randomKeys(3, Constants.FACE_UP_CARDS_COUNT, Card.COUNT);
+    private static final long[] CURRENT_PLAYERS = randomKeys(4, 1, PlayerId.COUNT)[0];
+    private static final long[] LAST_PLAYERS = randomKeys(5, 1, PlayerId.COUNT)[0];
+
+    private Zobrist() {
+    }
+
+    /**
+     * returns the key of the given route, owned by a player
+     */
+    static long route(Route route) {
+        return mix(route.id().hashCode() * GOLDEN_GAMMA + ROUTE_SALT);
+    }
+
+    /**
+     * returns the key of the given routes, owned by a player
+     */
+    static long routes(List<Route> routes) {
+        long key = 0L;
+        for (Route route : routes)
+            key ^= route(route);
+        return key;
+    }
+
+    /**
+     * returns the key of the given copy (0 for the first one) of the given ticket, held by a player
+     */
+    static long ticket(Ticket ticket, int copy) {
+        return mix((ticket.text().hashCode() * GOLDEN_GAMMA + copy) * GOLDEN_GAMMA + TICKET_SALT);
+    }
+
+    /**
+     * returns the key of the tickets added to the tickets held by a player
+     */
+    static long addedTickets(SortedBag<Ticket> heldTickets, SortedBag<Ticket> addedTickets) {
+        long key = 0L;
+        for (Ticket ticket : addedTickets.toSet()) {
+            int heldCount = heldTickets.countOf(ticket);
+            for (int copy = heldCount; copy < heldCount + addedTickets.countOf(ticket); copy++)
+                key ^= ticket(ticket, copy);
+        }
+        return key;
+    }
+
+    /**
+     * returns the key of the given cards, in the hand of a player
+     */
+    static long hand(CardBag cards) {
+        return cards(HAND_CARDS, cards);
+    }
+
+    /**
+     * returns the key of the given discard pile
+     */
+    static long discards(CardBag cards) {
+        return cards(DISCARD_CARDS, cards);
+    }
+
+    /**
+     * returns the key of the given card, face up in the given slot
+     */
+    static long faceUpCard(int slot, Card card) {
+        return FACE_UP_CARDS[slot][card.ordinal()];
+    }
+
+    /**
+     * returns the key of the size of the deck of cards
+     */
+    static long deckSize(int size) {
+        return mix(size * GOLDEN_GAMMA + DECK_SIZE_SALT);
+    }
+
+    /**
+     * returns the key of the size of the deck of tickets
+     */
+    static long ticketsCount(int count) {
+        return mix(count * GOLDEN_GAMMA + TICKETS_COUNT_SALT);
+    }
+
+    /**
+     * returns the key of the current player
+     */
+    static long currentPlayer(PlayerId playerId) {
+        return CURRENT_PLAYERS[playerId.ordinal()];
+    }
+
+    /**
+     * returns the key of the last player, 0 if it is not known yet
+     */
+    static long lastPlayer(PlayerId playerId) {
+        return (playerId == null) ? 0L : LAST_PLAYERS[playerId.ordinal()];
+    }
+
+    /**
+     * returns the key of the state of the given player, whose key does not depend on its identity
+     */
+    static long player(PlayerId playerId, long playerStateKey) {
+        // A rotation keeps the keys independent, and distinguishes the elements owned by each player.
+        return Long.rotateLeft(playerStateKey, playerId.ordinal() * (Long.SIZE / PlayerId.COUNT));
+    }
+
+    private static long cards(long[][] keys, CardBag cards) {
+        long key = 0L;
+        for (Card card : Card.ALL) {
+            int count = cards.countOf(card);
+            if(count > 0)
+                key ^= keys[card.ordinal()][count];
+        }
+        return key;
+    }
+
+    // Draws the keys of a table from a SplitMix64 sequence of its own.
+    private static long[][] randomKeys(int table, int rows, int columns) {
+        long[][] keys = new long[rows][columns];
+        long seed = mix(SEED + table);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                seed += GOLDEN_GAMMA;
+                keys[row][column] = mix(seed);
+            }
+        }
+        return keys;
+    }
+
+    // Finalizer of the SplitMix64 generator.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
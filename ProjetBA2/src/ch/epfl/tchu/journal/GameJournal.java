@@ -0,0 +1,303 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Append-only journal of the games of tCHu played on ChMap, each recorded as a GameRecord.
+ * The file starts with a header made of the magic number MAGIC and of the version of the format, on four bytes each,
+ * followed by the records of the games, one after the other.
+ *
+ * The decisions of the players are recorded while the game is played, in memory, and the record of a game is
+ * appended to the file at once when the game is over, so that an interrupted game leaves nothing in the journal.
+ * Several games can be played at the same time with the same journal.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class GameJournal implements Closeable {
+
+    /**
+     * The magic number starting a journal, "tCHJ" in ASCII, and the version of its format
+     */
+    public static final int MAGIC = 0x7443484A;
+    public static final int VERSION = 1;
+
+    /**
+     * The length of the header of a journal, in bytes
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final Map<Route, Integer> ROUTE_INDICES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < GameRecord.ROUTES.size(); i++)
+            ROUTE_INDICES.put(GameRecord.ROUTES.get(i), i);
+    }
+
+    private final FileChannel channel;
+
+    private GameJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * opens the journal of given path, creating it if it does not exist, to append records to it
+     *
+     * @param path the path of the journal
+     * @return the journal
+     * @throws IOException if the file cannot be opened, or if it is not a journal of this version
+     */
+    public static GameJournal open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if(channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining())
+                    channel.write(header);
+            } else {
+                checkHeader(channel);
+            }
+            channel.position(channel.size());
+            return new GameJournal(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * reads the header of the journal opened by the given channel, and checks it
+     *
+     * @throws IOException if the header cannot be read, or is not the one of a journal of this version
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if(channel.read(header, header.position()) < 0)
+                throw new IOException("Truncated journal header");
+        }
+        if(header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION)
+            throw new IOException("Not a journal of version " + VERSION);
+    }
+
+    /**
+     * plays a game on ChMap between the given players, whose random generator is initialized with the given seed,
+     * and appends its record to the journal
+     *
+     * @param players     the players
+     * @param playerNames the names of the players
+     * @param seed        the seed of the random generator of the game
+     * @return the result of the game
+     * @throws IOException if the record cannot be written
+     */
+    public Game.Result play(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, long seed) throws IOException {
+        Recorder recorder = new Recorder(seed);
+        Map<PlayerId, Player> recordedPlayers = new EnumMap<>(PlayerId.class);
+        for (Map.Entry<PlayerId, Player> entry : players.entrySet())
+            recordedPlayers.put(entry.getKey(), new RecordedPlayer(entry.getKey(), entry.getValue(), recorder));
+        Game.Result result = Game.play(recordedPlayers, playerNames, GameRecord.TICKETS, new Random(seed));
+        append(recorder.record(result));
+        return result;
+    }
+
+    /**
+     * writes the records of the given buffer at the end of the journal
+     */
+    private synchronized void append(ByteBuffer records) throws IOException {
+        while (records.hasRemaining())
+            channel.write(records);
+    }
+
+    /**
+     * forces the records appended to the journal to be written to the storage device
+     *
+     * @throws IOException if the records cannot be written
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Record of a game being played, into which the players write their decisions
+     */
+    private static final class Recorder {
+        private ByteBuffer bytes = ByteBuffer.allocate(GameRecord.length(64));
+        private int turnCount;
+        private int drawnCardsCount;
+        private long lastStateKey;
+
+        private Recorder(long seed) {
+            bytes.putLong(GameRecord.SEED_OFFSET, seed);
+        }
+
+        private int turnOffset() {
+            return GameRecord.length(turnCount - 1);
+        }
+
+        private void setInitialTickets(PlayerId playerId, int positions) {
+            bytes.put(GameRecord.INITIAL_TICKETS_OFFSET + playerId.ordinal(), (byte) positions);
+        }
+
+        // The state passed to the players at the start of a turn is the state at the end of the previous one
+        private void startTurn(Player.TurnKind kind) {
+            if(turnCount > 0)
+                bytes.putLong(turnOffset() + GameRecord.STATE_KEY_OFFSET, lastStateKey);
+            turnCount++;
+            if(bytes.capacity() < GameRecord.length(turnCount)) {
+                ByteBuffer larger = ByteBuffer.allocate(2 * bytes.capacity());
+                larger.put(bytes.clear());
+                bytes = larger;
+            }
+            int offset = turnOffset();
+            bytes.put(offset + GameRecord.KIND_OFFSET, (byte) kind.ordinal());
+            bytes.putShort(offset + GameRecord.ROUTE_OFFSET, (short) -1);
+            drawnCardsCount = 0;
+        }
+
+        private void setArgument(int argument) {
+            bytes.put(turnOffset() + GameRecord.ARGUMENT_OFFSET, (byte) argument);
+        }
+
+        private void addDrawnSlot(int slot) {
+            int argument = Byte.toUnsignedInt(bytes.get(turnOffset() + GameRecord.ARGUMENT_OFFSET));
+            setArgument(argument | (slot + 1) << (drawnCardsCount++ * GameRecord.SLOT_BITS));
+        }
+
+        private void setRoute(Route route) {
+            bytes.putShort(turnOffset() + GameRecord.ROUTE_OFFSET, ROUTE_INDICES.get(route).shortValue());
+        }
+
+        private void setCards(int cardsOffset, SortedBag<Card> cards) {
+            bytes.putLong(turnOffset() + cardsOffset, CardBag.of(cards).packed());
+        }
+
+        private ByteBuffer record(Game.Result result) {
+            if(turnCount > 0)
+                bytes.putLong(turnOffset() + GameRecord.STATE_KEY_OFFSET, lastStateKey);
+            bytes.putShort(GameRecord.TURN_COUNT_OFFSET, (short) turnCount);
+            for (PlayerId playerId : PlayerId.ALL) {
+                bytes.putShort(GameRecord.POINTS_OFFSET + playerId.ordinal() * Short.BYTES, (short) result.points(playerId));
+                bytes.put(GameRecord.LONGEST_TRAIL_OFFSET + playerId.ordinal(), (byte) result.longestTrailLength(playerId));
+            }
+            return bytes.position(0).limit(GameRecord.length(turnCount));
+        }
+    }
+
+    /**
+     * Player delegating everything to another one and recording its decisions.
+     * Game gives its complete state to the players, so that the key of the state at the end of each turn is known.
+     */
+    private static final class RecordedPlayer implements Player {
+        private final PlayerId id;
+        private final Player player;
+        private final Recorder recorder;
+        private SortedBag<Ticket> initialTickets;
+
+        private RecordedPlayer(PlayerId id, Player player, Recorder recorder) {
+            this.id = id;
+            this.player = player;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            if(newState instanceof GameState)
+                recorder.lastStateKey = ((GameState) newState).zobristKey();
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            initialTickets = tickets;
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            SortedBag<Ticket> chosen = player.chooseInitialTickets();
+            recorder.setInitialTickets(id, GameRecord.positions(initialTickets, chosen));
+            return chosen;
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            TurnKind kind = player.nextTurn();
+            recorder.startTurn(kind);
+            return kind;
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            SortedBag<Ticket> chosen = player.chooseTickets(options);
+            recorder.setArgument(GameRecord.positions(options, chosen));
+            return chosen;
+        }
+
+        @Override
+        public int drawSlot() {
+            int slot = player.drawSlot();
+            recorder.addDrawnSlot(slot);
+            return slot;
+        }
+
+        @Override
+        public Route claimedRoute() {
+            Route route = player.claimedRoute();
+            recorder.setRoute(route);
+            return route;
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            SortedBag<Card> cards = player.initialClaimCards();
+            recorder.setCards(GameRecord.CLAIM_CARDS_OFFSET, cards);
+            return cards;
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            SortedBag<Card> cards = player.chooseAdditionalCards(options);
+            recorder.setCards(GameRecord.ADDITIONAL_CARDS_OFFSET, cards);
+            return cards;
+        }
+    }
+}
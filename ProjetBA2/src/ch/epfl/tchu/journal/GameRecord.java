@@ -0,0 +1,258 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Record of a game of tCHu on ChMap in a journal: the seed of its random generator, the decisions of the players
+ * and the outcome of the game, from which the game can be played again without the players.
+ *
+ * A record starts with a header of HEADER_BYTES bytes: the seed on eight bytes, the number of turns on two,
+ * the positions of the tickets kept initially by each player on one byte each, the final points of each player,
+ * longest trail bonus included, on two bytes each, and the length of the longest trail of each player on one byte each.
+ * It is followed by one entry of TURN_BYTES bytes per turn: the kind of the turn on one byte, its argument on one byte,
+ * the index of the route claimed on two bytes, the initial and the additional claim cards on eight bytes each,
+ * as packed by CardBag, and the Zobrist key of the state at the end of the turn on eight bytes.
+ * The argument of a turn drawing tickets is the set of positions of the tickets kept among the ones drawn,
+ * and the argument of a turn drawing cards the two slots drawn, plus one, on four bits each.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class GameRecord {
+
+    /**
+     * The layout of a record, in bytes
+     */
+    static final int HEADER_BYTES = 18;
+    static final int TURN_BYTES = 28;
+    static final int SEED_OFFSET = 0;
+    static final int TURN_COUNT_OFFSET = 8;
+    static final int INITIAL_TICKETS_OFFSET = 10;
+    static final int POINTS_OFFSET = 12;
+    static final int LONGEST_TRAIL_OFFSET = 16;
+    static final int KIND_OFFSET = 0;
+    static final int ARGUMENT_OFFSET = 1;
+    static final int ROUTE_OFFSET = 2;
+    static final int CLAIM_CARDS_OFFSET = 4;
+    static final int ADDITIONAL_CARDS_OFFSET = 12;
+    static final int STATE_KEY_OFFSET = 20;
+    static final int SLOT_BITS = 4;
+
+    /**
+     * The routes and tickets of the games recorded
+     */
+    static final List<Route> ROUTES = ChMap.routes();
+    static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+
+    private final ByteBuffer bytes;
+
+    /**
+     * construct the record made of the given bytes, read with absolute positions from the beginning of the buffer
+     *
+     * @param bytes the bytes of the record, exactly
+     */
+    GameRecord(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * returns the length of the record of a game having the given number of turns
+     */
+    static int length(int turnCount) {
+        return HEADER_BYTES + turnCount * TURN_BYTES;
+    }
+
+    /**
+     * returns the set of the positions, in the order of the given bag, of the tickets chosen among it
+     */
+    static int positions(SortedBag<Ticket> offered, SortedBag<Ticket> chosen) {
+        int positions = 0;
+        int position = 0;
+        for (Map.Entry<Ticket, Integer> entry : offered.toMap().entrySet()) {
+            int keptCount = chosen.countOf(entry.getKey());
+            for (int i = 0; i < entry.getValue(); i++, position++) {
+                if(i < keptCount)
+                    positions |= 1 << position;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * returns the tickets of the given bag whose positions are in the given set
+     */
+    static SortedBag<Ticket> chosen(SortedBag<Ticket> offered, int positions) {
+        SortedBag.Builder<Ticket> chosen = new SortedBag.Builder<>();
+        int position = 0;
+        for (Map.Entry<Ticket, Integer> entry : offered.toMap().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++, position++) {
+                if((positions & (1 << position)) != 0)
+                    chosen.add(entry.getKey());
+            }
+        }
+        return chosen.build();
+    }
+
+    /**
+     * returns the seed of the random generator of the game
+     *
+     * @return the seed of the game
+     */
+    public long seed() {
+        return bytes.getLong(SEED_OFFSET);
+    }
+
+    /**
+     * returns the number of turns played
+     *
+     * @return the number of turns played
+     */
+    public int turnCount() {
+        return Short.toUnsignedInt(bytes.getShort(TURN_COUNT_OFFSET));
+    }
+
+    /**
+     * returns the final number of points of the given player, longest trail bonus included
+     *
+     * @param playerId identity of the player
+     * @return the final number of points of the given player
+     */
+    public int points(PlayerId playerId) {
+        return bytes.getShort(POINTS_OFFSET + playerId.ordinal() * Short.BYTES);
+    }
+
+    /**
+     * returns the length of the longest trail of the given player at the end of the game
+     *
+     * @param playerId identity of the player
+     * @return the length of the longest trail of the given player
+     */
+    public int longestTrailLength(PlayerId playerId) {
+        return Byte.toUnsignedInt(bytes.get(LONGEST_TRAIL_OFFSET + playerId.ordinal()));
+    }
+
+    /**
+     * returns the kind of the turn of given index
+     *
+     * @param turn the index of the turn
+     * @return the kind of the turn
+     * @throws IndexOutOfBoundsException if there is no turn of given index
+     */
+    public Player.TurnKind turnKind(int turn) {
+        return Player.TurnKind.ALL.get(bytes.get(turnOffset(turn) + KIND_OFFSET));
+    }
+
+    /**
+     * returns the Zobrist key of the state of the game at the end of the turn of given index,
+     * once the next player has been designated
+     *
+     * @param turn the index of the turn
+     * @return the Zobrist key of the state at the end of the turn
+     * @throws IndexOutOfBoundsException if there is no turn of given index
+     */
+    public long stateKey(int turn) {
+        return bytes.getLong(turnOffset(turn) + STATE_KEY_OFFSET);
+    }
+
+    /**
+     * plays the game again and returns its final state
+     *
+     * @return the state of the game at its end
+     */
+    public GameState replay() {
+        return replay((state, turn) -> {});
+    }
+
+    /**
+     * plays the game again, passing the state at the end of each turn, and the index of the turn, to the given consumer,
+     * and returns its final state. The game is played through the transitions of GameState, in the order in which
+     * Game applies them, so that the random generator draws the same cards.
+     *
+     * @param turnEnds the consumer of the state at the end of each turn
+     * @return the state of the game at its end
+     */
+    public GameState replay(ObjIntConsumer<GameState> turnEnds) {
+        Objects.requireNonNull(turnEnds);
+        Random rng = new Random(seed());
+        GameState state = GameState.initial(TICKETS, rng);
+
+        SortedBag<Ticket> firstTickets = state.topTickets(Constants.INITIAL_TICKETS_COUNT);
+        state = state.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT);
+        SortedBag<Ticket> secondTickets = state.topTickets(Constants.INITIAL_TICKETS_COUNT);
+        state = state.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT);
+        state = state.withInitiallyChosenTickets(PlayerId.PLAYER_1,
+                chosen(firstTickets, bytes.get(INITIAL_TICKETS_OFFSET)));
+        state = state.withInitiallyChosenTickets(PlayerId.PLAYER_2,
+                chosen(secondTickets, bytes.get(INITIAL_TICKETS_OFFSET + 1)));
+
+        for (int turn = 0; turn < turnCount(); turn++) {
+            int offset = turnOffset(turn);
+            int argument = Byte.toUnsignedInt(bytes.get(offset + ARGUMENT_OFFSET));
+            switch (turnKind(turn)) {
+                case DRAW_TICKETS:
+                    SortedBag<Ticket> drawnTickets = state.topTickets(Math.min(Constants.IN_GAME_TICKETS_COUNT, state.ticketsCount()));
+                    state = state.withChosenAdditionalTickets(drawnTickets, chosen(drawnTickets, argument));
+                    break;
+                case DRAW_CARDS:
+                    for (int i = 0; i < 2; i++) {
+                        state = state.withCardsDeckRecreatedIfNeeded(rng);
+                        int slot = (argument >>> (i * SLOT_BITS) & ((1 << SLOT_BITS) - 1)) - 1;
+                        state = slot == Constants.DECK_SLOT ? state.withBlindlyDrawnCard() : state.withDrawnFaceUpCard(slot);
+                    }
+                    break;
+                case CLAIM_ROUTE:
+                    state = claimRoute(state, offset, rng);
+                    break;
+                default:
+                    throw new Error();
+            }
+            state = state.forNextTurn();
+            turnEnds.accept(state, turn);
+        }
+        return state;
+    }
+
+    private GameState claimRoute(GameState state, int offset, Random rng) {
+        Route route = ROUTES.get(bytes.getShort(offset + ROUTE_OFFSET));
+        SortedBag<Card> initialClaimCards = CardBag.ofPacked(bytes.getLong(offset + CLAIM_CARDS_OFFSET)).toSortedBag();
+        if(route.level() == Route.Level.OVERGROUND)
+            return state.withClaimedRoute(route, initialClaimCards);
+
+        SortedBag.Builder<Card> drawnCardsBuilder = new SortedBag.Builder<>();
+        for (int i = 0; i < Constants.ADDITIONAL_TUNNEL_CARDS; i++) {
+            state = state.withCardsDeckRecreatedIfNeeded(rng);
+            drawnCardsBuilder.add(state.topCard());
+            state = state.withoutTopCard();
+        }
+        SortedBag<Card> drawnCards = drawnCardsBuilder.build();
+        int additionalCardsCount = route.additionalClaimCardsCount(initialClaimCards, drawnCards);
+        state = state.withMoreDiscardedCards(drawnCards);
+        if(additionalCardsCount == 0)
+            return state.withClaimedRoute(route, initialClaimCards);
+
+        CardBag additionalCards = CardBag.ofPacked(bytes.getLong(offset + ADDITIONAL_CARDS_OFFSET));
+        return additionalCards.isEmpty()
+                ? state
+                : state.withClaimedRoute(route, initialClaimCards.union(additionalCards.toSortedBag()));
+    }
+
+    private int turnOffset(int turn) {
+        return HEADER_BYTES + TURN_BYTES * Objects.checkIndex(turn, turnCount());
+    }
+}
@@ -0,0 +1,112 @@
+package ch.epfl.tchu.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reader of the records of a journal written by GameJournal, in the order in which they were appended.
+ *
+ * The file is mapped in memory by regions of at most MAX_REGION_SIZE bytes, and each record is a view of the region
+ * containing it, so that reading a record copies nothing. An incomplete last record, left by a write interrupted
+ * by a crash, is ignored. The records returned remain readable once the reader is closed.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class JournalReader implements Iterator<GameRecord>, Closeable {
+
+    /**
+     * The greatest size of the regions of the file mapped in memory
+     */
+    static final int MAX_REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position = GameJournal.HEADER_BYTES;
+
+    private JournalReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * opens the journal of given path to read its records
+     *
+     * @param path the path of the journal
+     * @return the reader of the journal
+     * @throws IOException if the file cannot be opened, or if it is not a journal of the version of GameJournal
+     */
+    public static JournalReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            GameJournal.checkHeader(channel);
+            return new JournalReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * returns true iff the journal contains another complete record
+     *
+     * @return true iff the journal contains another complete record
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    @Override
+    public boolean hasNext() {
+        return size - position >= GameRecord.HEADER_BYTES && size - position >= recordLength();
+    }
+
+    /**
+     * returns the next record of the journal
+     *
+     * @return the next record of the journal
+     * @throws NoSuchElementException if the journal contains no other complete record
+     * @throws UncheckedIOException   if the file cannot be mapped
+     */
+    @Override
+    public GameRecord next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        int length = recordLength();
+        int offset = map(length);
+        ByteBuffer bytes = region.duplicate().position(offset).limit(offset + length).slice();
+        position += length;
+        return new GameRecord(bytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Returns the length of the record starting at the current position, whose header must be in the file
+    private int recordLength() {
+        int offset = map(GameRecord.HEADER_BYTES);
+        return GameRecord.length(Short.toUnsignedInt(region.getShort(offset + GameRecord.TURN_COUNT_OFFSET)));
+    }
+
+    // Maps a region containing the given number of bytes from the current position, and returns their offset in it
+    private int map(int length) {
+        if(region == null || position < regionStart || position + length > regionStart + region.capacity()) {
+            try {
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAX_REGION_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            regionStart = position;
+        }
+        return (int) (position - regionStart);
+    }
+}
@@ -0,0 +1,253 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.PlayerId;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Verifier playing again the games of a journal with the current rules and state classes, and checking that
+ * they go through the same states and end with the same points and longest trails as when they were recorded.
+ * It validates that a change of GameState, CardState or PlayerState does not change the behaviour of the game.
+ *
+ * The records are read in batches of BATCH_SIZE games, whose games are played again in parallel, so that the
+ * journal is read while the games are replayed without holding all its records at once.
+ * Each game is checked on its own, its first divergence only being reported.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class ReplayVerifier {
+
+    static final int BATCH_SIZE = 1 << 12;
+
+    private ReplayVerifier() {
+    }
+
+    /**
+     * plays again the games of the journal of given path on the common fork/join pool, and checks them
+     *
+     * @param path the path of the journal
+     * @return the report of the verification
+     * @throws IOException if the journal cannot be read
+     */
+    public static Report verify(Path path) throws IOException {
+        return verify(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * plays again the games of the journal of given path on the given fork/join pool, and checks them
+     *
+     * @param path the path of the journal
+     * @param pool the pool whose threads play the games again
+     * @return the report of the verification
+     * @throws IOException if the journal cannot be read
+     */
+    public static Report verify(Path path, ForkJoinPool pool) throws IOException {
+        int gameCount = 0;
+        long turnCount = 0;
+        List<Divergence> divergences = new ArrayList<>();
+        try (JournalReader reader = JournalReader.open(path)) {
+            List<GameRecord> batch = new ArrayList<>(BATCH_SIZE);
+            while (reader.hasNext()) {
+                batch.clear();
+                while (reader.hasNext() && batch.size() < BATCH_SIZE) {
+                    GameRecord record = reader.next();
+                    turnCount += record.turnCount();
+                    batch.add(record);
+                }
+                int firstIndex = gameCount;
+                divergences.addAll(pool.submit(() -> IntStream.range(0, batch.size())
+                        .parallel()
+                        .mapToObj(i -> check(batch.get(i), firstIndex + i))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                        .join());
+                gameCount += batch.size();
+            }
+        }
+        return new Report(gameCount, turnCount, divergences);
+    }
+
+    /**
+     * plays again the game of the given record and returns its first divergence, or null if it has none
+     *
+     * @param record    the record of the game
+     * @param gameIndex the index of the game in its journal
+     * @return the first divergence of the game, or null if it is played again as it was recorded
+     */
+    public static Divergence check(GameRecord record, int gameIndex) {
+        StateCheck stateCheck = new StateCheck(record);
+        GameState state;
+        try {
+            state = record.replay(stateCheck);
+        } catch (RuntimeException e) {
+            return stateCheck.divergentTurn >= 0
+                    ? stateCheck.divergence(gameIndex)
+                    : new Divergence(gameIndex, record.seed(), stateCheck.endedTurnCount, "the turn cannot be played: " + e);
+        }
+        if(stateCheck.divergentTurn >= 0)
+            return stateCheck.divergence(gameIndex);
+
+        Game.Result result = Game.result(state, record.turnCount());
+        for (PlayerId playerId : PlayerId.ALL) {
+            int length = result.longestTrailLength(playerId);
+            if(length != record.longestTrailLength(playerId))
+                return new Divergence(gameIndex, record.seed(), record.turnCount(), String.format(
+                        "longest trail of %s of length %d instead of %d", playerId, length, record.longestTrailLength(playerId)));
+            int points = result.points(playerId);
+            if(points != record.points(playerId))
+                return new Divergence(gameIndex, record.seed(), record.turnCount(), String.format(
+                        "%d points for %s instead of %d", points, playerId, record.points(playerId)));
+        }
+        return null;
+    }
+
+    /**
+     * Comparison of the keys of the states at the end of the turns with the recorded ones, keeping the first difference
+     */
+    private static final class StateCheck implements ObjIntConsumer<GameState> {
+        private final GameRecord record;
+        private int endedTurnCount;
+        private int divergentTurn = -1;
+        private long divergentKey;
+
+        private StateCheck(GameRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public void accept(GameState state, int turn) {
+            endedTurnCount = turn + 1;
+            if(divergentTurn < 0 && state.zobristKey() != record.stateKey(turn)) {
+                divergentTurn = turn;
+                divergentKey = state.zobristKey();
+            }
+        }
+
+        private Divergence divergence(int gameIndex) {
+            return new Divergence(gameIndex, record.seed(), divergentTurn, String.format(
+                    "state of key %016x instead of %016x", divergentKey, record.stateKey(divergentTurn)));
+        }
+    }
+
+    /**
+     * First difference between a game played again and its record
+     */
+    public static final class Divergence {
+        private final int gameIndex;
+        private final long seed;
+        private final int turn;
+        private final String description;
+
+        private Divergence(int gameIndex, long seed, int turn, String description) {
+            this.gameIndex = gameIndex;
+            this.seed = seed;
+            this.turn = turn;
+            this.description = description;
+        }
+
+        /**
+         * returns the index of the game in its journal
+         *
+         * @return the index of the game in its journal
+         */
+        public int gameIndex() {
+            return gameIndex;
+        }
+
+        /**
+         * returns the seed of the game
+         *
+         * @return the seed of the game
+         */
+        public long seed() {
+            return seed;
+        }
+
+        /**
+         * returns the index of the first turn whose end differs from the record,
+         * or the number of turns of the game if only its outcome differs
+         *
+         * @return the index of the first divergent turn
+         */
+        public int turn() {
+            return turn;
+        }
+
+        /**
+         * returns the description of the difference
+         *
+         * @return the description of the difference
+         */
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("game %d (seed %d), turn %d: %s", gameIndex, seed, turn, description);
+        }
+    }
+
+    /**
+     * Result of the verification of a journal
+     */
+    public static final class Report {
+        private final int gameCount;
+        private final long turnCount;
+        private final List<Divergence> divergences;
+
+        private Report(int gameCount, long turnCount, List<Divergence> divergences) {
+            this.gameCount = gameCount;
+            this.turnCount = turnCount;
+            this.divergences = Collections.unmodifiableList(new ArrayList<>(divergences));
+        }
+
+        /**
+         * returns the number of games played again
+         *
+         * @return the number of games played again
+         */
+        public int gameCount() {
+            return gameCount;
+        }
+
+        /**
+         * returns the total number of turns of the games played again
+         *
+         * @return the total number of turns of the games
+         */
+        public long turnCount() {
+            return turnCount;
+        }
+
+        /**
+         * returns the first divergence of each game which has one, in the order of the journal
+         *
+         * @return the divergences of the games
+         */
+        public List<Divergence> divergences() {
+            return divergences;
+        }
+
+        /**
+         * returns true iff all the games were played again as they were recorded
+         *
+         * @return true iff no game diverges from its record
+         */
+        public boolean isConsistent() {
+            return divergences.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.tchu.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+/**
+ * Connection exchanging frames over a socket. A frame is made of the type of the message, on one byte,
+ * of the length of its payload, on two bytes, and of the payload itself.
+ *
+ * The frames sent are buffered until a frame needing an answer is sent, or until the buffer is flushed
+ * explicitly, so that the many messages sent in a row by the game leave in a few packets.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+final class Connection implements Closeable {
+
+    private static final int STREAM_BUFFER_SIZE = 1 << 13;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final ByteBuffer input = ByteBuffer.allocate(Serdes.MAX_SIZE);
+    private final ByteBuffer output = ByteBuffer.allocate(Serdes.MAX_SIZE);
+
+    /**
+     * construct a connection over the given connected socket
+     *
+     * @param socket the socket
+     * @throws IOException if the streams of the socket cannot be opened
+     */
+    Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), STREAM_BUFFER_SIZE));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), STREAM_BUFFER_SIZE));
+    }
+
+    /**
+     * returns the emptied buffer in which the payload of the next frame sent is to be written
+     */
+    ByteBuffer output() {
+        output.clear();
+        return output;
+    }
+
+    /**
+     * returns the buffer containing the payload of the last frame received
+     */
+    ByteBuffer input() {
+        return input;
+    }
+
+    /**
+     * sends a frame of the given type whose payload is the content of the output buffer,
+     * flushing the frames buffered if the message is answered or if flush is true
+     *
+     * @param id    the type of the message
+     * @param flush true iff the frame must be sent immediately
+     * @throws IOException if the frame cannot be sent
+     */
+    void send(MessageId id, boolean flush) throws IOException {
+        output.flip();
+        out.writeByte(id.ordinal());
+        out.writeShort(output.remaining());
+        out.write(output.array(), output.arrayOffset() + output.position(), output.remaining());
+        if(flush || id.isAnswered())
+            out.flush();
+    }
+
+    /**
+     * receives a frame, whose payload can then be read from the input buffer
+     *
+     * @return the type of the message received
+     * @throws java.io.EOFException if the connection has been closed by the other side
+     * @throws IOException          if the frame cannot be received or if its type is unknown
+     */
+    MessageId receive() throws IOException {
+        int id = in.readUnsignedByte();
+        if(id >= MessageId.COUNT)
+            throw new IOException("unknown message type " + id);
+        int length = in.readUnsignedShort();
+        input.clear();
+        in.readFully(input.array(), input.arrayOffset(), length);
+        input.limit(length);
+        return MessageId.ALL.get(id);
+    }
+
+    /**
+     * sends the frames buffered
+     *
+     * @throws IOException if the frames cannot be sent
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
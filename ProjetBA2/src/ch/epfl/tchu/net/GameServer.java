@@ -0,0 +1,269 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.journal.GameJournal;
+import ch.epfl.tchu.sim.MatchSimulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server hosting games of tCHu on ChMap between remote players: the clients are paired in the order
+ * in which they connect, the first of a pair playing first, and each pair plays one game.
+ *
+ * The game logic calls the players one after the other and waits for their answers, so each match runs on
+ * its own thread, blocked on the sockets of its players most of the time. The threads are created with a small
+ * stack, so that thousands of simultaneous matches fit in one virtual machine.
+ * The seed of each game is derived from the seed of the server and from the index of the match.
+ * The games played to the end can be recorded in a journal, to be audited and played again later.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class GameServer implements Closeable {
+
+    private static final Map<PlayerId, String> PLAYER_NAMES =
+            Map.of(PlayerId.PLAYER_1, "Joueur 1", PlayerId.PLAYER_2, "Joueur 2");
+    private static final long MATCH_STACK_SIZE = 256 * 1024;
+    private static final int BACKLOG = 1024;
+
+    private final ServerSocket serverSocket;
+    private final long seed;
+    private final GameJournal journal;
+    private final SortedBag<Ticket> tickets = SortedBag.of(ChMap.tickets());
+    private final ExecutorService matches;
+    private final Thread acceptor;
+    private final LatencyHistogram turnLatencies = new LatencyHistogram();
+    private final AtomicInteger startedCount = new AtomicInteger();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private int playedCount;
+    private int failedCount;
+
+    /**
+     * construct a server listening on the given port of the loopback interface, or on any free port if it is 0
+     *
+     * @param port the port
+     * @param seed the seed from which the seeds of the games are derived
+     * @throws UncheckedIOException if the server cannot listen on the port
+     */
+    public GameServer(int port, long seed) {
+        this(port, seed, null);
+    }
+
+    /**
+     * construct a server listening on the given port of the loopback interface, or on any free port if it is 0,
+     * which records the games played in the given journal
+     *
+     * @param port    the port
+     * @param seed    the seed from which the seeds of the games are derived
+     * @param journal the journal in which the games are recorded, or null if they are not recorded
+     * @throws UncheckedIOException if the server cannot listen on the port
+     */
+    public GameServer(int port, long seed, GameJournal journal) {
+        try {
+            this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.seed = seed;
+        this.journal = journal;
+        this.matches = Executors.newCachedThreadPool(threadFactory("tchu-match", MATCH_STACK_SIZE));
+        this.acceptor = threadFactory("tchu-acceptor", 0).newThread(this::acceptClients);
+    }
+
+    /**
+     * returns a factory of daemon threads of given name and stack size, 0 standing for the default size
+     *
+     * @param name      the prefix of the names of the threads
+     * @param stackSize the stack size of the threads
+     * @return a factory of daemon threads of given name and stack size
+     */
+    public static ThreadFactory threadFactory(String name, long stackSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(null, runnable, name + "-" + threadCount.incrementAndGet(), stackSize);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * starts accepting the clients
+     *
+     * @return this server
+     */
+    public GameServer start() {
+        acceptor.start();
+        return this;
+    }
+
+    /**
+     * returns the port on which the server listens
+     *
+     * @return the port on which the server listens
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * returns the number of matches played to the end
+     *
+     * @return the number of matches played to the end
+     */
+    public synchronized int playedCount() {
+        return playedCount;
+    }
+
+    /**
+     * returns the number of matches interrupted by an error, such as the disconnection of a player
+     *
+     * @return the number of matches interrupted by an error
+     */
+    public synchronized int failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * returns the histogram of the durations of the turns of the players, as seen by the server
+     *
+     * @return the histogram of the durations of the turns
+     */
+    public LatencyHistogram turnLatencies() {
+        return turnLatencies;
+    }
+
+    /**
+     * stops accepting clients and interrupts the matches in progress, by closing the sockets of their players,
+     * so that they end as failed
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // The reads blocked on the sockets are not interrupted by the interruption of the threads of the matches
+            for (Socket socket : sockets)
+                closeSocket(socket);
+            matches.shutdownNow();
+        }
+    }
+
+    /**
+     * waits until the matches started are over, at most the given time
+     *
+     * @param timeout the greatest time to wait
+     * @param unit    the unit of the timeout
+     * @return true iff the matches are over
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized boolean awaitMatches(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (playedCount + failedCount < startedCount.get()) {
+            long remaining = deadline - System.nanoTime();
+            if(remaining <= 0)
+                return false;
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    private void acceptClients() {
+        try {
+            while (true) {
+                Socket first = register(serverSocket.accept());
+                Socket second = register(serverSocket.accept());
+                int matchIndex = startedCount.getAndIncrement();
+                try {
+                    matches.execute(() -> play(first, second, matchIndex));
+                } catch (RejectedExecutionException e) {
+                    // The server has been closed between the connection of the pair and the start of its match
+                    unregister(first);
+                    unregister(second);
+                    countMatch(false);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // The server socket has been closed
+        }
+    }
+
+    // Keeps the given socket so that it is closed with the server, closing it at once if the server is already closed
+    private Socket register(Socket socket) throws IOException {
+        sockets.add(socket);
+        if(serverSocket.isClosed()) {
+            closeSocket(socket);
+            throw new SocketException("Server closed");
+        }
+        return socket;
+    }
+
+    private void unregister(Socket socket) {
+        closeSocket(socket);
+        sockets.remove(socket);
+    }
+
+    // Counts a match started as over, even if it ends with an error, so that awaitMatches returns
+    private synchronized void countMatch(boolean played) {
+        if(played)
+            playedCount++;
+        else
+            failedCount++;
+        notifyAll();
+    }
+
+    private void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // The socket is closed anyway
+        }
+    }
+
+    private void play(Socket first, Socket second, int matchIndex) {
+        boolean played = false;
+        try (first; second;
+             RemotePlayerProxy player1 = new RemotePlayerProxy(first, turnLatencies);
+             RemotePlayerProxy player2 = new RemotePlayerProxy(second, turnLatencies)) {
+            Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+            players.put(PlayerId.PLAYER_1, player1);
+            players.put(PlayerId.PLAYER_2, player2);
+            long gameSeed = MatchSimulator.gameSeed(seed, matchIndex);
+            if(journal == null)
+                Game.play(players, PLAYER_NAMES, tickets, new Random(gameSeed));
+            else
+                journal.play(players, PLAYER_NAMES, gameSeed);
+            played = true;
+        } catch (IOException | RuntimeException e) {
+            // The match is counted as failed
+        } finally {
+            sockets.remove(first);
+            sockets.remove(second);
+            countMatch(played);
+        }
+    }
+}
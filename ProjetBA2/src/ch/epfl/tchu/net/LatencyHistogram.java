@@ -0,0 +1,86 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations recorded concurrently by many threads, without locks.
+ * The durations, in microseconds, are counted in buckets whose width is a sixteenth of their lower bound,
+ * so that the percentiles are known within about 6 percent.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * records the given duration
+     *
+     * @param nanos the duration, in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(0, nanos) / 1000));
+    }
+
+    /**
+     * returns the number of durations recorded
+     *
+     * @return the number of durations recorded
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * returns an upper bound of the given percentile of the durations recorded
+     *
+     * @param percentile the percentile, between 0 (excluded) and 100 (included)
+     * @return the upper bound of the bucket containing the given percentile, in nanoseconds, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentile is not between 0 (excluded) and 100 (included)
+     */
+    public long percentile(double percentile) {
+        Preconditions.checkArgument(0 < percentile && percentile <= 100);
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if(seen >= rank && seen > 0)
+                return upperBound(i) * 1000;
+        }
+        return 0;
+    }
+
+    // The values below SUB_BUCKET_COUNT have their own bucket, the others share it with the values of same exponent
+    // and same SUB_BUCKET_BITS most significant bits.
+    private static int bucket(long micros) {
+        if(micros < SUB_BUCKET_COUNT)
+            return (int) micros;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((micros >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    private static long upperBound(int bucket) {
+        if(bucket < SUB_BUCKET_COUNT)
+            return bucket + 1;
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long mantissa = SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT;
+        return (mantissa + 1) << shift;
+    }
+}
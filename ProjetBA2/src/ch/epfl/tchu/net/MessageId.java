@@ -0,0 +1,42 @@
+package ch.epfl.tchu.net;
+
+import java.util.List;
+
+/**
+ * The types of the messages sent by the server to a remote player, one for each method of Player.
+ * The messages of the methods returning a value are answered by the client with a message of the same type.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public enum MessageId {
+    INIT_PLAYERS(false),
+    RECEIVE_INFO(false),
+    UPDATE_STATE(false),
+    SET_INITIAL_TICKETS(false),
+    CHOOSE_INITIAL_TICKETS(true),
+    NEXT_TURN(true),
+    CHOOSE_TICKETS(true),
+    DRAW_SLOT(true),
+    ROUTE(true),
+    CARDS(true),
+    CHOOSE_ADDITIONAL_CARDS(true);
+
+    public static final List<MessageId> ALL = List.of(MessageId.values());
+    public static final int COUNT = ALL.size();
+
+    private final boolean answered;
+
+    MessageId(boolean answered) {
+        this.answered = answered;
+    }
+
+    /**
+     * returns true iff the client answers the message
+     *
+     * @return true iff the client answers the message
+     */
+    public boolean isAnswered() {
+        return answered;
+    }
+}
@@ -0,0 +1,130 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Ticket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Client connecting a local player to a game server: it calls the methods of the player
+ * designated by the messages of the server, and answers the messages with their results.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class RemotePlayerClient {
+
+    private final Player player;
+    private final String host;
+    private final int port;
+
+    /**
+     * construct a client for the given player, connecting to the server listening on the given host and port
+     *
+     * @param player the local player
+     * @param host   the name of the host of the server
+     * @param port   the port of the server
+     */
+    public RemotePlayerClient(Player player, String host, int port) {
+        this.player = player;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * connects to the server and plays until it closes the connection
+     *
+     * @throws UncheckedIOException if the connection fails or if a message of the server is malformed
+     */
+    public void run() {
+        try (Socket socket = new Socket(host, port);
+             Connection connection = new Connection(socket)) {
+            StateDeltaCodec stateCodec = new StateDeltaCodec();
+            while (true) {
+                MessageId id;
+                try {
+                    id = connection.receive();
+                } catch (EOFException e) {
+                    return;
+                }
+                handle(id, connection.input(), connection, stateCodec);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The arguments of a message are decoded before the player is called, so that only the malformed messages,
+    // and not the errors of the player, are reported as IOException
+    private void handle(MessageId id, ByteBuffer in, Connection connection, StateDeltaCodec stateCodec) throws IOException {
+        ByteBuffer out = connection.output();
+        switch (id) {
+            case INIT_PLAYERS:
+                PlayerId ownId = decode(id, Serdes.PLAYER_ID, in);
+                Map<PlayerId, String> playerNames = decode(id, Serdes.PLAYER_NAMES, in);
+                player.initPlayers(ownId, playerNames);
+                return;
+            case RECEIVE_INFO:
+                player.receiveInfo(decode(id, Serdes.STRING, in));
+                return;
+            case UPDATE_STATE:
+                try {
+                    stateCodec.read(in);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | IllegalStateException e) {
+                    throw malformed(id, e);
+                }
+                player.updateState(stateCodec.gameState(), stateCodec.playerState());
+                return;
+            case SET_INITIAL_TICKETS:
+                player.setInitialTicketChoice(decode(id, Serdes.TICKET_BAG, in));
+                return;
+            case CHOOSE_INITIAL_TICKETS:
+                Serdes.TICKET_BAG.serialize(player.chooseInitialTickets(), out);
+                break;
+            case NEXT_TURN:
+                Serdes.TURN_KIND.serialize(player.nextTurn(), out);
+                break;
+            case CHOOSE_TICKETS:
+                SortedBag<Ticket> options = decode(id, Serdes.TICKET_BAG, in);
+                Serdes.TICKET_BAG.serialize(player.chooseTickets(options), out);
+                break;
+            case DRAW_SLOT:
+                Serdes.SMALL_INTEGER.serialize(player.drawSlot(), out);
+                break;
+            case ROUTE:
+                Serdes.ROUTE.serialize(player.claimedRoute(), out);
+                break;
+            case CARDS:
+                Serdes.CARD_BAG.serialize(player.initialClaimCards(), out);
+                break;
+            case CHOOSE_ADDITIONAL_CARDS:
+                SortedBag<Card> chosenCards = player.chooseAdditionalCards(decode(id, Serdes.CARD_BAG_LIST, in));
+                Serdes.CARD_BAG.serialize(chosenCards, out);
+                break;
+            default:
+                throw new Error();
+        }
+        connection.send(id, true);
+    }
+
+    private static <T> T decode(MessageId id, Serde<T> serde, ByteBuffer in) throws IOException {
+        try {
+            return serde.deserialize(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw malformed(id, e);
+        }
+    }
+
+    private static IOException malformed(MessageId id, RuntimeException cause) {
+        return new IOException("malformed " + id + " message", cause);
+    }
+}
@@ -0,0 +1,156 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Player standing, on the server, for a player playing remotely through a RemotePlayerClient.
+ * Each call of a method of Player sends a message to the client, and the methods returning a value
+ * wait for its answer. The messages not answered are buffered until a message needing an answer is sent.
+ * The states of the game are sent as their differences with the previous ones, see StateDeltaCodec.
+ *
+ * The duration of the calls of nextTurn, from the sending of the message to the reception of the answer,
+ * is recorded in the given histogram.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class RemotePlayerProxy implements Player, Closeable {
+
+    private final Connection connection;
+    private final LatencyHistogram turnLatencies;
+    private final StateDeltaCodec stateCodec = new StateDeltaCodec();
+
+    /**
+     * construct a proxy communicating with the client connected to the given socket
+     *
+     * @param socket        the socket connected to the client
+     * @param turnLatencies the histogram of the durations of the turns of the player
+     * @throws UncheckedIOException if the streams of the socket cannot be opened
+     */
+    public RemotePlayerProxy(Socket socket, LatencyHistogram turnLatencies) {
+        try {
+            this.connection = new Connection(socket);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.turnLatencies = turnLatencies;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        ByteBuffer payload = connection.output();
+        Serdes.PLAYER_ID.serialize(ownId, payload);
+        Serdes.PLAYER_NAMES.serialize(playerNames, payload);
+        send(MessageId.INIT_PLAYERS);
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+        Serdes.STRING.serialize(info, connection.output());
+        send(MessageId.RECEIVE_INFO);
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        stateCodec.write(newState, ownState, connection.output());
+        send(MessageId.UPDATE_STATE);
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        Serdes.TICKET_BAG.serialize(tickets, connection.output());
+        send(MessageId.SET_INITIAL_TICKETS);
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        connection.output();
+        return Serdes.TICKET_BAG.deserialize(call(MessageId.CHOOSE_INITIAL_TICKETS));
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        connection.output();
+        long start = System.nanoTime();
+        TurnKind turnKind = Serdes.TURN_KIND.deserialize(call(MessageId.NEXT_TURN));
+        turnLatencies.record(System.nanoTime() - start);
+        return turnKind;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        Serdes.TICKET_BAG.serialize(options, connection.output());
+        return Serdes.TICKET_BAG.deserialize(call(MessageId.CHOOSE_TICKETS));
+    }
+
+    @Override
+    public int drawSlot() {
+        connection.output();
+        return Serdes.SMALL_INTEGER.deserialize(call(MessageId.DRAW_SLOT));
+    }
+
+    @Override
+    public Route claimedRoute() {
+        connection.output();
+        return Serdes.ROUTE.deserialize(call(MessageId.ROUTE));
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        connection.output();
+        return Serdes.CARD_BAG.deserialize(call(MessageId.CARDS));
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        Serdes.CARD_BAG_LIST.serialize(options, connection.output());
+        return Serdes.CARD_BAG.deserialize(call(MessageId.CHOOSE_ADDITIONAL_CARDS));
+    }
+
+    /**
+     * sends the messages still buffered and closes the connection
+     *
+     * @throws IOException if the messages cannot be sent
+     */
+    @Override
+    public void close() throws IOException {
+        try (connection) {
+            connection.flush();
+        }
+    }
+
+    private void send(MessageId id) {
+        try {
+            connection.send(id, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Sends the message and returns the payload of the answer, which must be of the same type.
+    private ByteBuffer call(MessageId id) {
+        try {
+            connection.send(id, true);
+            if(connection.receive() != id)
+                throw new IOException("unexpected answer to " + id);
+            return connection.input();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
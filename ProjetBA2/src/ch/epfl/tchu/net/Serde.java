@@ -0,0 +1,172 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Serializer and deserializer of the values of a type, to and from a binary form written in a ByteBuffer.
+ * The textual form of a value is the Base64 encoding of its binary form.
+ *
+ * The values are written directly in the buffer given, without intermediate copies.
+ *
+ * @param <T> the type of the values
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public interface Serde<T> {
+
+    /**
+     * writes the binary form of the given value in the given buffer, from its position
+     *
+     * @param value  the value
+     * @param buffer the buffer
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    void serialize(T value, ByteBuffer buffer);
+
+    /**
+     * reads a value from its binary form in the given buffer, from its position
+     *
+     * @param buffer the buffer
+     * @return the value read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the value
+     */
+    T deserialize(ByteBuffer buffer);
+
+    /**
+     * returns the textual form of the given value, the Base64 encoding of its binary form
+     *
+     * @param value the value
+     * @return the textual form of the value
+     */
+    default String serializeBase64(T value) {
+        ByteBuffer buffer = Serdes.scratchBuffer();
+        serialize(value, buffer);
+        buffer.flip();
+        return new String(Base64.getEncoder().encode(buffer).array(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * returns the value of given textual form
+     *
+     * @param text the textual form of a value
+     * @return the value of given textual form
+     * @throws IllegalArgumentException if the text is not in Base64
+     */
+    default T deserializeBase64(String text) {
+        return deserialize(ByteBuffer.wrap(Base64.getDecoder().decode(text)));
+    }
+
+    /**
+     * returns the serde using the given functions
+     *
+     * @param serializer   the function writing a value in a buffer
+     * @param deserializer the function reading a value from a buffer
+     * @param <T>          the type of the values
+     * @return the serde using the given functions
+     */
+    static <T> Serde<T> of(BiConsumer<T, ByteBuffer> serializer, Function<ByteBuffer, T> deserializer) {
+        return new Serde<>() {
+            @Override
+            public void serialize(T value, ByteBuffer buffer) {
+                serializer.accept(value, buffer);
+            }
+
+            @Override
+            public T deserialize(ByteBuffer buffer) {
+                return deserializer.apply(buffer);
+            }
+        };
+    }
+
+    /**
+     * returns the serde of the values of the given list, each one written as its index on one byte,
+     * null being written as -1. A value present several times in the list is written as its first index.
+     *
+     * @param values all the values, at most 127
+     * @param <T>    the type of the values
+     * @return the serde of the values of the given list
+     * @throws IllegalArgumentException if there are more than 127 values
+     */
+    static <T> Serde<T> oneOf(List<T> values) {
+        Preconditions.checkArgument(values.size() <= Byte.MAX_VALUE);
+        List<T> all = List.copyOf(values);
+        Map<T, Integer> indices = new HashMap<>();
+        for (int i = 0; i < all.size(); i++)
+            indices.putIfAbsent(all.get(i), i);
+        return of((value, buffer) -> {
+            if(value == null) {
+                buffer.put((byte) -1);
+                return;
+            }
+            Integer index = indices.get(value);
+            Preconditions.checkArgument(index != null);
+            buffer.put(index.byteValue());
+        }, buffer -> {
+            int index = buffer.get();
+            return (index < 0) ? null : all.get(index);
+        });
+    }
+
+    /**
+     * returns the serde of the lists of values of the given serde, written as their size on one byte followed by their elements.
+     * The lists are expected to give a fast access to their elements by index
+     *
+     * @param serde the serde of the elements
+     * @param <T>   the type of the elements
+     * @return the serde of the lists of values of the given serde
+     */
+    static <T> Serde<List<T>> listOf(Serde<T> serde) {
+        return of((list, buffer) -> {
+            Preconditions.checkArgument(list.size() <= 0xFF);
+            buffer.put((byte) list.size());
+            for (int i = 0; i < list.size(); i++)
+                serde.serialize(list.get(i), buffer);
+        }, buffer -> {
+            int size = Byte.toUnsignedInt(buffer.get());
+            List<T> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                list.add(serde.deserialize(buffer));
+            return list;
+        });
+    }
+
+    /**
+     * returns the serde of the bags of values of the given serde, written as their size on one byte followed by their elements
+     *
+     * @param serde the serde of the elements
+     * @param <T>   the type of the elements
+     * @return the serde of the bags of values of the given serde
+     */
+    static <T extends Comparable<T>> Serde<SortedBag<T>> bagOf(Serde<T> serde) {
+        return of((bag, buffer) -> {
+            // The size is written once the elements are, as computing it first would go through the bag twice
+            int sizePosition = buffer.position();
+            buffer.put((byte) 0);
+            int size = 0;
+            for (Map.Entry<T, Integer> entry : bag.toMap().entrySet()) {
+                for (int i = 0; i < entry.getValue(); i++)
+                    serde.serialize(entry.getKey(), buffer);
+                size += entry.getValue();
+            }
+            Preconditions.checkArgument(size <= 0xFF);
+            buffer.put(sizePosition, (byte) size);
+        }, buffer -> {
+            int size = Byte.toUnsignedInt(buffer.get());
+            SortedBag.Builder<T> bag = new SortedBag.Builder<>();
+            for (int i = 0; i < size; i++)
+                bag.add(serde.deserialize(buffer));
+            return bag.build();
+        });
+    }
+}
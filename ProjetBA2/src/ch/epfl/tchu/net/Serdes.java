@@ -0,0 +1,183 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The serdes of the values exchanged with the players of the games played on ChMap.
+ * The routes and tickets are written as their index in the lists of ChMap, the bags of cards as the number of cards
+ * of each kind, and the states as the sequence of their fields, all the numbers of which fit in one byte.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class Serdes {
+
+    /**
+     * The greatest size of the binary form of the values of these serdes
+     */
+    public static final int MAX_SIZE = 0xFFFF;
+
+    // The buffer of each thread in which the binary forms are written before their encoding in base 64
+    private static final ThreadLocal<ByteBuffer> SCRATCH_BUFFERS =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAX_SIZE));
+
+    /**
+     * A string, as the length of its UTF-8 encoding on two bytes followed by the encoding
+     */
+    public static final Serde<String> STRING = Serde.of((string, buffer) -> {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        Preconditions.checkArgument(bytes.length <= MAX_SIZE);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }, buffer -> {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    });
+
+    /**
+     * An integer between -128 and 127, such as a slot, on one byte
+     */
+    public static final Serde<Integer> SMALL_INTEGER = Serde.of((integer, buffer) -> {
+        Preconditions.checkArgument(Byte.MIN_VALUE <= integer && integer <= Byte.MAX_VALUE);
+        buffer.put(integer.byteValue());
+    }, buffer -> (int) buffer.get());
+
+    public static final Serde<PlayerId> PLAYER_ID = Serde.oneOf(PlayerId.ALL);
+    public static final Serde<Player.TurnKind> TURN_KIND = Serde.oneOf(Player.TurnKind.ALL);
+    public static final Serde<Card> CARD = Serde.oneOf(Card.ALL);
+    public static final Serde<Route> ROUTE = Serde.oneOf(ChMap.routes());
+    public static final Serde<Ticket> TICKET = Serde.oneOf(ChMap.tickets());
+
+    /**
+     * The names of the players, in the order of their identities
+     */
+    public static final Serde<Map<PlayerId, String>> PLAYER_NAMES = Serde.of((playerNames, buffer) -> {
+        for (PlayerId playerId : PlayerId.ALL)
+            STRING.serialize(playerNames.get(playerId), buffer);
+    }, buffer -> {
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            playerNames.put(playerId, STRING.deserialize(buffer));
+        return playerNames;
+    });
+
+    /**
+     * A bag of cards, as the number of cards of each kind, in the order of Card
+     */
+    public static final Serde<CardBag> CARD_COUNTS = Serde.of((cards, buffer) -> {
+        for (int i = 0; i < Card.COUNT; i++)
+            buffer.put((byte) cards.countOf(Card.ALL.get(i)));
+    }, buffer -> {
+        CardBag cards = CardBag.of();
+        for (int i = 0; i < Card.COUNT; i++)
+            cards = cards.withCount(Card.ALL.get(i), Byte.toUnsignedInt(buffer.get()));
+        return cards;
+    });
+
+    /**
+     * A sorted bag of cards, in the same form as CARD_COUNTS
+     */
+    public static final Serde<SortedBag<Card>> CARD_BAG = Serde.of(
+            (cards, buffer) -> CARD_COUNTS.serialize(CardBag.of(cards), buffer),
+            buffer -> CARD_COUNTS.deserialize(buffer).toSortedBag());
+
+    public static final Serde<SortedBag<Ticket>> TICKET_BAG = Serde.bagOf(TICKET);
+    public static final Serde<List<Route>> ROUTE_LIST = Serde.listOf(ROUTE);
+    public static final Serde<List<SortedBag<Card>>> CARD_BAG_LIST = Serde.listOf(CARD_BAG);
+
+    /**
+     * The public state of the cards: the face-up cards, the size of the deck and the size of the discards
+     */
+    public static final Serde<PublicCardState> PUBLIC_CARD_STATE = Serde.of((cardState, buffer) -> {
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            CARD.serialize(cardState.faceUpCard(slot), buffer);
+        buffer.put((byte) cardState.deckSize());
+        buffer.put((byte) cardState.discardsSize());
+    }, buffer -> {
+        List<Card> faceUpCards = new ArrayList<>(Constants.FACE_UP_CARDS_COUNT);
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            faceUpCards.add(CARD.deserialize(buffer));
+        int deckSize = Byte.toUnsignedInt(buffer.get());
+        return new PublicCardState(faceUpCards, deckSize, Byte.toUnsignedInt(buffer.get()));
+    });
+
+    /**
+     * The public state of a player: the number of its tickets, the number of its cards and its routes
+     */
+    public static final Serde<PublicPlayerState> PUBLIC_PLAYER_STATE = Serde.of((playerState, buffer) -> {
+        buffer.put((byte) playerState.ticketCount());
+        buffer.put((byte) playerState.cardCount());
+        ROUTE_LIST.serialize(playerState.routes(), buffer);
+    }, buffer -> {
+        int ticketCount = Byte.toUnsignedInt(buffer.get());
+        int cardCount = Byte.toUnsignedInt(buffer.get());
+        return new PublicPlayerState(ticketCount, cardCount, ROUTE_LIST.deserialize(buffer));
+    });
+
+    /**
+     * The complete state of a player: its tickets, its cards and its routes
+     */
+    public static final Serde<PlayerState> PLAYER_STATE = Serde.of((playerState, buffer) -> {
+        TICKET_BAG.serialize(playerState.tickets(), buffer);
+        CARD_COUNTS.serialize(playerState.cardBag(), buffer);
+        ROUTE_LIST.serialize(playerState.routes(), buffer);
+    }, buffer -> {
+        SortedBag<Ticket> tickets = TICKET_BAG.deserialize(buffer);
+        CardBag cards = CARD_COUNTS.deserialize(buffer);
+        return PlayerState.of(tickets, cards, ROUTE_LIST.deserialize(buffer));
+    });
+
+    /**
+     * The public state of a game: the number of tickets, the public state of the cards, the current player,
+     * the public states of the players, in the order of their identities, and the last player, or -1
+     */
+    public static final Serde<PublicGameState> PUBLIC_GAME_STATE = Serde.of((gameState, buffer) -> {
+        buffer.put((byte) gameState.ticketsCount());
+        PUBLIC_CARD_STATE.serialize(gameState.cardState(), buffer);
+        PLAYER_ID.serialize(gameState.currentPlayerId(), buffer);
+        for (PlayerId playerId : PlayerId.ALL)
+            PUBLIC_PLAYER_STATE.serialize(gameState.playerState(playerId), buffer);
+        PLAYER_ID.serialize(gameState.lastPlayer(), buffer);
+    }, buffer -> {
+        int ticketsCount = Byte.toUnsignedInt(buffer.get());
+        PublicCardState cardState = PUBLIC_CARD_STATE.deserialize(buffer);
+        PlayerId currentPlayerId = PLAYER_ID.deserialize(buffer);
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            playerStates.put(playerId, PUBLIC_PLAYER_STATE.deserialize(buffer));
+        return new PublicGameState(ticketsCount, cardState, currentPlayerId, playerStates, PLAYER_ID.deserialize(buffer));
+    });
+
+    private Serdes() {
+    }
+
+    /**
+     * returns the emptied buffer of the current thread in which the textual forms are prepared
+     */
+    static ByteBuffer scratchBuffer() {
+        ByteBuffer buffer = SCRATCH_BUFFERS.get();
+        buffer.clear();
+        return buffer;
+    }
+}
@@ -0,0 +1,305 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoding of the successive states sent to a player as their differences with the previous ones.
+ * The sender and the receiver each keep the last states exchanged in their own codec: the sender writes
+ * what changed since them, and the receiver applies it to them to obtain the new states.
+ *
+ * A difference starts with a set of flags, on two bytes, telling which fields changed, followed by the new values
+ * of these fields: the face-up cards by the set of slots changed and their new cards, the routes and tickets
+ * by the ones added, and the hand of the player by the new counts of the kinds of cards changed.
+ * The first states, and the states which cannot be described by additions, are written entirely.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class StateDeltaCodec {
+
+    private static final int FULL = 1;
+    private static final int TICKETS_COUNT = 1 << 1;
+    private static final int FACE_UP_CARDS = 1 << 2;
+    private static final int DECK_SIZE = 1 << 3;
+    private static final int DISCARDS_SIZE = 1 << 4;
+    private static final int CURRENT_PLAYER = 1 << 5;
+    private static final int LAST_PLAYER = 1 << 6;
+    private static final int OWN_TICKETS = 1 << 7;
+    private static final int OWN_CARDS = 1 << 8;
+    private static final int OWN_ROUTES = 1 << 9;
+
+    // The flags of the public state of each player follow the others
+    private static final int PLAYER_FLAGS_SHIFT = 10;
+    private static final int PLAYER_FLAG_BITS = 3;
+    private static final int PLAYER_TICKET_COUNT = 1;
+    private static final int PLAYER_CARD_COUNT = 1 << 1;
+    private static final int PLAYER_ROUTES = 1 << 2;
+
+    private PublicGameState gameState;
+    private PlayerState playerState;
+
+    /**
+     * returns the last public state of the game written or read, or null if there is none
+     *
+     * @return the last public state of the game written or read
+     */
+    public PublicGameState gameState() {
+        return gameState;
+    }
+
+    /**
+     * returns the last state of the player written or read, or null if there is none
+     *
+     * @return the last state of the player written or read
+     */
+    public PlayerState playerState() {
+        return playerState;
+    }
+
+    /**
+     * writes in the given buffer the difference between the last states and the given ones, which become the last states
+     *
+     * @param newGameState   the new public state of the game
+     * @param newPlayerState the new state of the player
+     * @param buffer         the buffer
+     */
+    public void write(PublicGameState newGameState, PlayerState newPlayerState, ByteBuffer buffer) {
+        if(gameState == null || !isAddition(gameState, playerState, newGameState, newPlayerState)) {
+            buffer.putShort((short) FULL);
+            Serdes.PUBLIC_GAME_STATE.serialize(newGameState, buffer);
+            Serdes.PLAYER_STATE.serialize(newPlayerState, buffer);
+        } else {
+            writeDifference(newGameState, newPlayerState, buffer);
+        }
+        gameState = newGameState;
+        playerState = newPlayerState;
+    }
+
+    /**
+     * reads from the given buffer the difference between the last states and the new ones, which become the last states
+     *
+     * @param buffer the buffer
+     * @throws IllegalStateException if the difference is not a complete state and no state has been read before
+     */
+    public void read(ByteBuffer buffer) {
+        int flags = Short.toUnsignedInt(buffer.getShort());
+        if((flags & FULL) != 0) {
+            gameState = Serdes.PUBLIC_GAME_STATE.deserialize(buffer);
+            playerState = Serdes.PLAYER_STATE.deserialize(buffer);
+            return;
+        }
+        if(gameState == null)
+            throw new IllegalStateException();
+        readDifference(flags, buffer);
+    }
+
+    // Returns true iff the new states only add tickets and routes to the old ones, besides the fields they replace.
+    private static boolean isAddition(PublicGameState oldGameState, PlayerState oldPlayerState,
+                                      PublicGameState newGameState, PlayerState newPlayerState) {
+        for (PlayerId playerId : PlayerId.ALL) {
+            if(!isPrefix(oldGameState.playerState(playerId).routes(), newGameState.playerState(playerId).routes()))
+                return false;
+        }
+        return isPrefix(oldPlayerState.routes(), newPlayerState.routes())
+                && newPlayerState.tickets().contains(oldPlayerState.tickets());
+    }
+
+    private static boolean isPrefix(List<Route> oldRoutes, List<Route> newRoutes) {
+        if(oldRoutes.size() > newRoutes.size())
+            return false;
+        Iterator<Route> newIterator = newRoutes.iterator();
+        for (Route route : oldRoutes) {
+            if(newIterator.next() != route)
+                return false;
+        }
+        return true;
+    }
+
+    private void writeDifference(PublicGameState newGameState, PlayerState newPlayerState, ByteBuffer buffer) {
+        PublicCardState oldCards = gameState.cardState();
+        PublicCardState newCards = newGameState.cardState();
+        int faceUpSlots = 0;
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+            if(oldCards.faceUpCard(slot) != newCards.faceUpCard(slot))
+                faceUpSlots |= 1 << slot;
+        }
+        int cardKinds = 0;
+        for (int i = 0; i < Card.COUNT; i++) {
+            if(playerState.cardBag().countOf(Card.ALL.get(i)) != newPlayerState.cardBag().countOf(Card.ALL.get(i)))
+                cardKinds |= 1 << i;
+        }
+
+        int flags = 0;
+        flags |= gameState.ticketsCount() != newGameState.ticketsCount() ? TICKETS_COUNT : 0;
+        flags |= faceUpSlots != 0 ? FACE_UP_CARDS : 0;
+        flags |= oldCards.deckSize() != newCards.deckSize() ? DECK_SIZE : 0;
+        flags |= oldCards.discardsSize() != newCards.discardsSize() ? DISCARDS_SIZE : 0;
+        flags |= gameState.currentPlayerId() != newGameState.currentPlayerId() ? CURRENT_PLAYER : 0;
+        flags |= gameState.lastPlayer() != newGameState.lastPlayer() ? LAST_PLAYER : 0;
+        flags |= playerState.tickets() != newPlayerState.tickets()
+                && !playerState.tickets().equals(newPlayerState.tickets()) ? OWN_TICKETS : 0;
+        flags |= cardKinds != 0 ? OWN_CARDS : 0;
+        flags |= playerState.routes().size() != newPlayerState.routes().size() ? OWN_ROUTES : 0;
+        for (PlayerId playerId : PlayerId.ALL)
+            flags |= playerFlags(gameState.playerState(playerId), newGameState.playerState(playerId)) << playerShift(playerId);
+        buffer.putShort((short) flags);
+
+        if((flags & TICKETS_COUNT) != 0)
+            buffer.put((byte) newGameState.ticketsCount());
+        if((flags & FACE_UP_CARDS) != 0) {
+            buffer.put((byte) faceUpSlots);
+            for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+                if((faceUpSlots & (1 << slot)) != 0)
+                    Serdes.CARD.serialize(newCards.faceUpCard(slot), buffer);
+            }
+        }
+        if((flags & DECK_SIZE) != 0)
+            buffer.put((byte) newCards.deckSize());
+        if((flags & DISCARDS_SIZE) != 0)
+            buffer.put((byte) newCards.discardsSize());
+        if((flags & CURRENT_PLAYER) != 0)
+            Serdes.PLAYER_ID.serialize(newGameState.currentPlayerId(), buffer);
+        if((flags & LAST_PLAYER) != 0)
+            Serdes.PLAYER_ID.serialize(newGameState.lastPlayer(), buffer);
+        for (PlayerId playerId : PlayerId.ALL) {
+            PublicPlayerState oldState = gameState.playerState(playerId);
+            PublicPlayerState newState = newGameState.playerState(playerId);
+            int playerFlags = flags >>> playerShift(playerId);
+            if((playerFlags & PLAYER_TICKET_COUNT) != 0)
+                buffer.put((byte) newState.ticketCount());
+            if((playerFlags & PLAYER_CARD_COUNT) != 0)
+                buffer.put((byte) newState.cardCount());
+            if((playerFlags & PLAYER_ROUTES) != 0)
+                writeAddedRoutes(oldState.routes(), newState.routes(), buffer);
+        }
+        if((flags & OWN_TICKETS) != 0)
+            Serdes.TICKET_BAG.serialize(newPlayerState.tickets().difference(playerState.tickets()), buffer);
+        if((flags & OWN_CARDS) != 0) {
+            buffer.putShort((short) cardKinds);
+            for (int i = 0; i < Card.COUNT; i++) {
+                if((cardKinds & (1 << i)) != 0)
+                    buffer.put((byte) newPlayerState.cardBag().countOf(Card.ALL.get(i)));
+            }
+        }
+        if((flags & OWN_ROUTES) != 0)
+            writeAddedRoutes(playerState.routes(), newPlayerState.routes(), buffer);
+    }
+
+    private static int playerShift(PlayerId playerId) {
+        return PLAYER_FLAGS_SHIFT + playerId.ordinal() * PLAYER_FLAG_BITS;
+    }
+
+    private static int playerFlags(PublicPlayerState oldState, PublicPlayerState newState) {
+        int flags = 0;
+        flags |= oldState.ticketCount() != newState.ticketCount() ? PLAYER_TICKET_COUNT : 0;
+        flags |= oldState.cardCount() != newState.cardCount() ? PLAYER_CARD_COUNT : 0;
+        flags |= oldState.routes().size() != newState.routes().size() ? PLAYER_ROUTES : 0;
+        return flags;
+    }
+
+    private static void writeAddedRoutes(List<Route> oldRoutes, List<Route> newRoutes, ByteBuffer buffer) {
+        buffer.put((byte) (newRoutes.size() - oldRoutes.size()));
+        Iterator<Route> iterator = newRoutes.iterator();
+        for (int i = 0; i < oldRoutes.size(); i++)
+            iterator.next();
+        while (iterator.hasNext())
+            Serdes.ROUTE.serialize(iterator.next(), buffer);
+    }
+
+    private static List<Route> readAddedRoutes(List<Route> oldRoutes, ByteBuffer buffer) {
+        int count = buffer.get();
+        List<Route> routes = new ArrayList<>(oldRoutes.size() + count);
+        routes.addAll(oldRoutes);
+        for (int i = 0; i < count; i++)
+            routes.add(Serdes.ROUTE.deserialize(buffer));
+        return routes;
+    }
+
+    private void readDifference(int flags, ByteBuffer buffer) {
+        int ticketsCount = (flags & TICKETS_COUNT) != 0 ? Byte.toUnsignedInt(buffer.get()) : gameState.ticketsCount();
+
+        PublicCardState cardState = gameState.cardState();
+        if((flags & (FACE_UP_CARDS | DECK_SIZE | DISCARDS_SIZE)) != 0) {
+            List<Card> faceUpCards = new ArrayList<>(cardState.faceUpCards());
+            if((flags & FACE_UP_CARDS) != 0) {
+                int faceUpSlots = buffer.get();
+                for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+                    if((faceUpSlots & (1 << slot)) != 0)
+                        faceUpCards.set(slot, Serdes.CARD.deserialize(buffer));
+                }
+            }
+            int deckSize = (flags & DECK_SIZE) != 0 ? Byte.toUnsignedInt(buffer.get()) : cardState.deckSize();
+            int discardsSize = (flags & DISCARDS_SIZE) != 0 ? Byte.toUnsignedInt(buffer.get()) : cardState.discardsSize();
+            cardState = new PublicCardState(faceUpCards, deckSize, discardsSize);
+        }
+
+        PlayerId currentPlayerId = (flags & CURRENT_PLAYER) != 0
+                ? Serdes.PLAYER_ID.deserialize(buffer)
+                : gameState.currentPlayerId();
+        PlayerId lastPlayer = (flags & LAST_PLAYER) != 0 ? Serdes.PLAYER_ID.deserialize(buffer) : gameState.lastPlayer();
+
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            PublicPlayerState oldState = gameState.playerState(playerId);
+            int playerFlags = flags >>> playerShift(playerId) & ((1 << PLAYER_FLAG_BITS) - 1);
+            if(playerFlags == 0) {
+                playerStates.put(playerId, oldState);
+                continue;
+            }
+            int ticketCount = (playerFlags & PLAYER_TICKET_COUNT) != 0 ? Byte.toUnsignedInt(buffer.get()) : oldState.ticketCount();
+            int cardCount = (playerFlags & PLAYER_CARD_COUNT) != 0 ? Byte.toUnsignedInt(buffer.get()) : oldState.cardCount();
+            List<Route> routes = (playerFlags & PLAYER_ROUTES) != 0 ? readAddedRoutes(oldState.routes(), buffer) : oldState.routes();
+            playerStates.put(playerId, new PublicPlayerState(ticketCount, cardCount, routes));
+        }
+        gameState = new PublicGameState(ticketsCount, cardState, currentPlayerId, playerStates, lastPlayer);
+
+        SortedBag<Ticket> addedTickets = (flags & OWN_TICKETS) != 0 ? Serdes.TICKET_BAG.deserialize(buffer) : SortedBag.of();
+        CardBag hand = playerState.cardBag();
+        if((flags & OWN_CARDS) != 0) {
+            int cardKinds = buffer.getShort();
+            for (int i = 0; i < Card.COUNT; i++) {
+                if((cardKinds & (1 << i)) != 0)
+                    hand = hand.withCount(Card.ALL.get(i), Byte.toUnsignedInt(buffer.get()));
+            }
+        }
+        List<Route> addedRoutes = (flags & OWN_ROUTES) != 0 ? readAddedRoutes(List.of(), buffer) : List.of();
+        playerState = newPlayerState(playerState, addedTickets, hand, addedRoutes);
+    }
+
+    // Derives the new state of the player from the old one, so that its network is only recomputed if needed.
+    private static PlayerState newPlayerState(PlayerState oldState, SortedBag<Ticket> addedTickets, CardBag hand,
+                                              List<Route> addedRoutes) {
+        if(addedRoutes.size() > 1) {
+            List<Route> routes = new ArrayList<>(oldState.routes());
+            routes.addAll(addedRoutes);
+            return PlayerState.of(oldState.tickets().union(addedTickets), hand, routes);
+        }
+
+        PlayerState state = addedTickets.isEmpty() ? oldState : oldState.withAddedTickets(addedTickets);
+        if(addedRoutes.size() == 1)
+            state = state.withClaimedRoute(addedRoutes.get(0), state.cardBag().difference(hand).toSortedBag());
+        CardBag missingCards = hand.difference(state.cardBag());
+        if(!missingCards.isEmpty())
+            state = state.withAddedCards(missingCards.toSortedBag());
+        if(!state.cardBag().difference(hand).isEmpty())
+            state = PlayerState.of(state.tickets(), hand, state.routes());
+        return state;
+    }
+}
@@ -0,0 +1,113 @@
+package ch.epfl.tchu.sim;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Ticket;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many independent games between two kinds of players, in parallel.
+ * Every game gets its own seed, derived from a master seed and from the index of the game only,
+ * so the results are the same whatever the number of threads used.
+ * Each thread accumulates the results of its games on its own and the partial results are only combined at the end.
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class MatchSimulator {
+
+    private static final Map<PlayerId, String> PLAYER_NAMES =
+            Map.of(PlayerId.PLAYER_1, "Joueur 1", PlayerId.PLAYER_2, "Joueur 2");
+
+    private final Map<PlayerId, LongFunction<Player>> playerFactories;
+    private final SortedBag<Ticket> tickets;
+
+    /**
+     * construct a simulator of games between the players created by the given factories, with the given tickets.
+     * A factory receives a seed that it can use to initialize the random generator of the player it creates.
+     *
+     * @param player1Factory factory of the first player of each game
+     * @param player2Factory factory of the second player of each game
+     * @param tickets        the tickets available in each game
+     * @throws NullPointerException if one of the arguments is null
+     */
+    public MatchSimulator(LongFunction<Player> player1Factory, LongFunction<Player> player2Factory, SortedBag<Ticket> tickets) {
+        playerFactories = new EnumMap<>(PlayerId.class);
+        playerFactories.put(PlayerId.PLAYER_1, Objects.requireNonNull(player1Factory));
+        playerFactories.put(PlayerId.PLAYER_2, Objects.requireNonNull(player2Factory));
+        this.tickets = Objects.requireNonNull(tickets);
+    }
+
+    /**
+     * plays the given number of games on the common fork/join pool
+     *
+     * @param gameCount  the number of games to play
+     * @param masterSeed the seed from which the seeds of all the games are derived
+     * @return the aggregated results of the games
+     * @throws IllegalArgumentException if gameCount is strictly negative
+     */
+    public SimulationReport run(int gameCount, long masterSeed) {
+        return run(gameCount, masterSeed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * plays the given number of games on the given fork/join pool
+     *
+     * @param gameCount  the number of games to play
+     * @param masterSeed the seed from which the seeds of all the games are derived
+     * @param pool       the pool whose threads play the games
+     * @return the aggregated results of the games
+     * @throws IllegalArgumentException if gameCount is strictly negative
+     */
+    public SimulationReport run(int gameCount, long masterSeed, ForkJoinPool pool) {
+        Preconditions.checkArgument(gameCount >= 0);
+        return pool.submit(() -> IntStream.range(0, gameCount)
+                .parallel()
+                .collect(SimulationReport.Accumulator::new,
+                        (accumulator, gameIndex) -> accumulator.add(play(gameSeed(masterSeed, gameIndex))),
+                        SimulationReport.Accumulator::combine))
+                .join()
+                .toReport();
+    }
+
+    /**
+     * plays a single game whose random generator and players are initialized with the given seed
+     *
+     * @param gameSeed the seed of the game
+     * @return the result of the game
+     */
+    public Game.Result play(long gameSeed) {
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            players.put(playerId, playerFactories.get(playerId).apply(mix(gameSeed + playerId.ordinal() + 1)));
+        return Game.play(players, PLAYER_NAMES, tickets, new Random(gameSeed));
+    }
+
+    /**
+     * returns the seed of the game of given index
+     *
+     * @param masterSeed the master seed of the simulation
+     * @param gameIndex  the index of the game
+     * @return the seed of the game of given index
+     */
+    public static long gameSeed(long masterSeed, int gameIndex) {
+        return mix(masterSeed + 0x9E3779B97F4A7C15L * (gameIndex + 1L));
+    }
+
+    // Finalizer of the SplitMix64 generator, which spreads close seeds far apart.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
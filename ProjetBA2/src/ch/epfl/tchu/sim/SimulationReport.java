@@ -0,0 +1,213 @@
+package ch.epfl.tchu.sim;
+
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.PlayerId;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IntSummaryStatistics;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Aggregated results of a series of simulated games
+ *
+ * @author Tamra Antoun(324875)
+ * @author Ronan Tanios(325510)
+ */
+public final class SimulationReport {
+    private final int gameCount;
+    private final int[] wins;
+    private final int draws;
+    private final IntSummaryStatistics[] pointsStatistics;
+    private final SortedMap<Integer, Integer>[] pointsDistributions;
+    private final IntSummaryStatistics turnCountStatistics;
+    private final SortedMap<Integer, Integer> turnCountDistribution;
+
+    private SimulationReport(Accumulator accumulator) {
+        gameCount = accumulator.gameCount;
+        wins = accumulator.wins.clone();
+        draws = accumulator.draws;
+        pointsStatistics = new IntSummaryStatistics[PlayerId.COUNT];
+        pointsDistributions = newDistributions();
+        for (PlayerId playerId : PlayerId.ALL) {
+            pointsStatistics[playerId.ordinal()] = copyOf(accumulator.pointsStatistics[playerId.ordinal()]);
+            pointsDistributions[playerId.ordinal()] =
+                    Collections.unmodifiableSortedMap(new TreeMap<>(accumulator.pointsDistributions[playerId.ordinal()]));
+        }
+        turnCountStatistics = copyOf(accumulator.turnCountStatistics);
+        turnCountDistribution = Collections.unmodifiableSortedMap(new TreeMap<>(accumulator.turnCountDistribution));
+    }
+
+    /**
+     * returns the number of games played
+     *
+     * @return the number of games played
+     */
+    public int gameCount() {
+        return gameCount;
+    }
+
+    /**
+     * returns the number of games won by the given player
+     *
+     * @param playerId identity of the player
+     * @return the number of games won by the given player
+     */
+    public int wins(PlayerId playerId) {
+        return wins[playerId.ordinal()];
+    }
+
+    /**
+     * returns the proportion of the games won by the given player, between 0 and 1
+     *
+     * @param playerId identity of the player
+     * @return the proportion of the games won by the given player
+     */
+    public double winRate(PlayerId playerId) {
+        return gameCount == 0 ? 0 : (double) wins(playerId) / gameCount;
+    }
+
+    /**
+     * returns the number of games that ended in a draw
+     *
+     * @return the number of games that ended in a draw
+     */
+    public int draws() {
+        return draws;
+    }
+
+    /**
+     * returns the statistics (count, minimum, maximum, average) of the final points of the given player
+     *
+     * @param playerId identity of the player
+     * @return the statistics of the final points of the given player
+     */
+    public IntSummaryStatistics pointsStatistics(PlayerId playerId) {
+        return copyOf(pointsStatistics[playerId.ordinal()]);
+    }
+
+    /**
+     * returns the distribution of the final points of the given player,
+     * associating to each number of points the number of games the player finished with it
+     *
+     * @param playerId identity of the player
+     * @return the distribution of the final points of the given player
+     */
+    public SortedMap<Integer, Integer> pointsDistribution(PlayerId playerId) {
+        return pointsDistributions[playerId.ordinal()];
+    }
+
+    /**
+     * returns the statistics (count, minimum, maximum, average) of the number of turns of the games
+     *
+     * @return the statistics of the number of turns of the games
+     */
+    public IntSummaryStatistics turnCountStatistics() {
+        return copyOf(turnCountStatistics);
+    }
+
+    /**
+     * returns the distribution of the number of turns of the games,
+     * associating to each number of turns the number of games that lasted that long
+     *
+     * @return the distribution of the number of turns of the games
+     */
+    public SortedMap<Integer, Integer> turnCountDistribution() {
+        return turnCountDistribution;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if(!(that instanceof SimulationReport))
+            return false;
+        SimulationReport report = (SimulationReport) that;
+        return report.gameCount == gameCount
+                && report.draws == draws
+                && Arrays.equals(report.wins, wins)
+                && Arrays.equals(report.pointsDistributions, pointsDistributions)
+                && report.turnCountDistribution.equals(turnCountDistribution);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gameCount, draws, turnCountDistribution);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d games, %d draws, %.1f turns on average%n",
+                gameCount, draws, turnCountStatistics.getAverage()));
+        for (PlayerId playerId : PlayerId.ALL) {
+            IntSummaryStatistics points = pointsStatistics[playerId.ordinal()];
+            text.append(String.format("%s: %.1f%% won, %.1f points on average (min %d, max %d)%n",
+                    playerId, 100 * winRate(playerId), points.getAverage(), points.getMin(), points.getMax()));
+        }
+        return text.toString();
+    }
+
+    private static IntSummaryStatistics copyOf(IntSummaryStatistics statistics) {
+        IntSummaryStatistics copy = new IntSummaryStatistics();
+        copy.combine(statistics);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SortedMap<Integer, Integer>[] newDistributions() {
+        return (SortedMap<Integer, Integer>[]) new SortedMap<?, ?>[PlayerId.COUNT];
+    }
+
+    /**
+     * Mutable accumulator of game results, owned by a single thread and combined with the others at the end
+     */
+    static final class Accumulator {
+        private int gameCount;
+        private final int[] wins = new int[PlayerId.COUNT];
+        private int draws;
+        private final IntSummaryStatistics[] pointsStatistics = new IntSummaryStatistics[PlayerId.COUNT];
+        private final SortedMap<Integer, Integer>[] pointsDistributions = newDistributions();
+        private final IntSummaryStatistics turnCountStatistics = new IntSummaryStatistics();
+        private final SortedMap<Integer, Integer> turnCountDistribution = new TreeMap<>();
+
+        Accumulator() {
+            for (PlayerId playerId : PlayerId.ALL) {
+                pointsStatistics[playerId.ordinal()] = new IntSummaryStatistics();
+                pointsDistributions[playerId.ordinal()] = new TreeMap<>();
+            }
+        }
+
+        void add(Game.Result result) {
+            gameCount++;
+            if(result.winner() == null)
+                draws++;
+            else
+                wins[result.winner().ordinal()]++;
+            for (PlayerId playerId : PlayerId.ALL) {
+                int points = result.points(playerId);
+                pointsStatistics[playerId.ordinal()].accept(points);
+                pointsDistributions[playerId.ordinal()].merge(points, 1, Integer::sum);
+            }
+            turnCountStatistics.accept(result.turnCount());
+            turnCountDistribution.merge(result.turnCount(), 1, Integer::sum);
+        }
+
+        void combine(Accumulator that) {
+            gameCount += that.gameCount;
+            draws += that.draws;
+            for (PlayerId playerId : PlayerId.ALL) {
+                int i = playerId.ordinal();
+                wins[i] += that.wins[i];
+                pointsStatistics[i].combine(that.pointsStatistics[i]);
+                that.pointsDistributions[i].forEach((points, count) -> pointsDistributions[i].merge(points, count, Integer::sum));
+            }
+            turnCountStatistics.combine(that.turnCountStatistics);
+            that.turnCountDistribution.forEach((turns, count) -> turnCountDistribution.merge(turns, count, Integer::sum));
+        }
+
+        SimulationReport toReport() {
+            return new SimulationReport(this);
+        }
+    }
+}
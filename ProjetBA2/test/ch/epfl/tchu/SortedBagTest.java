@@ -0,0 +1,86 @@
+package ch.epfl.tchu;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedBagTest {
+    @Test
+    void sortedBagSubsetsOfSizeWorksOnKnownExample() {
+        var bag = SortedBag.of(2, "a", 2, "b");
+        var subsets = bag.subsetsOfSizeStream(2).collect(Collectors.toList());
+        assertEquals(List.of(SortedBag.of(2, "a"), SortedBag.of(1, "a", 1, "b"), SortedBag.of(2, "b")), subsets);
+        assertEquals(Set.copyOf(subsets), bag.subsetsOfSize(2));
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeWorksWithExtremeSizes() {
+        var bag = SortedBag.of(3, 1, 2, 5);
+        assertEquals(List.of(SortedBag.of()), bag.subsetsOfSizeStream(0).collect(Collectors.toList()));
+        assertEquals(List.of(bag), bag.subsetsOfSizeStream(bag.size()).collect(Collectors.toList()));
+        assertEquals(List.of(SortedBag.of()), SortedBag.<Integer>of().subsetsOfSizeStream(0).collect(Collectors.toList()));
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeFailsWithInvalidSize() {
+        var bag = SortedBag.of(3, 1, 2, 5);
+        assertThrows(IllegalArgumentException.class, () -> bag.subsetsOfSizeStream(-1));
+        assertThrows(IllegalArgumentException.class, () -> bag.subsetsOfSizeStream(6));
+        assertThrows(IllegalArgumentException.class, () -> bag.subsetsOfSize(6));
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeProducesAllSubsetsOnceInOrder() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var bag = randomBag(rng);
+            for (int size = 0; size <= bag.size(); size++) {
+                var subsets = bag.subsetsOfSizeStream(size).collect(Collectors.toList());
+                assertEquals(naiveSubsetsOfSize(bag, size), new HashSet<>(subsets));
+                assertEquals(subsets.size(), new HashSet<>(subsets).size());
+                for (int j = 1; j < subsets.size(); j++)
+                    assertTrue(compareMultiplicities(bag, subsets.get(j - 1), subsets.get(j)) > 0);
+            }
+        }
+    }
+
+    private static SortedBag<Integer> randomBag(Random rng) {
+        var builder = new SortedBag.Builder<Integer>();
+        var distinct = 1 + rng.nextInt(4);
+        for (int e = 0; e < distinct; e++)
+            builder.add(1 + rng.nextInt(3), e);
+        return builder.build();
+    }
+
+    private static Set<SortedBag<Integer>> naiveSubsetsOfSize(SortedBag<Integer> bag, int size) {
+        var subsets = new HashSet<SortedBag<Integer>>();
+        var elements = bag.toList();
+        for (int mask = 0; mask < 1 << elements.size(); mask++) {
+            if (Integer.bitCount(mask) != size)
+                continue;
+            var builder = new SortedBag.Builder<Integer>();
+            for (int j = 0; j < elements.size(); j++) {
+                if ((mask & (1 << j)) != 0)
+                    builder.add(elements.get(j));
+            }
+            subsets.add(builder.build());
+        }
+        return subsets;
+    }
+
+    private static int compareMultiplicities(SortedBag<Integer> bag, SortedBag<Integer> s1, SortedBag<Integer> s2) {
+        for (Integer e : bag.toSet()) {
+            var c = Integer.compare(s1.countOf(e), s2.countOf(e));
+            if (c != 0)
+                return c;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,78 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.tchu.sim.MatchSimulator;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsPlayerTest {
+    private static final int GAME_COUNT = 4;
+    private static final int ITERATIONS = 40;
+
+    private static MctsPlayer newPlayer(long seed, Duration timeBudget, int maxIterations) {
+        return new MctsPlayer(seed, timeBudget, maxIterations, 2, ForkJoinPool.commonPool());
+    }
+
+    private static Player playerAtFirstTurn(Player player) {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var playerId = state.currentPlayerId();
+        player.initPlayers(playerId, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"));
+        player.updateState(state, state.playerState(playerId));
+        return player;
+    }
+
+    @Test
+    void mctsPlayerConstructorFailsWithInvalidArguments() {
+        var pool = ForkJoinPool.commonPool();
+        assertThrows(IllegalArgumentException.class, () -> new MctsPlayer(1, Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new MctsPlayer(1, Duration.ofMillis(1), 0, 1, pool));
+        assertThrows(IllegalArgumentException.class, () -> new MctsPlayer(1, Duration.ofMillis(1), 1, 0, pool));
+    }
+
+    @Test
+    void mctsPlayerBeatsRandomPlayers() {
+        // The random players check that they are only asked for legal actions
+        var report = new MatchSimulator(
+                seed -> newPlayer(seed, Duration.ofSeconds(5), ITERATIONS),
+                seed -> new TestPlayer(seed, ChMap.routes()),
+                SortedBag.of(ChMap.tickets()))
+                .run(GAME_COUNT, TestRandomizer.SEED);
+        assertEquals(GAME_COUNT, report.gameCount());
+        assertTrue(report.wins(PlayerId.PLAYER_1) >= GAME_COUNT - 1);
+    }
+
+    @Test
+    void mctsPlayerRespectsTimeBudget() {
+        var budget = Duration.ofMillis(50);
+        var player = playerAtFirstTurn(newPlayer(TestRandomizer.SEED, budget, Integer.MAX_VALUE));
+        long start = System.nanoTime();
+        assertNotNull(player.nextTurn());
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed >= budget.toNanos());
+        assertTrue(elapsed < budget.toNanos() + Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void mctsPlayerTakesADecisionWithOneIteration() {
+        var player = playerAtFirstTurn(newPlayer(TestRandomizer.SEED, Duration.ZERO, 1));
+        var turnKind = player.nextTurn();
+        if (turnKind == Player.TurnKind.DRAW_CARDS) {
+            int slot = player.drawSlot();
+            assertTrue(Constants.DECK_SLOT <= slot && slot < Constants.FACE_UP_CARDS_COUNT);
+        } else if (turnKind == Player.TurnKind.CLAIM_ROUTE) {
+            assertTrue(player.claimedRoute().possibleClaimCards().contains(player.initialClaimCards()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.Benchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Measures the playouts of the search from the start of seeded games: uniformly random decisions against the rollout
+ * policy, and the rate of decisions of each. Run with the main method.
+ */
+public final class RolloutBenchmark {
+    private static final int STATE_COUNT = 20;
+
+    private RolloutBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        var rng = TestRandomizer.newRandom();
+        var states = new ArrayList<MutableGameState>();
+        for (int i = 0; i < STATE_COUNT; i++) {
+            var state = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+            for (var playerId : PlayerId.ALL)
+                state = state.withInitiallyChosenTickets(playerId, state.topTickets(3)).withoutTopTickets(3);
+            states.add(MutableGameState.of(state));
+        }
+        var decisions = new int[Simulation.maxDecisionCount(states.get(0))];
+        var policy = new RolloutPolicy(states.get(0));
+        var playoutRng = new Random(TestRandomizer.SEED);
+        long[] decisionCounts = new long[2];
+
+        new Benchmark("playouts from the start of a game")
+                .add("random decisions (to the end, undone)", i -> {
+                    var state = states.get(i % states.size());
+                    var simulation = new Simulation(state, Simulation.TURN_START, 0);
+                    while (!simulation.isOver()) {
+                        simulation.apply(decisions[playoutRng.nextInt(simulation.decisions(decisions))], playoutRng);
+                        decisionCounts[0]++;
+                    }
+                    int actionCount = state.actionCount();
+                    state.undoUntil(0);
+                    return actionCount;
+                })
+                .add("rollout policy (to the end, undone)", i -> {
+                    var state = states.get(i % states.size());
+                    var simulation = new Simulation(state, Simulation.TURN_START, 0);
+                    while (!simulation.isOver()) {
+                        simulation.apply(policy.decision(simulation, playoutRng), playoutRng);
+                        decisionCounts[1]++;
+                    }
+                    int actionCount = state.actionCount();
+                    state.undoUntil(0);
+                    return actionCount;
+                })
+                .add("rollout policy (to the end, scored)", i -> {
+                    var state = states.get(i % states.size());
+                    var simulation = new Simulation(state, Simulation.TURN_START, 0);
+                    while (!simulation.isOver())
+                        simulation.apply(policy.decision(simulation, playoutRng), playoutRng);
+                    long value = Math.round(simulation.value(PlayerId.PLAYER_1) * 100);
+                    state.undoUntil(0);
+                    return value;
+                })
+                .run();
+
+        for (int kind = 0; kind < decisionCounts.length; kind++) {
+            long start = System.nanoTime();
+            long count = 0;
+            while (System.nanoTime() - start < 1_000_000_000L) {
+                var state = states.get((int) (count % states.size()));
+                var simulation = new Simulation(state, Simulation.TURN_START, 0);
+                while (!simulation.isOver()) {
+                    simulation.apply(kind == 0
+                            ? decisions[playoutRng.nextInt(simulation.decisions(decisions))]
+                            : policy.decision(simulation, playoutRng), playoutRng);
+                    count++;
+                }
+                state.undoUntil(0);
+            }
+            System.out.printf("%s: %,.0f decisions per second%n", kind == 0 ? "random decisions" : "rollout policy",
+                    count * 1e9 / (System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RolloutPolicyTest {
+    private static final int GAME_COUNT = 20;
+
+    private static Simulation newSimulation(Random rng) {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+        for (var playerId : PlayerId.ALL)
+            state = state.withInitiallyChosenTickets(playerId, state.topTickets(3)).withoutTopTickets(3);
+        return new Simulation(MutableGameState.of(state), Simulation.TURN_START, 0);
+    }
+
+    @Test
+    void rolloutPolicyOnlyTakesPossibleDecisions() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var simulation = newSimulation(rng);
+            var policy = new RolloutPolicy(simulation.state());
+            var decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+            while (!simulation.isOver()) {
+                int count = simulation.decisions(decisions);
+                int decision = policy.decision(simulation, rng);
+                boolean possible = false;
+                for (int j = 0; j < count; j++)
+                    possible |= decisions[j] == decision;
+                assertTrue(possible);
+                simulation.apply(decision, rng);
+            }
+        }
+    }
+
+    @Test
+    void rolloutPolicyBeatsRandomDecisions() {
+        var rng = TestRandomizer.newRandom();
+        int wins = 0;
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var simulation = newSimulation(rng);
+            var policy = new RolloutPolicy(simulation.state());
+            var decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+            while (!simulation.isOver()) {
+                int decision = simulation.playerToMove() == PlayerId.PLAYER_1
+                        ? policy.decision(simulation, rng)
+                        : decisions[rng.nextInt(simulation.decisions(decisions))];
+                simulation.apply(decision, rng);
+            }
+            if (simulation.points(PlayerId.PLAYER_1) > simulation.points(PlayerId.PLAYER_2))
+                wins++;
+        }
+        assertTrue(wins >= GAME_COUNT * 3 / 4);
+    }
+
+    @Test
+    void rolloutPolicyPlaysBothPlayersUntilTheEnd() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var simulation = newSimulation(rng);
+            var policy = new RolloutPolicy(simulation.state());
+            int decisionCount = 0;
+            while (!simulation.isOver()) {
+                simulation.apply(policy.decision(simulation, rng), rng);
+                decisionCount++;
+            }
+            assertNotNull(simulation.state().lastPlayer());
+            assertTrue(decisionCount < 1_000);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Station;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathsTest {
+    private static final int BLOCKED = -1;
+
+    // Floyd-Warshall on the given costs of the routes of ChMap, a blocked route having cost -1
+    private static int[][] floydWarshall(int[] costs) {
+        int n = ChMap.stations().size();
+        int[][] d = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++)
+                d[i][j] = (i == j) ? 0 : ShortestPaths.UNREACHABLE;
+        }
+        for (int r = 0; r < costs.length; r++) {
+            if (costs[r] == BLOCKED)
+                continue;
+            var route = ChMap.routes().get(r);
+            int s1 = route.station1().id();
+            int s2 = route.station2().id();
+            d[s1][s2] = Math.min(d[s1][s2], costs[r]);
+            d[s2][s1] = Math.min(d[s2][s1], costs[r]);
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (d[i][k] != ShortestPaths.UNREACHABLE && d[k][j] != ShortestPaths.UNREACHABLE)
+                        d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+                }
+            }
+        }
+        return d;
+    }
+
+    private static void assertSameDistances(int[][] expected, ShortestPaths paths) {
+        var stations = ChMap.stations();
+        for (Station from : stations) {
+            for (Station to : stations)
+                assertEquals(expected[from.id()][to.id()], paths.distance(from, to));
+        }
+    }
+
+    private static int[] initialCosts() {
+        int[] costs = new int[ChMap.routes().size()];
+        for (int i = 0; i < costs.length; i++)
+            costs[i] = ChMap.routes().get(i).length();
+        return costs;
+    }
+
+    @Test
+    void shortestPathsMatchAllPairsSearchOnChMap() {
+        assertSameDistances(floydWarshall(initialCosts()), ShortestPaths.chMap());
+    }
+
+    @Test
+    void shortestPathsAreUpdatedCorrectlyWhenRoutesAreClaimed() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 10; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            int[] costs = initialCosts();
+            var paths = ShortestPaths.chMap();
+            for (Route route : routes.subList(0, 40)) {
+                int index = ChMap.routes().indexOf(route);
+                if (rng.nextBoolean()) {
+                    paths = paths.withBlockedRoute(route);
+                    costs[index] = BLOCKED;
+                } else {
+                    paths = paths.withOwnedRoute(route);
+                    costs[index] = 0;
+                }
+                assertSameDistances(floydWarshall(costs), paths);
+            }
+        }
+    }
+
+    @Test
+    void shortestPathsRoutesConnectTheStations() {
+        var rng = TestRandomizer.newRandom();
+        var stations = ChMap.stations();
+        var paths = ShortestPaths.chMap();
+        for (Route route : ChMap.routes().subList(0, 10))
+            paths = paths.withOwnedRoute(route);
+        for (Route route : ChMap.routes().subList(10, 20))
+            paths = paths.withBlockedRoute(route);
+
+        for (int i = 0; i < 200; i++) {
+            Station from = stations.get(rng.nextInt(stations.size()));
+            Station to = stations.get(rng.nextInt(stations.size()));
+            List<Route> path = paths.path(from, to);
+            int length = 0;
+            for (Route route : path) {
+                assertFalse(ChMap.routes().subList(0, 20).contains(route));
+                length += route.length();
+            }
+            if (paths.distance(from, to) == ShortestPaths.UNREACHABLE)
+                assertTrue(path.isEmpty());
+            else
+                assertEquals(paths.distance(from, to), length);
+        }
+    }
+
+    @Test
+    void shortestPathsTicketDistanceIsTheDistanceOfTheCheapestTrip() {
+        var paths = ShortestPaths.chMap();
+        for (var ticket : ChMap.tickets()) {
+            var trip = paths.cheapestTrip(ticket);
+            int distance = paths.ticketDistance(ticket);
+            assertEquals(paths.distance(trip.from(), trip.to()), distance);
+            for (var other : ticket.trips())
+                assertTrue(distance <= paths.distance(other.from(), other.to()));
+            assertTrue(paths.isFeasible(ticket, distance));
+            assertFalse(paths.isFeasible(ticket, distance - 1));
+        }
+    }
+
+    @Test
+    void shortestPathsFailsOnAlreadyClaimedRoute() {
+        var route = ChMap.routes().get(0);
+        var paths = ShortestPaths.chMap().withBlockedRoute(route);
+        assertThrows(IllegalArgumentException.class, () -> paths.withBlockedRoute(route));
+        assertThrows(IllegalArgumentException.class, () -> paths.withOwnedRoute(route));
+    }
+}
@@ -0,0 +1,86 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+    private static GameState initialState() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        for (var playerId : PlayerId.ALL) {
+            state = state.withInitiallyChosenTickets(playerId, state.topTickets(3)).withoutTopTickets(3);
+        }
+        return state;
+    }
+
+    @Test
+    void simulationDecisionCodesAreDecodedCorrectly() {
+        for (int slot = Constants.DECK_SLOT; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+            assertEquals(Simulation.DRAW_CARD, Simulation.kind(Simulation.drawCard(slot)));
+            assertEquals(slot, Simulation.slot(Simulation.drawCard(slot)));
+        }
+        for (int positions = 1; positions < 8; positions++) {
+            assertEquals(Simulation.KEEP_TICKETS, Simulation.kind(Simulation.keepTickets(positions)));
+            assertEquals(positions, Simulation.ticketPositions(Simulation.keepTickets(positions)));
+        }
+        for (int routeIndex = 0; routeIndex < ChMap.routes().size(); routeIndex++) {
+            int claimCardsCount = ChMap.routes().get(routeIndex).possibleClaimCards().size();
+            for (int i = 0; i < claimCardsCount; i++) {
+                int decision = Simulation.claimRoute(routeIndex, i);
+                assertEquals(Simulation.CLAIM_ROUTE, Simulation.kind(decision));
+                assertEquals(routeIndex, Simulation.routeIndex(decision));
+                assertEquals(i, Simulation.claimCardsIndex(decision));
+            }
+        }
+    }
+
+    @Test
+    void simulationDecisionsAreThoseOfTheRules() {
+        var state = initialState();
+        var simulation = new Simulation(MutableGameState.of(state), Simulation.TURN_START, 0);
+        var decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+        int count = simulation.decisions(decisions);
+
+        var claimable = state.currentPlayerState().claimableRoutes(ChMap.routes(), List.of());
+        int claimCount = claimable.values().stream().mapToInt(List::size).sum();
+        assertEquals(1 + Constants.FACE_UP_CARDS_COUNT + 1 + claimCount, count);
+        assertEquals(Simulation.DRAW_TICKETS, decisions[0]);
+
+        simulation.apply(Simulation.DRAW_TICKETS, TestRandomizer.newRandom());
+        assertEquals(7, simulation.decisions(decisions));
+        simulation.apply(Simulation.keepTickets(0b101), TestRandomizer.newRandom());
+        assertEquals(5, simulation.state().ticketCount(state.currentPlayerId()));
+        assertEquals(state.currentPlayerId().next(), simulation.playerToMove());
+    }
+
+    @Test
+    void simulationRandomGamesEndWithConsistentPoints() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 10; i++) {
+            var simulation = new Simulation(MutableGameState.of(initialState()), Simulation.TURN_START, 0);
+            var decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+            while (!simulation.isOver())
+                simulation.apply(decisions[rng.nextInt(simulation.decisions(decisions))], rng);
+
+            var finalState = simulation.state().toGameState();
+            assertNotNull(finalState.lastPlayer());
+            for (var playerId : PlayerId.ALL) {
+                var playerState = finalState.playerState(playerId);
+                int bonus = playerState.longestTrail().length()
+                        >= finalState.playerState(playerId.next()).longestTrail().length()
+                        ? Constants.LONGEST_TRAIL_BONUS_POINTS : 0;
+                assertEquals(playerState.finalPoints() + bonus, simulation.points(playerId));
+            }
+            assertEquals(1.0, simulation.value(PlayerId.PLAYER_1) + simulation.value(PlayerId.PLAYER_2), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ch.epfl.tchu.ai;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.MutableGameState;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeSearchTest {
+    private static final int ITERATIONS = 60;
+
+    private static TreeSearch newSearch() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        return new TreeSearch(rng -> new Simulation(MutableGameState.of(state), Simulation.TURN_START, 0));
+    }
+
+    @Test
+    void treeSearchBestDecisionFailsBeforeAnyIteration() {
+        assertThrows(IllegalStateException.class, () -> newSearch().bestDecision());
+    }
+
+    @Test
+    void treeSearchRunsExactlyMaxIterationsOnAllThreads() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var search = newSearch();
+            search.run(Long.MAX_VALUE, ITERATIONS, 4, TestRandomizer.SEED, pool);
+            assertEquals(ITERATIONS, search.iterationCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void treeSearchRunsAtLeastOneIterationAfterDeadline() {
+        var search = newSearch();
+        search.run(System.nanoTime() - 1, ITERATIONS, 2, TestRandomizer.SEED, ForkJoinPool.commonPool());
+        assertEquals(1, search.iterationCount());
+    }
+
+    @Test
+    void treeSearchBestDecisionIsPossible() {
+        var search = newSearch();
+        search.run(Long.MAX_VALUE, ITERATIONS, 2, TestRandomizer.SEED, ForkJoinPool.commonPool());
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var simulation = new Simulation(MutableGameState.of(state), Simulation.TURN_START, 0);
+        var decisions = new int[Simulation.maxDecisionCount(simulation.state())];
+        int count = simulation.decisions(decisions);
+        int best = search.bestDecision();
+        boolean found = false;
+        for (int i = 0; i < count; i++)
+            found |= decisions[i] == best;
+        assertTrue(found);
+    }
+}
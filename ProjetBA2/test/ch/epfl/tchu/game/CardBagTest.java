@@ -0,0 +1,85 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardBagTest {
+    @Test
+    void cardBagOfIsEmpty() {
+        var bag = CardBag.of();
+        assertTrue(bag.isEmpty());
+        assertEquals(0, bag.size());
+        assertEquals(SortedBag.of(), bag.toSortedBag());
+        for (Card card : Card.ALL)
+            assertEquals(0, bag.countOf(card));
+    }
+
+    @Test
+    void cardBagOfFailsWithInvalidCount() {
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(-1, Card.RED));
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(CardBag.MAX_COUNT + 1, Card.RED));
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(CardBag.MAX_COUNT, Card.RED).with(Card.RED));
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of().without(Card.RED));
+    }
+
+    @Test
+    void cardBagRoundTripsThroughSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cards = randomCards(rng);
+            var bag = CardBag.of(cards);
+            assertEquals(cards, bag.toSortedBag());
+            assertEquals(cards.size(), bag.size());
+            assertEquals(cards.isEmpty(), bag.isEmpty());
+            assertEquals(cards.toSet(), bag.toSet());
+            assertEquals(cards.toString(), bag.toString());
+            assertEquals(bag, CardBag.ofPacked(bag.packed()));
+            for (Card card : Card.ALL) {
+                assertEquals(cards.countOf(card), bag.countOf(card));
+                assertEquals(cards.contains(card), bag.contains(card));
+            }
+        }
+    }
+
+    @Test
+    void cardBagOperationsMatchSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cards1 = randomCards(rng);
+            var cards2 = randomCards(rng);
+            var bag1 = CardBag.of(cards1);
+            var bag2 = CardBag.of(cards2);
+            var card = Card.ALL.get(rng.nextInt(Card.COUNT));
+
+            assertEquals(cards1.union(cards2), bag1.union(bag2).toSortedBag());
+            assertEquals(cards1.difference(cards2), bag1.difference(bag2).toSortedBag());
+            assertEquals(cards1.contains(cards2), bag1.contains(bag2));
+            assertTrue(bag1.union(bag2).contains(bag2));
+            assertEquals(cards1.union(SortedBag.of(card)), bag1.with(card).toSortedBag());
+            if (cards1.contains(card))
+                assertEquals(cards1.difference(SortedBag.of(card)), bag1.without(card).toSortedBag());
+            assertEquals(cards1.equals(cards2), bag1.equals(bag2));
+        }
+    }
+
+    @Test
+    void cardBagOfTwoCardsWorks() {
+        var bag = CardBag.of(2, Card.BLUE, 3, Card.LOCOMOTIVE);
+        assertEquals(SortedBag.of(2, Card.BLUE, 3, Card.LOCOMOTIVE), bag.toSortedBag());
+        assertEquals(CardBag.of(5, Card.RED), CardBag.of(2, Card.RED, 3, Card.RED));
+    }
+
+    private static SortedBag<Card> randomCards(Random rng) {
+        var builder = new SortedBag.Builder<Card>();
+        for (Card card : Card.ALL) {
+            if (rng.nextBoolean())
+                builder.add(rng.nextInt(15), card);
+        }
+        return builder.build();
+    }
+}
@@ -120,6 +120,19 @@ class DeckTest {
         assertEquals(cards, actualCardsBuilder.build());
     }
 
+    @Test
+    void deckWithoutTopCardDoesNotModifyReceiver() {
+        var cards = SortedBag.of(listOfSize(50));
+        var deck = Deck.of(cards, TestRandomizer.newRandom());
+        var deckList = deckToList(deck);
+        var smallerDeck = deck.withoutTopCard().withoutTopCards(10);
+
+        assertEquals(deckList, deckToList(deck));
+        assertEquals(deckList.subList(11, 50), deckToList(smallerDeck));
+        assertEquals(SortedBag.of(deckList.subList(11, 16)), smallerDeck.topCards(5));
+        assertEquals(deckList.get(0), deck.topCard());
+    }
+
     private static <E extends Comparable<E>> List<E> deckToList(Deck<E> deck) {
         var list = new ArrayList<E>(deck.size());
         while (!deck.isEmpty()) {
@@ -0,0 +1,220 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.Benchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures the hot paths of the game model on states taken from seeded random games on the real map:
+ * longest trail, ticket scoring, enumeration of the claim and additional cards, and whole turns.
+ * Run with the main method; times and allocations are given per operation.
+ */
+public final class GameBenchmark {
+    private static final int GAME_COUNT = 20;
+    private static final int MAX_STATES_PER_GAME = 30;
+
+    private GameBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        var rng = TestRandomizer.newRandom();
+        var tickets = SortedBag.of(ChMap.tickets());
+        var allRoutes = ChMap.routes();
+
+        var states = new ArrayList<GameState>();
+        var finalStates = new ArrayList<GameState>();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var recorder = new RecordingPlayer(new TestPlayer(rng.nextLong(), allRoutes));
+            var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+            players.put(PlayerId.PLAYER_1, recorder);
+            players.put(PlayerId.PLAYER_2, new TestPlayer(rng.nextLong(), allRoutes));
+            Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"), tickets, new Random(rng.nextLong()));
+
+            var recorded = recorder.states();
+            int step = Math.max(1, recorded.size() / MAX_STATES_PER_GAME);
+            for (int j = 0; j < recorded.size(); j += step)
+                states.add(recorded.get(j));
+            finalStates.add(recorded.get(recorded.size() - 1));
+        }
+
+        var finalPlayerStates = new ArrayList<PlayerState>();
+        for (GameState state : finalStates) {
+            for (PlayerId playerId : PlayerId.ALL)
+                finalPlayerStates.add(state.playerState(playerId));
+        }
+
+        var playerStates = new ArrayList<PlayerState>();
+        var drawableStates = new ArrayList<GameState>();
+        var claimingStates = new ArrayList<GameState>();
+        var claims = new ArrayList<Route>();
+        var claimCards = new ArrayList<SortedBag<Card>>();
+        var tunnelStates = new ArrayList<PlayerState>();
+        var tunnelCards = new ArrayList<SortedBag<Card>>();
+        var tunnelDrawnCards = new ArrayList<SortedBag<Card>>();
+        var tunnelAdditionalCounts = new ArrayList<Integer>();
+        for (GameState state : states) {
+            var playerState = state.currentPlayerState();
+            playerStates.add(playerState);
+            if (state.canDrawCards())
+                drawableStates.add(state);
+
+            var claimed = state.claimedRoutes();
+            for (Route route : allRoutes) {
+                if (claimed.contains(route) || !playerState.canClaimRoute(route))
+                    continue;
+                var options = playerState.possibleClaimCards(route);
+                if (claimingStates.size() < states.size()) {
+                    claimingStates.add(state);
+                    claims.add(route);
+                    claimCards.add(options.get(0));
+                }
+                if (route.level() == Route.Level.UNDERGROUND) {
+                    for (SortedBag<Card> option : options) {
+                        var drawn = randomCards(rng, 3);
+                        var additionalCount = route.additionalClaimCardsCount(option, drawn);
+                        if (additionalCount > 0) {
+                            tunnelStates.add(playerState);
+                            tunnelCards.add(option);
+                            tunnelDrawnCards.add(drawn);
+                            tunnelAdditionalCounts.add(additionalCount);
+                        }
+                    }
+                }
+            }
+        }
+
+        var subsetBags = new ArrayList<SortedBag<Card>>();
+        for (int i = 0; i < 64; i++)
+            subsetBags.add(randomCards(rng, 8));
+
+        var deckCards = Constants.ALL_CARDS;
+        var encodedStates = new ArrayList<long[]>();
+        for (GameState state : states)
+            encodedStates.add(GameStateCodec.chMap().encode(state));
+
+        System.out.printf("%d states from %d games, %d final player states, %d tunnel fixtures%n%n",
+                states.size(), GAME_COUNT, finalPlayerStates.size(), tunnelStates.size());
+
+        new Benchmark("longest trail and ticket scoring")
+                .add("Trail.longest (end of game)",
+                        i -> Trail.longest(finalPlayerStates.get(i % finalPlayerStates.size()).routes()).length())
+                .add("LongestTrailTracker.of (end of game)",
+                        i -> LongestTrailTracker.of(finalPlayerStates.get(i % finalPlayerStates.size()).routes()).longestLength())
+                .add("PlayerState.ticketPoints (end of game)",
+                        i -> finalPlayerStates.get(i % finalPlayerStates.size()).ticketPoints())
+                .add("StationPartition.Builder (end of game)", i -> {
+                    var routes = finalPlayerStates.get(i % finalPlayerStates.size()).routes();
+                    var builder = new StationPartition.Builder(ChMap.stations().size());
+                    for (Route route : routes)
+                        builder.connect(route.station1(), route.station2());
+                    var partition = builder.build();
+                    return routes.isEmpty() ? 0 : partition.connected(routes.get(0).station1(), routes.get(0).station2()) ? 1 : 0;
+                })
+                .run();
+
+        new Benchmark("claim cards enumeration")
+                .add("Route.possibleClaimCards (all routes)",
+                        i -> allRoutes.get(i % allRoutes.size()).possibleClaimCards().size())
+                .add("PlayerState.canClaimRoute (all routes)", i -> {
+                    var playerState = playerStates.get((i / allRoutes.size()) % playerStates.size());
+                    return playerState.canClaimRoute(allRoutes.get(i % allRoutes.size())) ? 1 : 0;
+                })
+                .add("PlayerState.claimableRoutes (all routes)", i -> {
+                    var state = states.get(i % states.size());
+                    return state.currentPlayerState().claimableRoutes(allRoutes, state.claimedRoutes()).size();
+                })
+                .add("PlayerState.possibleClaimCards", i -> {
+                    int claim = i % claims.size();
+                    return claimingStates.get(claim).currentPlayerState().possibleClaimCards(claims.get(claim)).size();
+                })
+                .add("PlayerState.possibleAdditionalCards", i -> {
+                    int tunnel = i % tunnelStates.size();
+                    return tunnelStates.get(tunnel).possibleAdditionalCards(tunnelAdditionalCounts.get(tunnel),
+                            tunnelCards.get(tunnel), tunnelDrawnCards.get(tunnel)).size();
+                })
+                .add("PlayerState.possibleAdditionalCardsCount", i -> {
+                    int tunnel = i % tunnelStates.size();
+                    return tunnelStates.get(tunnel).possibleAdditionalCardsCount(tunnelAdditionalCounts.get(tunnel),
+                            tunnelCards.get(tunnel), tunnelDrawnCards.get(tunnel));
+                })
+                .add("SortedBag.subsetsOfSize (8 cards, 3)",
+                        i -> subsetBags.get(i % subsetBags.size()).subsetsOfSize(3).size())
+                .run();
+
+        var mutableDrawableStates = new ArrayList<MutableGameState>();
+        for (GameState state : drawableStates)
+            mutableDrawableStates.add(MutableGameState.of(state));
+        var mutableClaimingStates = new ArrayList<MutableGameState>();
+        var claimIndices = new int[claims.size()];
+        var claimCardBags = new ArrayList<CardBag>();
+        for (int i = 0; i < claims.size(); i++) {
+            mutableClaimingStates.add(MutableGameState.of(claimingStates.get(i)));
+            claimIndices[i] = mutableClaimingStates.get(i).routeIndex(claims.get(i));
+            claimCardBags.add(CardBag.of(claimCards.get(i)));
+        }
+
+        var turnRng = new Random(TestRandomizer.SEED);
+        new Benchmark("state transitions")
+                .add("Deck.of (all cards)", i -> Deck.of(deckCards, turnRng).topCard().ordinal())
+                .add("draw two cards turn", i -> {
+                    var state = drawableStates.get(i % drawableStates.size());
+                    state = state.withCardsDeckRecreatedIfNeeded(turnRng).withBlindlyDrawnCard();
+                    if (state.canDrawCards())
+                        state = state.withCardsDeckRecreatedIfNeeded(turnRng).withDrawnFaceUpCard(0);
+                    return state.forNextTurn().currentPlayerState().cardCount();
+                })
+                .add("claim route turn", i -> {
+                    int claim = i % claims.size();
+                    return claimingStates.get(claim).withClaimedRoute(claims.get(claim), claimCards.get(claim))
+                            .forNextTurn().claimedRoutes().size();
+                })
+                .add("draw two cards turn (mutable, with undo)", i -> {
+                    var state = mutableDrawableStates.get(i % mutableDrawableStates.size());
+                    int mark = state.actionCount();
+                    state.recreateDeckIfNeeded(turnRng);
+                    state.drawBlindCard();
+                    if (state.canDrawCards()) {
+                        state.recreateDeckIfNeeded(turnRng);
+                        state.drawFaceUpCard(0);
+                    }
+                    state.nextTurn();
+                    int cardCount = state.cardCount(state.currentPlayerId().next());
+                    state.undoUntil(mark);
+                    return cardCount;
+                })
+                .add("claim route turn (mutable, with undo)", i -> {
+                    int claim = i % claims.size();
+                    var state = mutableClaimingStates.get(claim);
+                    state.claimRoute(claimIndices[claim], claimCardBags.get(claim));
+                    state.nextTurn();
+                    int claimPoints = state.claimPoints(state.currentPlayerId().next());
+                    state.undoUntil(state.actionCount() - 2);
+                    return claimPoints;
+                })
+                .add("GameStateCodec.encode",
+                        i -> GameStateCodec.chMap().encode(states.get(i % states.size()))[0])
+                .add("GameStateCodec.decode",
+                        i -> GameStateCodec.chMap().decode(encodedStates.get(i % encodedStates.size())).ticketsCount())
+                .add("whole game (random players)", i -> {
+                    var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+                    players.put(PlayerId.PLAYER_1, new TestPlayer(i, allRoutes));
+                    players.put(PlayerId.PLAYER_2, new TestPlayer(~i, allRoutes));
+                    return Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"),
+                            tickets, new Random(i)).turnCount();
+                })
+                .run();
+    }
+
+    private static SortedBag<Card> randomCards(Random rng, int count) {
+        var builder = new SortedBag.Builder<Card>();
+        for (int i = 0; i < count; i++)
+            builder.add(Card.ALL.get(rng.nextInt(Card.COUNT)));
+        return builder.build();
+    }
+}
@@ -0,0 +1,135 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateCodecTest {
+    private static final int GAME_COUNT = 5;
+
+    private static List<GameState> recordedStates() {
+        var rng = TestRandomizer.newRandom();
+        var states = new ArrayList<GameState>();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var recorder = new RecordingPlayer(new TestPlayer(rng.nextLong(), ChMap.routes()));
+            var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+            players.put(PlayerId.PLAYER_1, recorder);
+            players.put(PlayerId.PLAYER_2, new TestPlayer(rng.nextLong(), ChMap.routes()));
+            Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"),
+                    SortedBag.of(ChMap.tickets()), new Random(rng.nextLong()));
+            states.addAll(recorder.states());
+        }
+        return states;
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        assertEquals(expected.topTickets(expected.ticketsCount()), actual.topTickets(actual.ticketsCount()));
+
+        var expectedCards = expected.cardState();
+        var actualCards = actual.cardState();
+        assertEquals(expectedCards.faceUpCards(), actualCards.faceUpCards());
+        assertEquals(expectedCards.deckSize(), actualCards.deckSize());
+        assertEquals(expectedCards.discardsSize(), actualCards.discardsSize());
+        assertEquals(expectedCards.discards(), actualCards.discards());
+        for (int i = 0; i < expectedCards.deckSize(); i++)
+            assertEquals(expectedCards.deck().card(i), actualCards.deck().card(i));
+        for (int i = 0; i < expected.ticketsCount(); i++)
+            assertEquals(expected.ticketDeck().card(i).text(), actual.ticketDeck().card(i).text());
+
+        for (var playerId : PlayerId.ALL) {
+            var expectedPlayer = expected.playerState(playerId);
+            var actualPlayer = actual.playerState(playerId);
+            assertEquals(expectedPlayer.tickets(), actualPlayer.tickets());
+            assertEquals(expectedPlayer.cards(), actualPlayer.cards());
+            assertEquals(new HashSet<>(expectedPlayer.routes()), new HashSet<>(actualPlayer.routes()));
+            assertEquals(expectedPlayer.carCount(), actualPlayer.carCount());
+            assertEquals(expectedPlayer.claimPoints(), actualPlayer.claimPoints());
+            assertEquals(expectedPlayer.ticketPoints(), actualPlayer.ticketPoints());
+            assertEquals(expectedPlayer.longestTrail().length(), actualPlayer.longestTrail().length());
+        }
+    }
+
+    @Test
+    void gameStateCodecEncodingHasFixedCompactLength() {
+        var codec = GameStateCodec.chMap();
+        assertTrue(codec.encodedLength() <= 24);
+        for (var state : recordedStates())
+            assertEquals(codec.encodedLength(), codec.encode(state).length);
+    }
+
+    @Test
+    void gameStateCodecRoundTripWorksOnRecordedStates() {
+        var codec = GameStateCodec.chMap();
+        for (var state : recordedStates()) {
+            var encoded = codec.encode(state);
+            var decoded = codec.decode(encoded);
+            assertSameState(state, decoded);
+            assertArrayEquals(encoded, codec.encode(decoded));
+        }
+    }
+
+    @Test
+    void gameStateCodecRoundTripWorksThroughByteBuffer() {
+        var codec = GameStateCodec.chMap();
+        var states = recordedStates();
+        var buffer = ByteBuffer.allocate(states.size() * codec.encodedLength() * Long.BYTES);
+        for (var state : states)
+            codec.encode(state, buffer);
+        assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+        for (var state : states)
+            assertArrayEquals(codec.encode(state), codec.encode(codec.decode(buffer)));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void gameStateCodecEncodingsOfDifferentStatesDiffer() {
+        var codec = GameStateCodec.chMap();
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var next = List.of(
+                state,
+                state.forNextTurn(),
+                state.withBlindlyDrawnCard(),
+                state.withDrawnFaceUpCard(0),
+                state.withoutTopTickets(1),
+                state.withInitiallyChosenTickets(state.currentPlayerId(), state.topTickets(3)),
+                state.withMoreDiscardedCards(SortedBag.of(Card.RED)));
+
+        var keys = new HashSet<LongBuffer>();
+        for (var s : next)
+            keys.add(LongBuffer.wrap(codec.encode(s)));
+        assertEquals(next.size(), keys.size());
+        assertTrue(keys.contains(LongBuffer.wrap(codec.encode(codec.decode(codec.encode(state))))));
+    }
+
+    @Test
+    void gameStateCodecDecodeFailsWithWrongLength() {
+        var codec = GameStateCodec.chMap();
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new long[codec.encodedLength() - 1]));
+    }
+
+    @Test
+    void gameStateCodecEncodeFailsWithUnknownRoute() {
+        var codec = new GameStateCodec(ChMap.routes().subList(0, 10), ChMap.tickets());
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var route = ChMap.routes().get(20);
+        var claimed = state.withClaimedRoute(route, route.possibleClaimCards().get(0));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(claimed));
+        assertArrayEquals(codec.encode(state), codec.encode(codec.decode(codec.encode(state))));
+    }
+}
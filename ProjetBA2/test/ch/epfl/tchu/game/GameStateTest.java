@@ -4,7 +4,10 @@ import ch.epfl.tchu.SortedBag;
 import org.junit.jupiter.api.Test;
 
 import java.awt.font.GlyphMetrics;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -218,4 +221,69 @@ class GameStateTest {
     void forNextTurn() {
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void zobristKeyDoesNotDependOnTheOrderOfTransitions() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), new Random(2021));
+        var r1 = ChMap.routes().get(0);
+        var r2 = ChMap.routes().get(40);
+        var cards1 = r1.possibleClaimCards().get(0);
+        var cards2 = r2.possibleClaimCards().get(0);
+
+        var claimed12 = state.withClaimedRoute(r1, cards1).withClaimedRoute(r2, cards2);
+        var claimed21 = state.withClaimedRoute(r2, cards2).withClaimedRoute(r1, cards1);
+        assertEquals(claimed12.zobristKey(), claimed21.zobristKey());
+
+        var discarded = state.withMoreDiscardedCards(SortedBag.of(Card.RED)).withMoreDiscardedCards(SortedBag.of(Card.BLUE));
+        var discardedAtOnce = state.withMoreDiscardedCards(SortedBag.of(1, Card.RED, 1, Card.BLUE));
+        assertEquals(discarded.zobristKey(), discardedAtOnce.zobristKey());
+
+        var current = state.currentPlayerId();
+        var tickets = state.topTickets(3);
+        var first = SortedBag.of(tickets.get(0));
+        var others = tickets.difference(first);
+        var ticketsInTwoSteps = state.withInitiallyChosenTickets(current, first)
+                .withChosenAdditionalTickets(others, others);
+        var ticketsAtOnce = state.withInitiallyChosenTickets(current, tickets)
+                .withChosenAdditionalTickets(others, SortedBag.of());
+        assertEquals(ticketsInTwoSteps.zobristKey(), ticketsAtOnce.zobristKey());
+    }
+
+    @Test
+    void zobristKeyDistinguishesTransitions() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), new Random(2021));
+        var route = ChMap.routes().get(0);
+        var states = List.of(
+                state,
+                state.forNextTurn(),
+                state.withBlindlyDrawnCard(),
+                state.withDrawnFaceUpCard(0),
+                state.withoutTopTickets(1),
+                state.withoutTopCard(),
+                state.withInitiallyChosenTickets(PlayerId.PLAYER_1, state.topTickets(3)),
+                state.withInitiallyChosenTickets(PlayerId.PLAYER_2, state.topTickets(3)),
+                state.withMoreDiscardedCards(SortedBag.of(Card.RED)),
+                state.withClaimedRoute(route, route.possibleClaimCards().get(0)),
+                state.forNextTurn().withClaimedRoute(route, route.possibleClaimCards().get(0)));
+        var keys = new HashSet<Long>();
+        for (var s : states)
+            keys.add(s.zobristKey());
+        assertEquals(states.size(), keys.size());
+    }
+
+    @Test
+    void zobristKeyIsTheSameAsTheOneOfARebuiltState() {
+        var rng = new Random(2021);
+        var codec = GameStateCodec.chMap();
+        for (int i = 0; i < 3; i++) {
+            var recorder = new RecordingPlayer(new TestPlayer(rng.nextLong(), ChMap.routes()));
+            var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+            players.put(PlayerId.PLAYER_1, recorder);
+            players.put(PlayerId.PLAYER_2, new TestPlayer(rng.nextLong(), ChMap.routes()));
+            Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"),
+                    SortedBag.of(ChMap.tickets()), new Random(rng.nextLong()));
+            for (var state : recorder.states())
+                assertEquals(state.zobristKey(), codec.decode(codec.encode(state)).zobristKey());
+        }
+    }
+}
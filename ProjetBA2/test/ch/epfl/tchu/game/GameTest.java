@@ -0,0 +1,92 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTest {
+    private static final Map<PlayerId, String> PLAYER_NAMES =
+            Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    @Test
+    void gamePlayFailsWithInvalidPlayers() {
+        var player = new TestPlayer(0, ChMap.routes());
+        assertThrows(IllegalArgumentException.class, () ->
+                Game.play(Map.of(PlayerId.PLAYER_1, player), PLAYER_NAMES, SortedBag.of(ChMap.tickets()), new Random(0)));
+    }
+
+    @Test
+    void gamePlayPlaysWholeGames() {
+        for (int i = 0; i < 100; i++) {
+            var player1 = new TestPlayer(2 * i, ChMap.routes());
+            var player2 = new TestPlayer(2 * i + 1, ChMap.routes());
+            var players = Map.<PlayerId, Player>of(PlayerId.PLAYER_1, player1, PlayerId.PLAYER_2, player2);
+
+            var result = Game.play(players, PLAYER_NAMES, SortedBag.of(ChMap.tickets()), new Random(TestRandomizer.SEED + i));
+
+            assertEquals(result.turnCount(), player1.turnCount() + player2.turnCount());
+            assertTrue(Math.abs(player1.turnCount() - player2.turnCount()) <= 1);
+            assertEquals(player1.infoCount(), player2.infoCount());
+            var p1 = result.points(PlayerId.PLAYER_1);
+            var p2 = result.points(PlayerId.PLAYER_2);
+            if (p1 == p2)
+                assertNull(result.winner());
+            else
+                assertEquals(p1 > p2 ? PlayerId.PLAYER_1 : PlayerId.PLAYER_2, result.winner());
+            var longest = Math.max(result.longestTrailLength(PlayerId.PLAYER_1), result.longestTrailLength(PlayerId.PLAYER_2));
+            assertTrue(longest > 0);
+        }
+    }
+
+    @Test
+    void gamePlayIsDeterministic() {
+        for (int i = 0; i < 10; i++) {
+            var result1 = playWithSeed(i);
+            var result2 = playWithSeed(i);
+            assertEquals(result1.turnCount(), result2.turnCount());
+            for (PlayerId playerId : PlayerId.ALL)
+                assertEquals(result1.points(playerId), result2.points(playerId));
+        }
+    }
+
+    @Test
+    void gameResultGivesLongestTrailBonusToAllPlayersHavingIt() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var result = Game.result(state, 0);
+        for (PlayerId playerId : PlayerId.ALL) {
+            assertEquals(0, result.longestTrailLength(playerId));
+            assertEquals(Constants.LONGEST_TRAIL_BONUS_POINTS, result.points(playerId));
+        }
+        assertNull(result.winner());
+    }
+
+    @Test
+    void gameResultIsTheResultOfGamePlay() {
+        for (int i = 0; i < 10; i++) {
+            var recorder = new RecordingPlayer(new TestPlayer(i, ChMap.routes()));
+            var players = Map.<PlayerId, Player>of(
+                    PlayerId.PLAYER_1, recorder,
+                    PlayerId.PLAYER_2, new TestPlayer(i + 1, ChMap.routes()));
+            var result = Game.play(players, PLAYER_NAMES, SortedBag.of(ChMap.tickets()), new Random(i));
+            var states = recorder.states();
+            var replayedResult = Game.result(states.get(states.size() - 1), result.turnCount());
+            assertEquals(result.winner(), replayedResult.winner());
+            for (PlayerId playerId : PlayerId.ALL) {
+                assertEquals(result.points(playerId), replayedResult.points(playerId));
+                assertEquals(result.longestTrailLength(playerId), replayedResult.longestTrailLength(playerId));
+            }
+        }
+    }
+
+    private static Game.Result playWithSeed(long seed) {
+        var players = Map.<PlayerId, Player>of(
+                PlayerId.PLAYER_1, new TestPlayer(seed, ChMap.routes()),
+                PlayerId.PLAYER_2, new TestPlayer(seed + 1, ChMap.routes()));
+        return Game.play(players, PLAYER_NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+    }
+}
@@ -0,0 +1,60 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongestTrailTrackerTest {
+    @Test
+    void longestTrailTrackerIsInitiallyEmpty() {
+        var tracker = LongestTrailTracker.of(List.of());
+        assertEquals(0, tracker.longestLength());
+        assertNull(tracker.longest().station1());
+        assertNull(tracker.longest().station2());
+    }
+
+    @Test
+    void longestTrailTrackerWithRouteMatchesLongest() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var network = new ArrayList<Route>();
+            var tracker = LongestTrailTracker.of(List.of());
+            for (Route route : routes.subList(0, 15)) {
+                network.add(route);
+                tracker = tracker.withRoute(route);
+                assertEquals(Trail.longest(network).length(), tracker.longestLength());
+            }
+        }
+    }
+
+    @Test
+    void longestTrailTrackerOfMatchesLongest() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var network = routes.subList(0, rng.nextInt(16));
+            assertEquals(Trail.longest(network).length(), LongestTrailTracker.of(network).longestLength());
+        }
+    }
+
+    @Test
+    void longestTrailTrackerWithRouteMergesComponents() {
+        var routes = ChMap.routes();
+        var berFri = routes.stream().filter(r -> r.id().equals("BER_FRI_1")).findFirst().orElseThrow();
+        var friLau = routes.stream().filter(r -> r.id().equals("FRI_LAU_1")).findFirst().orElseThrow();
+        var berLuc = routes.stream().filter(r -> r.id().equals("BER_LUC_1")).findFirst().orElseThrow();
+
+        var tracker = LongestTrailTracker.of(List.of(friLau, berLuc));
+        assertEquals(4, tracker.longestLength());
+        tracker = tracker.withRoute(berFri);
+        assertEquals(8, tracker.longestLength());
+    }
+}
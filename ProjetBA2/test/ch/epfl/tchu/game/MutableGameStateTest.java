@@ -0,0 +1,225 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableGameStateTest {
+    private static final int GAME_COUNT = 3;
+    private static final int ACTION_COUNT = 40;
+
+    private static List<GameState> recordedStates() {
+        var rng = TestRandomizer.newRandom();
+        var states = new ArrayList<GameState>();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            var recorder = new RecordingPlayer(new TestPlayer(rng.nextLong(), ChMap.routes()));
+            var players = new EnumMap<PlayerId, Player>(PlayerId.class);
+            players.put(PlayerId.PLAYER_1, recorder);
+            players.put(PlayerId.PLAYER_2, new TestPlayer(rng.nextLong(), ChMap.routes()));
+            Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"),
+                    SortedBag.of(ChMap.tickets()), new Random(rng.nextLong()));
+            states.addAll(recorder.states());
+        }
+        return states;
+    }
+
+    private static void assertSameState(GameState expected, MutableGameState actual) {
+        var codec = GameStateCodec.chMap();
+        var actualState = actual.toGameState();
+        assertArrayEquals(codec.encode(expected), codec.encode(actualState));
+        assertEquals(expected.zobristKey(), actualState.zobristKey());
+        assertEquals(expected.cardState().deckSize(), actual.deckSize());
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        for (var playerId : PlayerId.ALL) {
+            assertEquals(expected.playerState(playerId).carCount(), actual.carCount(playerId));
+            assertEquals(expected.playerState(playerId).claimPoints(), actual.claimPoints(playerId));
+            assertEquals(expected.playerState(playerId).cardCount(), actual.cardCount(playerId));
+        }
+    }
+
+    // Applies the same random action to both states, and returns the new immutable state.
+    private static GameState applyRandomAction(GameState state, MutableGameState mutableState, Random rng) {
+        long seed = rng.nextLong();
+        switch (rng.nextInt(6)) {
+            case 0:
+                if(state.canDrawCards() && !state.cardState().isDeckEmpty()) {
+                    int slot = rng.nextInt(Constants.FACE_UP_CARDS_COUNT);
+                    mutableState.drawFaceUpCard(slot);
+                    return state.withDrawnFaceUpCard(slot);
+                }
+                break;
+            case 1:
+                if(state.canDrawCards() && !state.cardState().isDeckEmpty()) {
+                    mutableState.drawBlindCard();
+                    return state.withBlindlyDrawnCard();
+                }
+                break;
+            case 2:
+                mutableState.recreateDeckIfNeeded(new Random(seed));
+                return state.withCardsDeckRecreatedIfNeeded(new Random(seed));
+            case 3: {
+                var claimable = state.currentPlayerState().claimableRoutes(ChMap.routes(), state.claimedRoutes());
+                if(!claimable.isEmpty()) {
+                    var routes = new ArrayList<>(claimable.keySet());
+                    var route = routes.get(rng.nextInt(routes.size()));
+                    var options = claimable.get(route);
+                    var cards = options.get(rng.nextInt(options.size()));
+                    mutableState.claimRoute(mutableState.routeIndex(route), CardBag.of(cards));
+                    return state.withClaimedRoute(route, cards);
+                }
+                break;
+            }
+            case 4:
+                if(state.canDrawTickets()) {
+                    int drawnCount = Math.min(Constants.IN_GAME_TICKETS_COUNT, state.ticketsCount());
+                    int chosenMask = 1 + rng.nextInt((1 << drawnCount) - 1);
+                    var drawn = new ArrayList<Ticket>();
+                    var chosen = new ArrayList<Ticket>();
+                    for (int i = 0; i < drawnCount; i++) {
+                        drawn.add(mutableState.topTicket(i));
+                        if((chosenMask & (1 << i)) != 0)
+                            chosen.add(mutableState.topTicket(i));
+                    }
+                    assertEquals(state.topTickets(drawnCount), SortedBag.of(drawn));
+                    mutableState.drawTickets(drawnCount, chosenMask);
+                    return state.withChosenAdditionalTickets(SortedBag.of(drawn), SortedBag.of(chosen));
+                }
+                break;
+            default:
+                mutableState.nextTurn();
+                return state.forNextTurn();
+        }
+        mutableState.nextTurn();
+        return state.forNextTurn();
+    }
+
+    @Test
+    void mutableGameStateRoundTripWorksOnRecordedStates() {
+        for (var state : recordedStates())
+            assertSameState(state, MutableGameState.of(state));
+    }
+
+    @Test
+    void mutableGameStateActionsWorkLikeGameState() {
+        var rng = TestRandomizer.newRandom();
+        for (var initial : recordedStates()) {
+            var state = initial;
+            var mutableState = MutableGameState.of(state);
+            for (int i = 0; i < ACTION_COUNT; i++) {
+                state = applyRandomAction(state, mutableState, rng);
+                assertSameState(state, mutableState);
+            }
+        }
+    }
+
+    @Test
+    void mutableGameStateUndoRestoresPreviousStates() {
+        var rng = TestRandomizer.newRandom();
+        for (var initial : recordedStates()) {
+            var states = new ArrayList<GameState>();
+            var state = initial;
+            var mutableState = MutableGameState.of(state);
+            for (int i = 0; i < ACTION_COUNT; i++) {
+                states.add(state);
+                state = applyRandomAction(state, mutableState, rng);
+            }
+            assertEquals(ACTION_COUNT, mutableState.actionCount());
+            for (int i = ACTION_COUNT - 1; i >= 0; i--) {
+                mutableState.undo();
+                assertSameState(states.get(i), mutableState);
+            }
+        }
+    }
+
+    @Test
+    void mutableGameStateUndoUntilWorks() {
+        var rng = TestRandomizer.newRandom();
+        var initial = recordedStates().get(10);
+        var state = initial;
+        var mutableState = MutableGameState.of(state);
+        for (int i = 0; i < 5; i++)
+            state = applyRandomAction(state, mutableState, rng);
+        int mark = mutableState.actionCount();
+        var marked = state;
+        for (int i = 0; i < ACTION_COUNT; i++)
+            state = applyRandomAction(state, mutableState, rng);
+        mutableState.undoUntil(mark);
+        assertSameState(marked, mutableState);
+        mutableState.undoUntil(0);
+        assertSameState(initial, mutableState);
+    }
+
+    @Test
+    void mutableGameStateTunnelCardsWorkLikeGameState() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var mutableState = MutableGameState.of(state);
+        var drawnCards = new SortedBag.Builder<Card>();
+        for (int i = 0; i < Constants.ADDITIONAL_TUNNEL_CARDS; i++) {
+            assertEquals(state.topCard(), mutableState.removeTopCard());
+            drawnCards.add(state.topCard());
+            state = state.withoutTopCard();
+        }
+        state = state.withMoreDiscardedCards(drawnCards.build());
+        mutableState.discard(CardBag.of(drawnCards.build()));
+        assertSameState(state, mutableState);
+    }
+
+    @Test
+    void mutableGameStateFailsWithInvalidActions() {
+        var state = GameState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+        var mutableState = MutableGameState.of(state);
+        assertThrows(IllegalStateException.class, mutableState::undo);
+        assertThrows(IndexOutOfBoundsException.class, () -> mutableState.drawFaceUpCard(5));
+        assertThrows(IllegalArgumentException.class, () -> mutableState.drawTickets(state.ticketsCount() + 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> mutableState.drawTickets(3, 0b1000));
+        assertThrows(IllegalArgumentException.class, () -> mutableState.claimRoute(0, CardBag.of(5, Card.BLUE)));
+        assertEquals(0, mutableState.actionCount());
+    }
+
+    @Test
+    void mutableGameStateSampleIsConsistentWithWhatThePlayerKnows() {
+        var rng = TestRandomizer.newRandom();
+        var states = recordedStates();
+        for (int i = 0; i < 50; i++) {
+            var state = states.get(rng.nextInt(states.size()));
+            var ownId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            var ownState = state.playerState(ownId);
+            var topTickets = state.topTickets(Math.min(3, state.ticketsCount())).toList();
+            var sampled = MutableGameState.sample(state, ownId, ownState, topTickets, rng).toGameState();
+
+            assertEquals(state.currentPlayerId(), sampled.currentPlayerId());
+            assertEquals(state.lastPlayer(), sampled.lastPlayer());
+            assertEquals(state.ticketsCount(), sampled.ticketsCount());
+            assertEquals(SortedBag.of(topTickets), sampled.topTickets(topTickets.size()));
+            assertEquals(state.cardState().faceUpCards(), sampled.cardState().faceUpCards());
+            assertEquals(state.cardState().deckSize(), sampled.cardState().deckSize());
+            assertEquals(state.cardState().discardsSize(), sampled.cardState().discardsSize());
+            assertEquals(ownState.cards(), sampled.playerState(ownId).cards());
+            assertEquals(ownState.tickets(), sampled.playerState(ownId).tickets());
+
+            var cards = new SortedBag.Builder<Card>();
+            cards.add(SortedBag.of(sampled.cardState().faceUpCards()));
+            cards.add(sampled.cardState().discards().toSortedBag());
+            for (int j = 0; j < sampled.cardState().deckSize(); j++)
+                cards.add(sampled.cardState().deck().card(j));
+            for (var playerId : PlayerId.ALL) {
+                var playerState = state.playerState(playerId);
+                var sampledPlayer = sampled.playerState(playerId);
+                assertEquals(playerState.cardCount(), sampledPlayer.cardCount());
+                assertEquals(playerState.ticketCount(), sampledPlayer.ticketCount());
+                assertEquals(playerState.claimPoints(), sampledPlayer.claimPoints());
+                assertEquals(playerState.carCount(), sampledPlayer.carCount());
+                cards.add(sampledPlayer.cards());
+            }
+            assertEquals(Constants.ALL_CARDS, cards.build());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentStationPartitionTest {
+    @Test
+    void persistentStationPartitionInitiallyConnectsStationsWithThemselvesOnly() {
+        var stations = ChMap.stations();
+        var partition = PersistentStationPartition.empty();
+        for (var s1 : stations) {
+            for (var s2 : stations)
+                assertEquals(s1.id() == s2.id(), partition.connected(s1, s2));
+        }
+    }
+
+    @Test
+    void persistentStationPartitionWithConnectedDoesNotModifyReceiver() {
+        var stations = ChMap.stations();
+        var s0 = stations.get(0);
+        var s1 = stations.get(1);
+        var empty = PersistentStationPartition.empty();
+        var connected = empty.withConnected(s0, s1);
+
+        assertTrue(connected.connected(s0, s1));
+        assertTrue(connected.connected(s1, s0));
+        assertFalse(empty.connected(s0, s1));
+        assertSame(connected, connected.withConnected(s1, s0));
+    }
+
+    @Test
+    void persistentStationPartitionMatchesStationPartition() {
+        var rng = TestRandomizer.newRandom();
+        var stations = stations(200);
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var builder = new StationPartition.Builder(stations.size());
+            var partition = PersistentStationPartition.empty();
+            var previous = partition;
+            var previousBuilder = new StationPartition.Builder(stations.size());
+            var connectionsCount = rng.nextInt(150);
+            for (int j = 0; j < connectionsCount; j++) {
+                var s1 = stations.get(rng.nextInt(stations.size()));
+                var s2 = stations.get(rng.nextInt(stations.size()));
+                builder.connect(s1, s2);
+                if (j < connectionsCount / 2) {
+                    previousBuilder.connect(s1, s2);
+                    previous = previous.withConnected(s1, s2);
+                }
+                partition = partition.withConnected(s1, s2);
+            }
+
+            var expected = builder.build();
+            var previousExpected = previousBuilder.build();
+            for (var s1 : stations) {
+                for (var s2 : stations) {
+                    assertEquals(expected.connected(s1, s2), partition.connected(s1, s2));
+                    assertEquals(previousExpected.connected(s1, s2), previous.connected(s1, s2));
+                }
+            }
+        }
+    }
+
+    private static List<Station> stations(int count) {
+        var stations = new ArrayList<Station>();
+        for (int i = 0; i < count; i++)
+            stations.add(new Station(i, "S" + i));
+        return stations;
+    }
+}
@@ -243,6 +243,31 @@ class PlayerStateTest {
         }
     }
 
+    @Test
+    void playerStateClaimableRoutesWorksLikeCanClaimRouteAndPossibleClaimCards() {
+        var rng = TestRandomizer.newRandom();
+        var chMap = new ChMap();
+        var allRoutes = chMap.ALL_ROUTES;
+        var cards = new ArrayList<>(shuffledCards(rng));
+        var routes = new ArrayList<>(allRoutes);
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            Collections.shuffle(cards, rng);
+            Collections.shuffle(routes, rng);
+            var ownRoutes = routes.subList(0, rng.nextInt(12));
+            var claimedRoutes = routes.subList(0, ownRoutes.size() + rng.nextInt(10));
+            var playerState = new PlayerState(SortedBag.of(), SortedBag.of(cards.subList(0, rng.nextInt(25))), ownRoutes);
+
+            var expected = new LinkedHashMap<Route, List<SortedBag<Card>>>();
+            for (var route : allRoutes) {
+                if (!claimedRoutes.contains(route) && playerState.canClaimRoute(route))
+                    expected.put(route, playerState.possibleClaimCards(route));
+            }
+            var actual = playerState.claimableRoutes(allRoutes, claimedRoutes);
+            assertEquals(expected, actual);
+            assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()));
+        }
+    }
+
     @Test
     void playerStatePossibleAdditionalCardsFailsWithInvalidAdditionalCardsCount() {
         var playerState = new PlayerState(SortedBag.of(), SortedBag.of(), List.of());
@@ -367,6 +392,53 @@ class PlayerStateTest {
         }
     }
 
+    @Test
+    void playerStatePossibleAdditionalCardsWorksOnRandomHands() {
+        var rng = TestRandomizer.newRandom();
+        var cards = new ArrayList<>(shuffledCards(rng));
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            Collections.shuffle(cards, rng);
+            var hand = SortedBag.of(cards.subList(0, 1 + rng.nextInt(30)));
+            var handCards = hand.toList();
+            var color = handCards.get(rng.nextInt(handCards.size()));
+            var initialCount = 1 + rng.nextInt(hand.countOf(color));
+            var initialCards = (color == Card.LOCOMOTIVE || rng.nextBoolean() || !hand.contains(Card.LOCOMOTIVE))
+                    ? SortedBag.of(initialCount, color)
+                    : SortedBag.of(initialCount, color, 1, Card.LOCOMOTIVE);
+            if (!hand.contains(initialCards))
+                continue;
+            var additionalCardsCount = 1 + rng.nextInt(3);
+            var drawnCards = SortedBag.of(cards.subList(30, 33));
+
+            var remaining = hand.difference(initialCards);
+            var usable = new SortedBag.Builder<Card>();
+            usable.add(remaining.countOf(Card.LOCOMOTIVE), Card.LOCOMOTIVE);
+            if (color != Card.LOCOMOTIVE)
+                usable.add(remaining.countOf(color), color);
+            var usableCards = usable.build();
+            var expected = new ArrayList<SortedBag<Card>>();
+            if (usableCards.size() >= additionalCardsCount)
+                expected.addAll(usableCards.subsetsOfSize(additionalCardsCount));
+            expected.sort(Comparator.comparingInt(cs -> cs.countOf(Card.LOCOMOTIVE)));
+
+            var playerState = new PlayerState(SortedBag.of(), hand, List.of());
+            assertEquals(expected, playerState.possibleAdditionalCards(additionalCardsCount, initialCards, drawnCards));
+            assertEquals(expected.size(), playerState.possibleAdditionalCardsCount(additionalCardsCount, initialCards, drawnCards));
+        }
+    }
+
+    @Test
+    void playerStatePossibleAdditionalCardsCountFailsWithInvalidArguments() {
+        var playerState = new PlayerState(SortedBag.of(), SortedBag.of(5, Card.RED, 5, Card.LOCOMOTIVE), List.of());
+        var drawnCards = SortedBag.of(3, Card.BLUE);
+        assertThrows(IllegalArgumentException.class, () ->
+                playerState.possibleAdditionalCardsCount(0, SortedBag.of(Card.RED), drawnCards));
+        assertThrows(IllegalArgumentException.class, () ->
+                playerState.possibleAdditionalCardsCount(1, SortedBag.of(), drawnCards));
+        assertThrows(IllegalArgumentException.class, () ->
+                playerState.possibleAdditionalCardsCount(1, SortedBag.of(Card.RED), SortedBag.of(2, Card.BLUE)));
+    }
+
     @Test
     void playerStateWithClaimedRouteWorks() {
         var chMap = new ChMap();
@@ -402,6 +474,22 @@ class PlayerStateTest {
         assertEquals(Set.of(r1, r2, r3, r4), new HashSet<>(playerState.routes()));
     }
 
+    @Test
+    void playerStateLongestTrailIsUpdatedByWithClaimedRoute() {
+        var chMap = new ChMap();
+        var playerState = new PlayerState(SortedBag.of(), sixOfEachCard(), List.of());
+        assertEquals(0, playerState.longestTrail().length());
+
+        playerState = playerState.withClaimedRoute(chMap.BER_FRI_1, SortedBag.of(1, Card.ORANGE));
+        assertEquals(1, playerState.longestTrail().length());
+        playerState = playerState.withClaimedRoute(chMap.INT_LUC_1, SortedBag.of(4, Card.VIOLET));
+        assertEquals(4, playerState.longestTrail().length());
+        playerState = playerState.withAddedCard(Card.BLUE);
+        assertEquals(4, playerState.longestTrail().length());
+        playerState = playerState.withClaimedRoute(chMap.BER_INT_1, SortedBag.of(3, Card.BLUE));
+        assertEquals(8, playerState.longestTrail().length());
+    }
+
     @Test
     void playerStateTicketPointsWorksOnKnownExample1() {
         var chMap = new ChMap();
@@ -0,0 +1,104 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Player delegating everything to another one, passing its identity to the given consumer
+ * and keeping all the states it receives, for tests.
+ */
+public final class RecordingPlayer implements Player {
+    private final Player player;
+    private final Consumer<PlayerId> idConsumer;
+    private final List<PublicGameState> gameStates = new ArrayList<>();
+    private final List<PlayerState> playerStates = new ArrayList<>();
+
+    public RecordingPlayer(Player player) {
+        this(player, id -> {});
+    }
+
+    public RecordingPlayer(Player player, Consumer<PlayerId> idConsumer) {
+        this.player = player;
+        this.idConsumer = idConsumer;
+    }
+
+    public List<PublicGameState> gameStates() {
+        return gameStates;
+    }
+
+    public List<PlayerState> playerStates() {
+        return playerStates;
+    }
+
+    // The complete states of the game, which Game gives to the players
+    public List<GameState> states() {
+        var states = new ArrayList<GameState>();
+        for (var gameState : gameStates) {
+            if (gameState instanceof GameState)
+                states.add((GameState) gameState);
+        }
+        return states;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        idConsumer.accept(ownId);
+        player.initPlayers(ownId, playerNames);
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+        player.receiveInfo(info);
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        gameStates.add(newState);
+        playerStates.add(ownState);
+        player.updateState(newState, ownState);
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        player.setInitialTicketChoice(tickets);
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return player.chooseInitialTickets();
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        return player.nextTurn();
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return player.chooseTickets(options);
+    }
+
+    @Override
+    public int drawSlot() {
+        return player.drawSlot();
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return player.claimedRoute();
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return player.initialClaimCards();
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return player.chooseAdditionalCards(options);
+    }
+}
@@ -283,6 +283,45 @@ class RouteTest {
         }
     }
 
+    @Test
+    void routePossibleClaimCardsIsSharedBetweenSimilarRoutes() {
+        var s1 = new Station(0, "Lausanne");
+        var s2 = new Station(1, "EPFL");
+        var s3 = new Station(2, "Renens");
+        for (var level : Level.values()) {
+            for (var l = 1; l <= 6; l++) {
+                var r1 = new Route("id1", s1, s2, l, level, null);
+                var r2 = new Route("id2", s2, s3, l, level, null);
+                assertSame(r1.possibleClaimCards(), r2.possibleClaimCards());
+                for (var color : COLORS) {
+                    var c1 = new Route("id1", s1, s2, l, level, color);
+                    var c2 = new Route("id2", s2, s3, l, level, color);
+                    assertSame(c1.possibleClaimCards(), c2.possibleClaimCards());
+                    assertNotSame(r1.possibleClaimCards(), c1.possibleClaimCards());
+                }
+            }
+        }
+    }
+
+    @Test
+    void routePossibleClaimCardsIsImmutable() {
+        var r = new Route("id", new Station(0, "Lausanne"), new Station(1, "EPFL"), 3, Level.UNDERGROUND, null);
+        var claimCards = r.possibleClaimCards();
+        assertThrows(UnsupportedOperationException.class, () -> claimCards.add(SortedBag.of(3, Card.LOCOMOTIVE)));
+        assertThrows(UnsupportedOperationException.class, () -> claimCards.remove(0));
+    }
+
+    @Test
+    void routePossibleClaimCardBagsMatchPossibleClaimCards() {
+        for (var r : ChMap.routes()) {
+            var claimCards = r.possibleClaimCards();
+            var claimCardBags = r.possibleClaimCardBags();
+            assertEquals(claimCards.size(), claimCardBags.size());
+            for (var i = 0; i < claimCards.size(); i++)
+                assertEquals(claimCards.get(i), claimCardBags.get(i).toSortedBag());
+        }
+    }
+
     @Test
     void routeAdditionalClaimCardsCountWorksWithColoredCardsOnly() {
         var s1 = new Station(0, "Lausanne");
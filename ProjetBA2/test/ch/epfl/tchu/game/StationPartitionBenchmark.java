@@ -0,0 +1,80 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.test.TestRandomizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the cost of connecting and building a station partition on large synthetic maps.
+ * Run with the main method; the times printed are the median of several runs.
+ */
+public final class StationPartitionBenchmark {
+    private static final int STATION_COUNT = 100_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 11;
+
+    private StationPartitionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        var stations = new ArrayList<Station>(STATION_COUNT);
+        for (int i = 0; i < STATION_COUNT; i++)
+            stations.add(new Station(i, "S" + i));
+
+        // Each station connected to the next one: the worst case for a naive union-find.
+        var chain = new ArrayList<Station[]>();
+        for (int i = 0; i + 1 < STATION_COUNT; i++)
+            chain.add(new Station[]{stations.get(i), stations.get(i + 1)});
+
+        // The same chain, connected from its far end.
+        var reversedChain = new ArrayList<Station[]>();
+        for (int i = STATION_COUNT - 1; i > 0; i--)
+            reversedChain.add(new Station[]{stations.get(i), stations.get(i - 1)});
+
+        var rng = new Random(TestRandomizer.SEED);
+        var random = new ArrayList<Station[]>();
+        for (int i = 0; i < STATION_COUNT; i++)
+            random.add(new Station[]{stations.get(rng.nextInt(STATION_COUNT)), stations.get(rng.nextInt(STATION_COUNT))});
+
+        measure("chain", chain);
+        measure("reversed chain", reversedChain);
+        measure("random", random);
+    }
+
+    private static void measure(String name, List<Station[]> connections) {
+        for (int i = 0; i < WARMUP_RUNS; i++)
+            run(connections);
+
+        var connectTimes = new long[MEASURED_RUNS];
+        var buildTimes = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            var times = run(connections);
+            connectTimes[i] = times[0];
+            buildTimes[i] = times[1];
+        }
+        System.out.printf("%-15s %,d stations, %,d connections: connect %.3f ms, build %.3f ms%n",
+                name, STATION_COUNT, connections.size(), median(connectTimes) / 1e6, median(buildTimes) / 1e6);
+    }
+
+    private static long[] run(List<Station[]> connections) {
+        long start = System.nanoTime();
+        var builder = new StationPartition.Builder(STATION_COUNT);
+        for (Station[] connection : connections)
+            builder.connect(connection[0], connection[1]);
+        long connected = System.nanoTime();
+        var partition = builder.build();
+        long built = System.nanoTime();
+        if (!partition.connected(connections.get(0)[0], connections.get(0)[1]))
+            throw new Error();
+        return new long[]{connected - start, built - connected};
+    }
+
+    private static long median(long[] values) {
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,122 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Player choosing a random legal action, for tests.
+ * It checks on the way that the game never asks it for something it cannot do.
+ */
+public final class TestPlayer implements Player {
+    private final Random rng;
+    private final List<Route> allRoutes;
+
+    private PlayerId ownId;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private SortedBag<Ticket> initialTickets;
+    private Route routeToClaim;
+    private SortedBag<Card> initialClaimCards;
+    private int infoCount;
+    private int turnCount;
+
+    public TestPlayer(long randomSeed, List<Route> allRoutes) {
+        this.rng = new Random(randomSeed);
+        this.allRoutes = List.copyOf(allRoutes);
+    }
+
+    public int infoCount() {
+        return infoCount;
+    }
+
+    public int turnCount() {
+        return turnCount;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+        infoCount++;
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        assertEquals(Constants.INITIAL_TICKETS_COUNT, tickets.size());
+        initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return randomSubset(initialTickets, 3);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        turnCount++;
+        assertEquals(ownId, gameState.currentPlayerId());
+
+        var claimable = ownState.claimableRoutes(allRoutes, gameState.claimedRoutes());
+        var claimableRoutes = new ArrayList<>(claimable.keySet());
+
+        if (!claimableRoutes.isEmpty() && (rng.nextInt(3) > 0 || !gameState.canDrawCards())) {
+            routeToClaim = claimableRoutes.get(rng.nextInt(claimableRoutes.size()));
+            initialClaimCards = claimable.get(routeToClaim).get(0);
+            return TurnKind.CLAIM_ROUTE;
+        }
+        if (gameState.canDrawCards() && (rng.nextInt(10) > 0 || !gameState.canDrawTickets()))
+            return TurnKind.DRAW_CARDS;
+        return TurnKind.DRAW_TICKETS;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        assertTrue(options.size() <= Constants.IN_GAME_TICKETS_COUNT);
+        return options.isEmpty() ? options : randomSubset(options, 1);
+    }
+
+    @Override
+    public int drawSlot() {
+        var slot = rng.nextInt(Constants.FACE_UP_CARDS_COUNT + 1) - 1;
+        return (slot == Constants.DECK_SLOT && gameState.cardState().isDeckEmpty()) ? 0 : slot;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return routeToClaim;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return initialClaimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        assertFalse(options.isEmpty());
+        return rng.nextInt(4) == 0 ? SortedBag.of() : options.get(rng.nextInt(options.size()));
+    }
+
+    private SortedBag<Ticket> randomSubset(SortedBag<Ticket> tickets, int minSize) {
+        var list = new ArrayList<>(tickets.toList());
+        Collections.shuffle(list, rng);
+        var size = minSize + rng.nextInt(list.size() - minSize + 1);
+        return SortedBag.of(list.subList(0, size));
+    }
+}
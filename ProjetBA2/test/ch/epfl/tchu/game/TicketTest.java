@@ -1,5 +1,6 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -71,6 +72,47 @@ class TicketTest {
         assertEquals(+11, map.FR_NEIGHBORS.points(connectivity));
     }
 
+    private static int pointsOfBestTrip(Ticket ticket, StationConnectivity connectivity) {
+        int points = Integer.MIN_VALUE;
+        for (var trip : ticket.trips())
+            points = Math.max(points, trip.points(connectivity));
+        return points;
+    }
+
+    @Test
+    void pointsAreCorrectWithRandomPartitions() {
+        var rng = TestRandomizer.newRandom();
+        var stations = ChMap.stations();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var builder = new StationPartition.Builder(stations.size());
+            var persistent = PersistentStationPartition.empty();
+            int connections = rng.nextInt(60);
+            for (int j = 0; j < connections; j++) {
+                var s1 = stations.get(rng.nextInt(stations.size()));
+                var s2 = stations.get(rng.nextInt(stations.size()));
+                builder.connect(s1, s2);
+                persistent = persistent.withConnected(s1, s2);
+            }
+            var partition = builder.build();
+            for (var ticket : ChMap.tickets()) {
+                int expected = pointsOfBestTrip(ticket, partition::connected);
+                assertEquals(expected, ticket.points(partition));
+                assertEquals(expected, ticket.points(partition));
+                assertEquals(expected, ticket.points(persistent));
+            }
+        }
+    }
+
+    @Test
+    void pointsAreRecomputedForAnotherPartition() {
+        var map = new TestMap();
+        var empty = new StationPartition.Builder(14).build();
+        var connected = new StationPartition.Builder(14).connect(map.FR2, map.IT1).build();
+        assertEquals(-5, map.FR_NEIGHBORS.points(empty));
+        assertEquals(+11, map.FR_NEIGHBORS.points(connected));
+        assertEquals(-5, map.FR_NEIGHBORS.points(empty));
+    }
+
     @Test
     void compareToWorksOnKnownTickets() {
         var map = new TestMap();
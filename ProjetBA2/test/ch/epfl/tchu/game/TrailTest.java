@@ -1,7 +1,10 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -336,6 +339,61 @@ class TrailTest {
         assertEquals(28, longestG.length());
     }
 
+    @Test
+    void trailLongestMatchesExhaustiveSearchOnRandomNetworks() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS / 10; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var network = routes.subList(0, 1 + rng.nextInt(12));
+
+            var longest = Trail.longest(network);
+            assertEquals(exhaustiveLongestLength(network), longest.length());
+            assertEquals(longest.length(), lengthOfTrail(longest, network));
+        }
+    }
+
+    private static int exhaustiveLongestLength(List<Route> routes) {
+        int longest = 0;
+        for (Route route : routes) {
+            for (Station start : route.stations())
+                longest = Math.max(longest, exhaustiveLongestLength(routes, start, new ArrayList<>()));
+        }
+        return longest;
+    }
+
+    private static int exhaustiveLongestLength(List<Route> routes, Station station, List<Route> used) {
+        int longest = used.stream().mapToInt(Route::length).sum();
+        for (Route route : routes) {
+            if (!used.contains(route) && route.stations().contains(station)) {
+                used.add(route);
+                longest = Math.max(longest, exhaustiveLongestLength(routes, route.stationOpposite(station), used));
+                used.remove(used.size() - 1);
+            }
+        }
+        return longest;
+    }
+
+    // Follows the textual representation of the trail to check that it really is a trail of the network.
+    private static int lengthOfTrail(Trail trail, List<Route> routes) {
+        var names = trail.toString().replaceAll(" \\(\\d+\\)$", "").split(" - ");
+        var used = new ArrayList<Route>();
+        int length = 0;
+        for (int i = 0; i + 1 < names.length; i++) {
+            var from = names[i];
+            var to = names[i + 1];
+            var route = routes.stream()
+                    .filter(r -> !used.contains(r))
+                    .filter(r -> (r.station1().name().equals(from) && r.station2().name().equals(to))
+                            || (r.station2().name().equals(from) && r.station1().name().equals(to)))
+                    .max((r1, r2) -> Integer.compare(r1.length(), r2.length()))
+                    .orElseThrow();
+            used.add(route);
+            length += route.length();
+        }
+        return length;
+    }
+
     private static final class ChRoutes {
         // Stations
         final Station BAD = new Station(0, "Baden");
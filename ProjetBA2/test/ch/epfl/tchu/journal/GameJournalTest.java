@@ -0,0 +1,155 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+    private static final Map<PlayerId, String> PLAYER_NAMES =
+            Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    // Plays games between random players, with seeds drawn from the given generator, and returns their results
+    static List<Game.Result> playGames(GameJournal journal, Random rng, int gameCount, List<Long> seeds) throws IOException {
+        var results = new ArrayList<Game.Result>();
+        for (int i = 0; i < gameCount; i++) {
+            Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+            for (var playerId : PlayerId.ALL)
+                players.put(playerId, new TestPlayer(rng.nextLong(), ChMap.routes()));
+            long seed = rng.nextLong();
+            seeds.add(seed);
+            results.add(journal.play(players, PLAYER_NAMES, seed));
+        }
+        return results;
+    }
+
+    private static List<GameRecord> readAll(Path path) throws IOException {
+        var records = new ArrayList<GameRecord>();
+        try (var reader = JournalReader.open(path)) {
+            while (reader.hasNext())
+                records.add(reader.next());
+        }
+        return records;
+    }
+
+    @Test
+    void gameJournalRecordsGamesWhichCanBePlayedAgain() throws IOException {
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            var seeds = new ArrayList<Long>();
+            List<Game.Result> results;
+            try (var journal = GameJournal.open(path)) {
+                results = playGames(journal, TestRandomizer.newRandom(), 10, seeds);
+            }
+
+            var records = readAll(path);
+            assertEquals(results.size(), records.size());
+            for (int i = 0; i < records.size(); i++) {
+                var record = records.get(i);
+                var result = results.get(i);
+                assertEquals(seeds.get(i), record.seed());
+                assertEquals(result.turnCount(), record.turnCount());
+
+                int[] replayedTurns = new int[1];
+                GameState state = record.replay((turnEnd, turn) -> {
+                    assertEquals(replayedTurns[0]++, turn);
+                    assertEquals(record.stateKey(turn), turnEnd.zobristKey());
+                });
+                assertEquals(record.turnCount(), replayedTurns[0]);
+                var replayedResult = Game.result(state, record.turnCount());
+                assertEquals(result.winner(), replayedResult.winner());
+                for (var playerId : PlayerId.ALL) {
+                    assertEquals(result.points(playerId), record.points(playerId));
+                    assertEquals(result.longestTrailLength(playerId), record.longestTrailLength(playerId));
+                    assertEquals(result.points(playerId), replayedResult.points(playerId));
+                    assertEquals(result.longestTrailLength(playerId), replayedResult.longestTrailLength(playerId));
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameJournalAppendsToExistingJournal() throws IOException {
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            var seeds = new ArrayList<Long>();
+            var rng = TestRandomizer.newRandom();
+            try (var journal = GameJournal.open(path)) {
+                playGames(journal, rng, 2, seeds);
+            }
+            try (var journal = GameJournal.open(path)) {
+                playGames(journal, rng, 3, seeds);
+            }
+            var records = readAll(path);
+            assertEquals(5, records.size());
+            for (int i = 0; i < records.size(); i++)
+                assertEquals(seeds.get(i), records.get(i).seed());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void journalReaderIgnoresIncompleteLastRecord() throws IOException {
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            try (var journal = GameJournal.open(path)) {
+                playGames(journal, TestRandomizer.newRandom(), 3, new ArrayList<>());
+            }
+            try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - GameRecord.TURN_BYTES);
+            }
+            assertEquals(2, readAll(path).size());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameJournalFailsOnOtherFiles() throws IOException {
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+            assertThrows(IOException.class, () -> GameJournal.open(path));
+            assertThrows(IOException.class, () -> JournalReader.open(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameRecordPositionsDesignateTheChosenTickets() {
+        var rng = TestRandomizer.newRandom();
+        var tickets = new ArrayList<>(ChMap.tickets());
+        for (int i = 0; i < 100; i++) {
+            Collections.shuffle(tickets, rng);
+            var offered = SortedBag.of(tickets.subList(0, Constants.INITIAL_TICKETS_COUNT));
+            int positions = 1 + rng.nextInt((1 << Constants.INITIAL_TICKETS_COUNT) - 1);
+            var chosen = GameRecord.chosen(offered, positions);
+            assertEquals(Integer.bitCount(positions), chosen.size());
+            assertEquals(positions, GameRecord.positions(offered, chosen));
+        }
+    }
+}
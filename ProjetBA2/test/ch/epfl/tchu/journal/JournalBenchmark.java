@@ -0,0 +1,63 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Records games between random bots in a journal, then reads the journal and plays all its games again,
+ * sequentially and through ReplayVerifier on the common pool, and prints the size of the records and the throughput
+ * of the replay. Run with the main method, whose optional
+ * argument is the number of games (2000 by default).
+ */
+public final class JournalBenchmark {
+    private static final int DEFAULT_GAME_COUNT = 2_000;
+    private static final int REPLAY_ROUNDS = 5;
+
+    private JournalBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int gameCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_GAME_COUNT;
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            long start = System.nanoTime();
+            try (var journal = GameJournal.open(path)) {
+                GameJournalTest.playGames(journal, TestRandomizer.newRandom(), gameCount, new ArrayList<>());
+            }
+            long duration = System.nanoTime() - start;
+            System.out.printf("%,d games played and recorded in %.2f s, %,d bytes (%.0f bytes per game)%n",
+                    gameCount, duration / 1e9, Files.size(path), Files.size(path) / (double) gameCount);
+
+            for (int round = 0; round < REPLAY_ROUNDS; round++) {
+                start = System.nanoTime();
+                long turnCount = 0;
+                long keys = 0;
+                try (var reader = JournalReader.open(path)) {
+                    while (reader.hasNext()) {
+                        var record = reader.next();
+                        keys ^= record.replay().zobristKey();
+                        turnCount += record.turnCount();
+                    }
+                }
+                duration = System.nanoTime() - start;
+                System.out.printf("replay %d: %,.0f games/s, %,.0f turns/s, a million games in %.0f s (%x)%n",
+                        round, gameCount / (duration / 1e9), turnCount / (duration / 1e9),
+                        1e6 * duration / 1e9 / gameCount, keys);
+            }
+
+            for (int round = 0; round < REPLAY_ROUNDS; round++) {
+                start = System.nanoTime();
+                var report = ReplayVerifier.verify(path);
+                duration = System.nanoTime() - start;
+                System.out.printf("verification %d on %d threads: %,.0f games/s, %d divergences%n",
+                        round, ForkJoinPool.commonPool().getParallelism(), report.gameCount() / (duration / 1e9),
+                        report.divergences().size());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
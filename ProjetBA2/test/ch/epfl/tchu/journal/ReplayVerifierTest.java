@@ -0,0 +1,117 @@
+package ch.epfl.tchu.journal;
+
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayVerifierTest {
+    private static final int GAME_COUNT = 12;
+
+    private static Path newJournal() throws IOException {
+        var path = Files.createTempFile("tchu", ".journal");
+        try (var journal = GameJournal.open(path)) {
+            GameJournalTest.playGames(journal, TestRandomizer.newRandom(), GAME_COUNT, new ArrayList<>());
+        }
+        return path;
+    }
+
+    // Returns the position in the journal of the record of given index, and its number of turns
+    private static long[] recordPosition(Path path, int gameIndex) throws IOException {
+        long position = GameJournal.HEADER_BYTES;
+        try (var reader = JournalReader.open(path)) {
+            for (int i = 0; i < gameIndex; i++)
+                position += GameRecord.length(reader.next().turnCount());
+            return new long[]{position, reader.next().turnCount()};
+        }
+    }
+
+    private static void overwrite(Path path, long position, ByteBuffer bytes) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(bytes.flip(), position);
+        }
+    }
+
+    @Test
+    void replayVerifierAcceptsUnchangedJournal() throws IOException {
+        var path = newJournal();
+        try {
+            var report = ReplayVerifier.verify(path);
+            assertTrue(report.isConsistent(), report.divergences().toString());
+            assertEquals(GAME_COUNT, report.gameCount());
+
+            long turnCount = 0;
+            try (var reader = JournalReader.open(path)) {
+                while (reader.hasNext())
+                    turnCount += reader.next().turnCount();
+            }
+            assertEquals(turnCount, report.turnCount());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void replayVerifierReportsFirstDivergentTurn() throws IOException {
+        var path = newJournal();
+        try {
+            int gameIndex = 5;
+            long[] record = recordPosition(path, gameIndex);
+            int turn = (int) record[1] / 2;
+            for (int t : new int[]{turn + 3, turn}) {
+                overwrite(path, record[0] + GameRecord.length(t) + GameRecord.STATE_KEY_OFFSET,
+                        ByteBuffer.allocate(Long.BYTES).putLong(42));
+            }
+
+            var pool = new ForkJoinPool(3);
+            ReplayVerifier.Report report;
+            try {
+                report = ReplayVerifier.verify(path, pool);
+            } finally {
+                pool.shutdown();
+            }
+            assertEquals(1, report.divergences().size());
+            var divergence = report.divergences().get(0);
+            assertEquals(gameIndex, divergence.gameIndex());
+            assertEquals(turn, divergence.turn());
+            try (var reader = JournalReader.open(path)) {
+                for (int i = 0; i < gameIndex; i++)
+                    reader.next();
+                assertEquals(reader.next().seed(), divergence.seed());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void replayVerifierReportsDivergentOutcome() throws IOException {
+        var path = newJournal();
+        try {
+            for (int gameIndex : new int[]{2, 9}) {
+                long[] record = recordPosition(path, gameIndex);
+                overwrite(path, record[0] + GameRecord.POINTS_OFFSET + PlayerId.PLAYER_2.ordinal() * Short.BYTES,
+                        ByteBuffer.allocate(Short.BYTES).putShort((short) 1000));
+            }
+
+            var report = ReplayVerifier.verify(path);
+            assertEquals(2, report.divergences().size());
+            assertEquals(2, report.divergences().get(0).gameIndex());
+            assertEquals(9, report.divergences().get(1).gameIndex());
+            assertEquals(recordPosition(path, 9)[1], report.divergences().get(1).turn());
+            assertTrue(report.divergences().get(1).description().contains("1000"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
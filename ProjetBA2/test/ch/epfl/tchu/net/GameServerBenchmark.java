@@ -0,0 +1,51 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays many simultaneous matches between random bots on a server of the same virtual machine, over the loopback
+ * interface, and prints the throughput and the latency of the turns. Run with the main method, whose optional
+ * argument is the number of matches (2000 by default), all of them connected at the same time.
+ */
+public final class GameServerBenchmark {
+    private static final int DEFAULT_MATCH_COUNT = 2_000;
+    private static final long CLIENT_STACK_SIZE = 256 * 1024;
+
+    private GameServerBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int matchCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_MATCH_COUNT;
+        try (var server = new GameServer(0, TestRandomizer.SEED).start()) {
+            ExecutorService clients = Executors.newFixedThreadPool(2 * matchCount,
+                    GameServer.threadFactory("client", CLIENT_STACK_SIZE));
+            var futures = new ArrayList<Future<?>>();
+            long start = System.nanoTime();
+            for (int i = 0; i < 2 * matchCount; i++) {
+                var player = new TestPlayer(i, ChMap.routes());
+                futures.add(clients.submit(() -> new RemotePlayerClient(player, "localhost", server.port()).run()));
+            }
+            for (var future : futures)
+                future.get();
+            server.awaitMatches(1, TimeUnit.MINUTES);
+            long duration = System.nanoTime() - start;
+            clients.shutdown();
+
+            var latencies = server.turnLatencies();
+            System.out.printf("%,d matches (%,d failed) in %.2f s: %.1f matches/s, %.0f turns/s%n",
+                    server.playedCount(), server.failedCount(), duration / 1e9,
+                    server.playedCount() / (duration / 1e9), latencies.count() / (duration / 1e9));
+            System.out.printf("turn latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    latencies.percentile(50) / 1e6, latencies.percentile(90) / 1e6,
+                    latencies.percentile(99) / 1e6, latencies.percentile(100) / 1e6);
+        }
+    }
+}
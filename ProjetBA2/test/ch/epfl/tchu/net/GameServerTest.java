@@ -0,0 +1,219 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.RecordingPlayer;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.tchu.journal.GameJournal;
+import ch.epfl.tchu.journal.JournalReader;
+import ch.epfl.tchu.sim.MatchSimulator;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private static final int MATCH_COUNT = 20;
+
+    @Test
+    void gameServerPlaysRemoteGamesLikeLocalOnes() throws Exception {
+        long seed = TestRandomizer.SEED;
+        try (var server = new GameServer(0, seed).start()) {
+            var players = new TestPlayer[]{new TestPlayer(1, ChMap.routes()), new TestPlayer(2, ChMap.routes())};
+            var ids = new PlayerId[2];
+            ExecutorService clients = Executors.newFixedThreadPool(2);
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 2; i++) {
+                int index = i;
+                var player = new RecordingPlayer(players[i], id -> ids[index] = id);
+                futures.add(clients.submit(() -> new RemotePlayerClient(player, "localhost", server.port()).run()));
+            }
+            for (var future : futures)
+                future.get(1, TimeUnit.MINUTES);
+            clients.shutdown();
+            assertTrue(server.awaitMatches(1, TimeUnit.MINUTES));
+            assertEquals(1, server.playedCount());
+            assertEquals(0, server.failedCount());
+
+            // The same game, played locally, gives the same information and turns to the same players
+            Map<PlayerId, Player> localPlayers = new EnumMap<>(PlayerId.class);
+            var localTestPlayers = new TestPlayer[2];
+            for (int i = 0; i < 2; i++) {
+                localTestPlayers[i] = new TestPlayer(i + 1, ChMap.routes());
+                localPlayers.put(ids[i], localTestPlayers[i]);
+            }
+            Game.play(localPlayers, Map.of(PlayerId.PLAYER_1, "Joueur 1", PlayerId.PLAYER_2, "Joueur 2"),
+                    SortedBag.of(ChMap.tickets()), new Random(MatchSimulator.gameSeed(seed, 0)));
+            for (int i = 0; i < 2; i++) {
+                assertEquals(localTestPlayers[i].infoCount(), players[i].infoCount());
+                assertEquals(localTestPlayers[i].turnCount(), players[i].turnCount());
+            }
+        }
+    }
+
+    @Test
+    void gameServerPlaysManySimultaneousMatches() throws Exception {
+        try (var server = new GameServer(0, TestRandomizer.SEED).start()) {
+            ExecutorService clients = Executors.newFixedThreadPool(2 * MATCH_COUNT, GameServer.threadFactory("client", 0));
+            var futures = new ArrayList<Future<?>>();
+            long start = System.nanoTime();
+            for (int i = 0; i < 2 * MATCH_COUNT; i++) {
+                var player = new TestPlayer(i, ChMap.routes());
+                futures.add(clients.submit(() -> new RemotePlayerClient(player, "localhost", server.port()).run()));
+            }
+            for (var future : futures)
+                future.get(5, TimeUnit.MINUTES);
+            assertTrue(server.awaitMatches(1, TimeUnit.MINUTES));
+            long duration = System.nanoTime() - start;
+            clients.shutdown();
+
+            assertEquals(MATCH_COUNT, server.playedCount());
+            assertEquals(0, server.failedCount());
+            var latencies = server.turnLatencies();
+            assertTrue(latencies.count() > MATCH_COUNT);
+            System.out.printf("%d matches in %.2f s (%.1f matches/s), %d turns, p50 %.1f us, p99 %.1f us%n",
+                    MATCH_COUNT, duration / 1e9, MATCH_COUNT / (duration / 1e9), latencies.count(),
+                    latencies.percentile(50) / 1e3, latencies.percentile(99) / 1e3);
+        }
+    }
+
+    @Test
+    void gameServerRecordsMatchesInJournal() throws Exception {
+        var path = Files.createTempFile("tchu", ".journal");
+        try {
+            try (var journal = GameJournal.open(path);
+                 var server = new GameServer(0, TestRandomizer.SEED, journal).start()) {
+                ExecutorService clients = Executors.newFixedThreadPool(8, GameServer.threadFactory("client", 0));
+                var futures = new ArrayList<Future<?>>();
+                for (int i = 0; i < 8; i++) {
+                    var player = new TestPlayer(i, ChMap.routes());
+                    futures.add(clients.submit(() -> new RemotePlayerClient(player, "localhost", server.port()).run()));
+                }
+                for (var future : futures)
+                    future.get(1, TimeUnit.MINUTES);
+                assertTrue(server.awaitMatches(1, TimeUnit.MINUTES));
+                clients.shutdown();
+                assertEquals(4, server.playedCount());
+            }
+
+            var seeds = new HashSet<Long>();
+            for (int i = 0; i < 4; i++)
+                seeds.add(MatchSimulator.gameSeed(TestRandomizer.SEED, i));
+            try (var reader = JournalReader.open(path)) {
+                for (int i = 0; i < 4; i++) {
+                    var record = reader.next();
+                    assertTrue(seeds.remove(record.seed()));
+                    assertEquals(record.stateKey(record.turnCount() - 1), record.replay().zobristKey());
+                }
+                assertFalse(reader.hasNext());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void gameServerCloseEndsMatchesWithStalledClients() throws Exception {
+        var server = new GameServer(0, TestRandomizer.SEED).start();
+        // Clients which never answer, the match waiting for their initial tickets
+        try (var client1 = new Socket("localhost", server.port());
+             var client2 = new Socket("localhost", server.port());
+             var lonelyClient = new Socket("localhost", server.port())) {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (server.awaitMatches(10, TimeUnit.MILLISECONDS))
+                assertTrue(System.nanoTime() < deadline);
+
+            server.close();
+            assertTrue(server.awaitMatches(10, TimeUnit.SECONDS));
+            assertEquals(0, server.playedCount());
+            assertEquals(1, server.failedCount());
+
+            // The sockets of the clients are closed by the server, including the one waiting for a second player
+            for (var client : List.of(client1, client2, lonelyClient)) {
+                client.setSoTimeout(10_000);
+                assertTrue(endOfStreamReached(client));
+            }
+        }
+    }
+
+    @Test
+    void gameServerCloseRightAfterConnectionOfPairEndsItsMatch() throws Exception {
+        // The match of the pair is either started and interrupted, or rejected by the closed server
+        for (int i = 0; i < 20; i++) {
+            var server = new GameServer(0, TestRandomizer.SEED).start();
+            try (var client1 = new Socket("localhost", server.port());
+                 var client2 = new Socket("localhost", server.port())) {
+                server.close();
+                assertTrue(server.awaitMatches(10, TimeUnit.SECONDS));
+                assertEquals(0, server.playedCount());
+                assertTrue(server.failedCount() <= 1);
+                for (var client : List.of(client1, client2)) {
+                    client.setSoTimeout(10_000);
+                    assertTrue(endOfStreamReached(client));
+                }
+            }
+        }
+    }
+
+    @Test
+    void remotePlayerClientReportsMalformedMessages() throws Exception {
+        try (var serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            var client = new RemotePlayerClient(new TestPlayer(1, ChMap.routes()), "localhost", serverSocket.getLocalPort());
+            var clientThread = Executors.newSingleThreadExecutor();
+            try {
+                var run = clientThread.submit(client::run);
+                try (var socket = serverSocket.accept()) {
+                    // A message initializing the players whose identity is out of range
+                    var out = new DataOutputStream(socket.getOutputStream());
+                    out.writeByte(MessageId.INIT_PLAYERS.ordinal());
+                    out.writeShort(1);
+                    out.writeByte(PlayerId.COUNT);
+                    out.flush();
+                    var e = assertThrows(ExecutionException.class, () -> run.get(10, TimeUnit.SECONDS));
+                    assertTrue(e.getCause() instanceof UncheckedIOException);
+                    assertEquals("malformed INIT_PLAYERS message", e.getCause().getCause().getMessage());
+                }
+            } finally {
+                clientThread.shutdown();
+            }
+        }
+    }
+
+    private static boolean endOfStreamReached(Socket socket) throws IOException {
+        try {
+            var in = socket.getInputStream();
+            while (in.read() >= 0) {
+            }
+            return true;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (SocketException e) {
+            // The connection has been reset by the server
+            return true;
+        }
+    }
+}
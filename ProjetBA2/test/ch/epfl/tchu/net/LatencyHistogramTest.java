@@ -0,0 +1,35 @@
+package ch.epfl.tchu.net;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void latencyHistogramIsEmptyInitially() {
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    void latencyHistogramPercentilesAreCloseUpperBounds() {
+        var histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++)
+            histogram.record(micros * 1000L);
+        assertEquals(10_000, histogram.count());
+        for (double percentile : new double[]{1, 50, 90, 99, 100}) {
+            long exact = (long) (percentile * 100) * 1000;
+            long bound = histogram.percentile(percentile);
+            assertTrue(bound >= exact, "percentile " + percentile);
+            assertTrue(bound <= exact * 1.07 + 1000, "percentile " + percentile);
+        }
+    }
+
+    @Test
+    void latencyHistogramFailsOnInvalidPercentile() {
+        var histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+    }
+}
@@ -0,0 +1,75 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.test.Benchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Measures the serialization of the states sent to a player after each action of a seeded game,
+ * in binary and textual form and as differences with the previous states, and prints their mean size. Run with the main method.
+ */
+public final class SerdeBenchmark {
+
+    private SerdeBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        var recorder = SerdesTest.playedGame(TestRandomizer.SEED).get(0);
+        var gameStates = recorder.gameStates();
+        var playerStates = recorder.playerStates();
+        int count = gameStates.size();
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+
+        long bytes = 0;
+        long characters = 0;
+        long deltaBytes = 0;
+        var deltaCodec = new StateDeltaCodec();
+        for (int i = 0; i < count; i++) {
+            buffer.clear();
+            Serdes.PUBLIC_GAME_STATE.serialize(gameStates.get(i), buffer);
+            Serdes.PLAYER_STATE.serialize(playerStates.get(i), buffer);
+            bytes += buffer.position();
+            characters += Serdes.PUBLIC_GAME_STATE.serializeBase64(gameStates.get(i)).length()
+                    + Serdes.PLAYER_STATE.serializeBase64(playerStates.get(i)).length();
+            buffer.clear();
+            deltaCodec.write(gameStates.get(i), playerStates.get(i), buffer);
+            deltaBytes += buffer.position();
+        }
+        System.out.printf("%d states of a game: %.1f bytes, %.1f Base64 characters, %.1f bytes as differences per update on average%n",
+                count, bytes / (double) count, characters / (double) count, deltaBytes / (double) count);
+
+        var sender = new StateDeltaCodec();
+        var receiver = new StateDeltaCodec();
+
+        new Benchmark("serialization of the states of an update")
+                .add("binary serialize", i -> {
+                    buffer.clear();
+                    Serdes.PUBLIC_GAME_STATE.serialize(gameStates.get(i % count), buffer);
+                    Serdes.PLAYER_STATE.serialize(playerStates.get(i % count), buffer);
+                    return buffer.position();
+                })
+                .add("binary round trip", i -> {
+                    buffer.clear();
+                    Serdes.PUBLIC_GAME_STATE.serialize(gameStates.get(i % count), buffer);
+                    Serdes.PLAYER_STATE.serialize(playerStates.get(i % count), buffer);
+                    buffer.flip();
+                    return Serdes.PUBLIC_GAME_STATE.deserialize(buffer).ticketsCount()
+                            + Serdes.PLAYER_STATE.deserialize(buffer).ticketCount();
+                })
+                .add("delta round trip", i -> {
+                    buffer.clear();
+                    sender.write(gameStates.get(i % count), playerStates.get(i % count), buffer);
+                    buffer.flip();
+                    receiver.read(buffer);
+                    return receiver.gameState().ticketsCount() + receiver.playerState().ticketCount();
+                })
+                .add("Base64 round trip", i -> {
+                    String gameState = Serdes.PUBLIC_GAME_STATE.serializeBase64(gameStates.get(i % count));
+                    String playerState = Serdes.PLAYER_STATE.serializeBase64(playerStates.get(i % count));
+                    return Serdes.PUBLIC_GAME_STATE.deserializeBase64(gameState).ticketsCount()
+                            + Serdes.PLAYER_STATE.deserializeBase64(playerState).ticketCount();
+                })
+                .run();
+    }
+}
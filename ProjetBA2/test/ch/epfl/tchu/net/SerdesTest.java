@@ -0,0 +1,137 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.RecordingPlayer;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerdesTest {
+    private static final Map<PlayerId, String> PLAYER_NAMES =
+            Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    // Returns the recorders of the players of a game between random players
+    static List<RecordingPlayer> playedGame(long seed) {
+        var rng = new Random(seed);
+        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+        for (var playerId : PlayerId.ALL)
+            players.put(playerId, new RecordingPlayer(new TestPlayer(rng.nextLong(), ChMap.routes())));
+        Game.play(players, PLAYER_NAMES, SortedBag.of(ChMap.tickets()), rng);
+        return List.of((RecordingPlayer) players.get(PlayerId.PLAYER_1), (RecordingPlayer) players.get(PlayerId.PLAYER_2));
+    }
+
+    private static <T> T roundTrip(Serde<T> serde, T value) {
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        serde.serialize(value, buffer);
+        buffer.flip();
+        T binary = serde.deserialize(buffer);
+        assertFalse(buffer.hasRemaining());
+        T text = serde.deserializeBase64(serde.serializeBase64(value));
+        assertEquals(serde.serializeBase64(binary), serde.serializeBase64(text));
+        return binary;
+    }
+
+    static void assertSamePlayerState(PublicPlayerState expected, PublicPlayerState actual) {
+        assertEquals(expected.ticketCount(), actual.ticketCount());
+        assertEquals(expected.cardCount(), actual.cardCount());
+        assertEquals(expected.routes(), actual.routes());
+    }
+
+    static void assertSameGameState(PublicGameState expected, PublicGameState actual) {
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        assertEquals(expected.cardState().faceUpCards(), actual.cardState().faceUpCards());
+        assertEquals(expected.cardState().deckSize(), actual.cardState().deckSize());
+        assertEquals(expected.cardState().discardsSize(), actual.cardState().discardsSize());
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        for (var playerId : PlayerId.ALL)
+            assertSamePlayerState(expected.playerState(playerId), actual.playerState(playerId));
+    }
+
+    static void assertSamePlayerState(PlayerState expected, PlayerState actual) {
+        assertEquals(expected.tickets(), actual.tickets());
+        assertEquals(expected.cards(), actual.cards());
+        assertEquals(expected.routes(), actual.routes());
+    }
+
+    @Test
+    void serdesWorkOnSimpleValues() {
+        assertEquals("", roundTrip(Serdes.STRING, ""));
+        assertEquals("Zürich – Genève", roundTrip(Serdes.STRING, "Zürich – Genève"));
+        for (int slot = -1; slot < 5; slot++)
+            assertEquals(slot, roundTrip(Serdes.SMALL_INTEGER, slot));
+        for (var playerId : PlayerId.ALL)
+            assertEquals(playerId, roundTrip(Serdes.PLAYER_ID, playerId));
+        assertNull(roundTrip(Serdes.PLAYER_ID, null));
+        for (var turnKind : Player.TurnKind.ALL)
+            assertEquals(turnKind, roundTrip(Serdes.TURN_KIND, turnKind));
+        for (var card : Card.ALL)
+            assertEquals(card, roundTrip(Serdes.CARD, card));
+        for (var route : ChMap.routes())
+            assertSame(route, roundTrip(Serdes.ROUTE, route));
+        assertEquals(ChMap.routes(), roundTrip(Serdes.ROUTE_LIST, ChMap.routes()));
+        var tickets = SortedBag.of(ChMap.tickets());
+        assertEquals(tickets.toString(), roundTrip(Serdes.TICKET_BAG, tickets).toString());
+        assertEquals(PLAYER_NAMES, roundTrip(Serdes.PLAYER_NAMES, PLAYER_NAMES));
+    }
+
+    @Test
+    void serdesWorkOnCardBags() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cards = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                cards.add(rng.nextInt(5), card);
+            var bag = cards.build();
+            assertEquals(bag, roundTrip(Serdes.CARD_BAG, bag));
+        }
+        var options = List.of(SortedBag.of(2, Card.RED), SortedBag.of(1, Card.RED, 1, Card.LOCOMOTIVE), SortedBag.<Card>of());
+        assertEquals(options, roundTrip(Serdes.CARD_BAG_LIST, options));
+    }
+
+    @Test
+    void serdesWorkOnGameStates() {
+        for (var recorder : playedGame(TestRandomizer.SEED)) {
+            for (int i = 0; i < recorder.gameStates().size(); i++) {
+                var gameState = recorder.gameStates().get(i);
+                var playerState = recorder.playerStates().get(i);
+                assertSameGameState(gameState, roundTrip(Serdes.PUBLIC_GAME_STATE, gameState));
+                assertSamePlayerState(playerState, roundTrip(Serdes.PLAYER_STATE, playerState));
+            }
+        }
+    }
+
+    @Test
+    void serdesWriteStatesCompactly() {
+        var recorder = playedGame(TestRandomizer.SEED).get(0);
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        var initialState = recorder.gameStates().get(0);
+        Serdes.PUBLIC_GAME_STATE.serialize(initialState, buffer);
+        // 1 (tickets) + 5 + 2 (cards) + 1 (current player) + 2 * 3 (players without routes) + 1 (last player)
+        assertEquals(16, buffer.position());
+    }
+
+    @Test
+    void serdesFailOnValuesOutsideTheirDomain() {
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> Serdes.SMALL_INTEGER.serialize(128, buffer));
+        assertThrows(IllegalArgumentException.class, () -> Serde.oneOf(List.of("a")).serialize("b", buffer));
+        assertThrows(IllegalArgumentException.class, () -> Serdes.STRING.deserializeBase64("not base 64!"));
+    }
+}
@@ -0,0 +1,94 @@
+package ch.epfl.tchu.net;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateDeltaCodecTest {
+
+    // Sends the given states from one codec to another, checks them and returns the number of bytes of each difference
+    private static int[] sendStates(List<PublicGameState> gameStates, List<PlayerState> playerStates) {
+        var sender = new StateDeltaCodec();
+        var receiver = new StateDeltaCodec();
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        int[] sizes = new int[gameStates.size()];
+        for (int i = 0; i < gameStates.size(); i++) {
+            buffer.clear();
+            sender.write(gameStates.get(i), playerStates.get(i), buffer);
+            buffer.flip();
+            sizes[i] = buffer.remaining();
+            receiver.read(buffer);
+            assertFalse(buffer.hasRemaining());
+
+            SerdesTest.assertSameGameState(gameStates.get(i), receiver.gameState());
+            SerdesTest.assertSamePlayerState(playerStates.get(i), receiver.playerState());
+            assertEquals(playerStates.get(i).longestTrail().length(), receiver.playerState().longestTrail().length());
+            assertEquals(playerStates.get(i).finalPoints(), receiver.playerState().finalPoints());
+        }
+        return sizes;
+    }
+
+    @Test
+    void stateDeltaCodecTransmitsTheStatesOfWholeGames() {
+        for (long seed = 0; seed < 5; seed++) {
+            for (var player : SerdesTest.playedGame(seed)) {
+                var sizes = sendStates(player.gameStates(), player.playerStates());
+                assertFalse(player.gameStates().isEmpty());
+
+                int total = 0;
+                for (int i = 1; i < sizes.length; i++) {
+                    total += sizes[i];
+                    assertTrue(sizes[i] < sizes[0]);
+                }
+                assertTrue(total <= 20 * (sizes.length - 1));
+            }
+        }
+    }
+
+    @Test
+    void stateDeltaCodecWritesEntirelyStatesWhichAreNotAdditions() {
+        var player = SerdesTest.playedGame(1).get(0);
+        var gameStates = player.gameStates();
+        var playerStates = player.playerStates();
+        int last = gameStates.size() - 1;
+        var sizes = sendStates(
+                List.of(gameStates.get(last), gameStates.get(0), gameStates.get(last)),
+                List.of(playerStates.get(last), playerStates.get(0), playerStates.get(last)));
+        var full = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        Serdes.PUBLIC_GAME_STATE.serialize(gameStates.get(0), full);
+        Serdes.PLAYER_STATE.serialize(playerStates.get(0), full);
+        assertEquals(Short.BYTES + full.position(), sizes[1]);
+    }
+
+    @Test
+    void stateDeltaCodecRebuildsTheHandAfterAClaim() {
+        var routes = ChMap.routes();
+        var hand = SortedBag.of(3, Card.RED, 2, Card.LOCOMOTIVE);
+        var before = PlayerState.of(SortedBag.of(ChMap.tickets().subList(0, 2)), CardBag.of(hand), List.of());
+        var after = before.withClaimedRoute(routes.get(0), SortedBag.of(1, Card.RED, 1, Card.LOCOMOTIVE))
+                .withAddedCard(Card.BLUE);
+        var gameState = SerdesTest.playedGame(2).get(0).gameStates().get(0);
+        sendStates(List.of(gameState, gameState), List.of(before, after));
+    }
+
+    @Test
+    void stateDeltaCodecFailsOnDifferenceWithoutPreviousState() {
+        var player = SerdesTest.playedGame(3).get(0);
+        var sender = new StateDeltaCodec();
+        var buffer = ByteBuffer.allocate(Serdes.MAX_SIZE);
+        sender.write(player.gameStates().get(0), player.playerStates().get(0), buffer);
+        buffer.clear();
+        sender.write(player.gameStates().get(1), player.playerStates().get(1), buffer);
+        buffer.flip();
+        assertThrows(IllegalStateException.class, () -> new StateDeltaCodec().read(buffer));
+    }
+}
@@ -0,0 +1,60 @@
+package ch.epfl.tchu.sim;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.TestPlayer;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchSimulatorTest {
+    private static final int GAME_COUNT = 200;
+
+    private static MatchSimulator newSimulator() {
+        return new MatchSimulator(
+                seed -> new TestPlayer(seed, ChMap.routes()),
+                seed -> new TestPlayer(seed, ChMap.routes()),
+                SortedBag.of(ChMap.tickets()));
+    }
+
+    @Test
+    void matchSimulatorRunFailsWithNegativeGameCount() {
+        assertThrows(IllegalArgumentException.class, () -> newSimulator().run(-1, TestRandomizer.SEED));
+    }
+
+    @Test
+    void matchSimulatorRunAggregatesAllGames() {
+        var report = newSimulator().run(GAME_COUNT, TestRandomizer.SEED);
+        assertEquals(GAME_COUNT, report.gameCount());
+        assertEquals(GAME_COUNT, report.wins(PlayerId.PLAYER_1) + report.wins(PlayerId.PLAYER_2) + report.draws());
+        assertEquals(GAME_COUNT, report.turnCountStatistics().getCount());
+        assertEquals(GAME_COUNT, report.turnCountDistribution().values().stream().mapToInt(Integer::intValue).sum());
+        for (PlayerId playerId : PlayerId.ALL) {
+            assertEquals(GAME_COUNT, report.pointsStatistics(playerId).getCount());
+            assertEquals(GAME_COUNT, report.pointsDistribution(playerId).values().stream().mapToInt(Integer::intValue).sum());
+        }
+        assertEquals(1.0, report.winRate(PlayerId.PLAYER_1) + report.winRate(PlayerId.PLAYER_2) + (double) report.draws() / GAME_COUNT, 1e-9);
+    }
+
+    @Test
+    void matchSimulatorRunDoesNotDependOnThreadCount() {
+        var simulator = newSimulator();
+        var sequential = simulator.run(GAME_COUNT, TestRandomizer.SEED, new ForkJoinPool(1));
+        var parallel = simulator.run(GAME_COUNT, TestRandomizer.SEED, new ForkJoinPool(4));
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.toString(), parallel.toString());
+    }
+
+    @Test
+    void matchSimulatorGameSeedsAreDistinct() {
+        var seeds = new HashSet<Long>();
+        for (int i = 0; i < 10_000; i++)
+            seeds.add(MatchSimulator.gameSeed(TestRandomizer.SEED, i));
+        assertEquals(10_000, seeds.size());
+    }
+}
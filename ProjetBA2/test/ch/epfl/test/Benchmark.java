@@ -0,0 +1,163 @@
+package ch.epfl.test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Minimal micro-benchmark harness: each case is run for a number of warm-up rounds, then measured
+ * over several rounds; the median time per operation and the bytes allocated per operation are printed.
+ * The allocations are read from the threading management bean, when the virtual machine supports it.
+ *
+ * A case receives the index of the operation in the round and returns a value depending on its work,
+ * which is consumed by the harness so that the work cannot be optimized away.
+ */
+public final class Benchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 11;
+    private static final long TARGET_ROUND_NANOS = 50_000_000L;
+
+    private final String name;
+    private final List<String> caseNames = new ArrayList<>();
+    private final List<IntToLongFunction> cases = new ArrayList<>();
+    private final List<Integer> operationCounts = new ArrayList<>();
+
+    private long sink;
+
+    public Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a case, whose operations are repeated until a round lasts long enough.
+     */
+    public Benchmark add(String caseName, IntToLongFunction operation) {
+        return add(caseName, 0, operation);
+    }
+
+    /**
+     * Adds a case performing exactly the given number of operations per round (0 to calibrate it).
+     */
+    public Benchmark add(String caseName, int operationsPerRound, IntToLongFunction operation) {
+        caseNames.add(caseName);
+        cases.add(operation);
+        operationCounts.add(operationsPerRound);
+        return this;
+    }
+
+    /**
+     * Runs all the cases, in the order in which they were added, and prints their results.
+     */
+    public void run() {
+        System.out.printf("# %s (median of %d rounds after %d warm-up rounds)%n", name, MEASURED_ROUNDS, WARMUP_ROUNDS);
+        System.out.printf("%-45s %14s %14s%n", "case", "ns/op", "bytes/op");
+        for (int i = 0; i < cases.size(); i++) {
+            IntToLongFunction operation = cases.get(i);
+            int operations = operationCounts.get(i) > 0 ? operationCounts.get(i) : calibrate(operation);
+
+            for (int r = 0; r < WARMUP_ROUNDS; r++)
+                round(operation, operations);
+
+            long[] nanos = new long[MEASURED_ROUNDS];
+            long[] bytes = new long[MEASURED_ROUNDS];
+            for (int r = 0; r < MEASURED_ROUNDS; r++) {
+                long allocatedBefore = Allocations.current();
+                long start = System.nanoTime();
+                round(operation, operations);
+                nanos[r] = System.nanoTime() - start;
+                bytes[r] = Allocations.current() - allocatedBefore - Allocations.overhead();
+            }
+            String bytesPerOperation = Allocations.isSupported()
+                    ? String.format("%,.1f", Math.max(0, median(bytes)) / (double) operations)
+                    : "n/a";
+            System.out.printf("%-45s %,14.1f %14s%n",
+                    caseNames.get(i), median(nanos) / (double) operations, bytesPerOperation);
+        }
+        if (sink == 42)
+            System.out.println();
+    }
+
+    private int calibrate(IntToLongFunction operation) {
+        int operations = 1;
+        while (true) {
+            long start = System.nanoTime();
+            round(operation, operations);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= TARGET_ROUND_NANOS / 4 || operations >= (1 << 24))
+                return (int) Math.max(1, Math.min(1 << 24, operations * (TARGET_ROUND_NANOS / Math.max(1, elapsed))));
+            operations *= 2;
+        }
+    }
+
+    private void round(IntToLongFunction operation, int operations) {
+        long s = 0;
+        for (int i = 0; i < operations; i++)
+            s += operation.applyAsLong(i);
+        sink += s;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Bytes allocated by the current thread, read through the platform bean server so that
+     * no class outside of the java and javax packages is needed.
+     */
+    private static final class Allocations {
+        private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+        private static final ObjectName THREADING = threadingName();
+        private static final String[] SIGNATURE = {long.class.getName()};
+        private static final boolean SUPPORTED = current() >= 0;
+        private static final long OVERHEAD = measureOverhead();
+
+        private Allocations() {
+        }
+
+        static boolean isSupported() {
+            return SUPPORTED;
+        }
+
+        static long overhead() {
+            return OVERHEAD;
+        }
+
+        static long current() {
+            if (THREADING == null)
+                return -1;
+            try {
+                Object bytes = SERVER.invoke(THREADING, "getThreadAllocatedBytes",
+                        new Object[]{Thread.currentThread().getId()}, SIGNATURE);
+                return (Long) bytes;
+            } catch (JMException | RuntimeException e) {
+                return -1;
+            }
+        }
+
+        private static long measureOverhead() {
+            if (!SUPPORTED)
+                return 0;
+            long[] overheads = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < overheads.length; i++) {
+                long before = current();
+                overheads[i] = current() - before;
+            }
+            return median(overheads);
+        }
+
+        private static ObjectName threadingName() {
+            try {
+                return new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME);
+            } catch (JMException e) {
+                return null;
+            }
+        }
+    }
+}